@@ -0,0 +1,155 @@
+package com.kyc.fakeollama;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canned model output for the KYC service's agents.
+ * The agent is recognised from its system prompt, and every answer matches
+ * the JSON shape that agent's result record expects. Answers are derived from
+ * a hash of the prompt, so the same prompt always gets the same answer and
+ * different prompts still exercise different branches (risk levels, routing
+ * targets, escalations).
+ */
+public class AgentResponses {
+
+    /** Must match ChatbotStreamingAgent.METADATA_MARKER in the service. */
+    static final String METADATA_MARKER = "<<<METADATA>>>";
+
+    private final ObjectMapper objectMapper;
+
+    public AgentResponses(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public String respond(String system, String user) {
+        int hash = Math.abs((system + "\n" + user).hashCode() % 1000);
+        try {
+            // Checked first: the summary instructions also mention the support assistant
+            if (system.contains("running summary")) {
+                return "The customer asked about KYC document requirements and processing times; "
+                        + "the assistant explained the accepted documents and the review timeline.";
+            }
+            if (system.contains("Document Analysis Agent")) {
+                return objectMapper.writeValueAsString(document(hash));
+            }
+            if (system.contains("Risk Assessment Agent")) {
+                return objectMapper.writeValueAsString(risk(hash));
+            }
+            if (system.contains("Supervisor Agent")) {
+                return objectMapper.writeValueAsString(routing(user, hash));
+            }
+            if (system.contains(METADATA_MARKER)) {
+                return chatAnswer(hash) + "\n" + METADATA_MARKER + objectMapper.writeValueAsString(chatMetadata(hash));
+            }
+            if (system.contains("support assistant")) {
+                Map<String, Object> response = new LinkedHashMap<>();
+                response.put("response", chatAnswer(hash));
+                response.putAll(chatMetadata(hash));
+                return objectMapper.writeValueAsString(response);
+            }
+            return "OK";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, Object> document(int hash) {
+        Map<String, Object> extracted = new LinkedHashMap<>();
+        extracted.put("fullName", "Alex Sample");
+        extracted.put("dateOfBirth", "1985-04-12");
+        extracted.put("nationality", "FR");
+        extracted.put("gender", "X");
+        extracted.put("documentNumberHash", "sha256:" + Integer.toHexString(hash * 7919));
+        extracted.put("documentType", "PASSPORT");
+        extracted.put("issueDate", LocalDate.now().minusYears(2).toString());
+        extracted.put("expiryDate", LocalDate.now().plusYears(8).toString());
+        extracted.put("issuingAuthority", "Prefecture de Police");
+        extracted.put("placeOfIssue", "Paris");
+        extracted.put("address", Map.of("street", "1 Rue Exemple", "city", "Paris", "postalCode", "75001",
+                "country", "FR"));
+
+        double overall = 0.80 + (hash % 20) / 100.0;
+        return Map.of(
+                "extractedData", extracted,
+                "confidenceScores", Map.of("fullName", 0.97, "dateOfBirth", 0.95, "documentNumber", 0.93,
+                        "nationality", 0.96, "overall", overall),
+                "validationResults", Map.of("documentValid", true, "notExpired", true, "formatValid", true,
+                        "suspiciousPatterns", List.of()),
+                "validationWarnings", hash % 10 == 0 ? List.of("Low image contrast in MRZ") : List.of(),
+                "gdprMetadata", Map.of("dataMinimized", true, "sensitiveFieldsHashed", List.of("documentNumber"),
+                        "retentionDays", 90, "processingPurpose", "KYC_VERIFICATION",
+                        "legalBasis", "LEGAL_OBLIGATION"));
+    }
+
+    private static Map<String, Object> risk(int hash) {
+        int score = hash % 101;
+        String level = score <= 25 ? "LOW" : score <= 50 ? "MEDIUM" : score <= 75 ? "HIGH" : "CRITICAL";
+        boolean enhanced = score > 50;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("riskLevel", level);
+        result.put("riskScore", score);
+        result.put("riskCategory", enhanced ? "ENHANCED" : "STANDARD");
+        result.put("riskFactors", List.of(
+                Map.of("category", "GEOGRAPHIC", "factor", "Residence country risk rating", "severity",
+                        enhanced ? "HIGH" : "LOW", "weight", 0.4),
+                Map.of("category", "CUSTOMER", "factor", "Source of wealth documentation", "severity", "MEDIUM",
+                        "weight", 0.3)));
+        result.put("mitigatingFactors", List.of("Long-standing account with regular activity"));
+        result.put("recommendedActions", enhanced
+                ? List.of("Perform enhanced due diligence", "Obtain senior approval")
+                : List.of("Standard periodic review"));
+        result.put("monitoringRequirements", Map.of("reviewFrequency", enhanced ? "MONTHLY" : "ANNUAL",
+                "enhancedMonitoring", enhanced, "transactionThreshold", enhanced ? "5000" : "15000"));
+        result.put("complianceRequirements", Map.of("eddRequired", enhanced, "sourceOfWealthVerification", enhanced,
+                "seniorApprovalRequired", score > 75, "sarConsideration", score > 90));
+        result.put("gdprCompliance", Map.of("automatedDecision", true, "humanReviewRequired", enhanced,
+                "humanReviewReason", enhanced ? "Elevated risk score" : "",
+                "decisionRationale", "Score derived from geographic and customer risk factors",
+                "contestProcedure", "Contact the Data Protection Officer to request human review",
+                "dataUsed", List.of("nationality", "residenceCountry", "pepStatus")));
+        result.put("nextReviewDate", LocalDate.now().plusMonths(enhanced ? 1 : 12).toString());
+        return result;
+    }
+
+    private static Map<String, Object> routing(String user, int hash) {
+        String agent = user.contains("DOCUMENT_ANALYSIS") ? "DOCUMENT"
+                : user.contains("RISK_ASSESSMENT") ? "RISK"
+                : user.contains("CUSTOMER_INQUIRY") ? "CHATBOT"
+                : "HUMAN_ESCALATION";
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("selectedAgent", agent);
+        result.put("reasoning", "Routed by request type");
+        result.put("privacyChecksPassed", true);
+        result.put("requiredAgents", agent.equals("DOCUMENT") ? List.of("DOCUMENT", "RISK") : List.of(agent));
+        result.put("executionOrder", "SEQUENTIAL");
+        result.put("estimatedProcessingTime", 10 + hash % 50);
+        result.put("escalationReason", agent.equals("HUMAN_ESCALATION") ? "Unrecognised request type" : null);
+        return result;
+    }
+
+    private static String chatAnswer(int hash) {
+        return hash % 2 == 0
+                ? "Thanks for your question. For identity verification we accept a valid passport or national "
+                        + "ID card, plus a proof of address issued within the last three months."
+                : "Thanks for reaching out. Most applications are reviewed within two business days; you will "
+                        + "be notified as soon as the verification is complete.";
+    }
+
+    private static Map<String, Object> chatMetadata(int hash) {
+        boolean escalate = hash % 20 == 0;
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("suggestedActions", List.of("Upload your documents", "Check your application status"));
+        metadata.put("escalationNeeded", escalate);
+        metadata.put("escalationReason", escalate ? "Request needs a human agent" : "");
+        metadata.put("disclaimer", "This is general information, not legal advice.");
+        metadata.put("relatedTopics", List.of("Accepted documents", "Processing times"));
+        return metadata;
+    }
+}
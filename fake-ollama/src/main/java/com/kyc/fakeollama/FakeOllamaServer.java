@@ -0,0 +1,346 @@
+package com.kyc.fakeollama;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embeddable stand-in for an Ollama server.
+ * Serves /api/chat (plain and streamed), /api/embed, /api/embeddings and
+ * /api/tags with canned {@link AgentResponses}, so the service can be load
+ * tested without a model server and its own overhead measured in isolation.
+ *
+ * Latency and failures are drawn from a random generator seeded with
+ * {@code seed}; each request takes the next split of the generator, so a
+ * sequential run replays exactly. Embeddings are derived from a hash of the
+ * text, so equal texts always get equal vectors.
+ *
+ * <pre>
+ * try (FakeOllamaServer ollama = FakeOllamaServer.builder()
+ *         .chatLatency(LatencyDistribution.logNormal(Duration.ofMillis(800), 0.5))
+ *         .errorRate(0.01)
+ *         .build()
+ *         .start()) {
+ *     // point langchain4j.ollama.base-url at ollama.baseUrl()
+ * }
+ * </pre>
+ *
+ * Standalone: {@code java -jar fake-ollama-exec.jar --port=11434 --chat-latency=lognormal:800ms:0.5}
+ */
+public final class FakeOllamaServer implements AutoCloseable {
+
+    private static final double CHARS_PER_TOKEN = 4.0;
+
+    private final int port;
+    private final LatencyDistribution chatLatency;
+    private final LatencyDistribution embeddingLatency;
+    private final double tokensPerSecond;
+    private final double errorRate;
+    private final int embeddingDimension;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AgentResponses responses = new AgentResponses(objectMapper);
+    private final SplittableRandom random;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private FakeOllamaServer(Builder builder) {
+        this.port = builder.port;
+        this.chatLatency = builder.chatLatency;
+        this.embeddingLatency = builder.embeddingLatency;
+        this.tokensPerSecond = builder.tokensPerSecond;
+        this.errorRate = builder.errorRate;
+        this.embeddingDimension = builder.embeddingDimension;
+        this.random = new SplittableRandom(builder.seed);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public FakeOllamaServer start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        // Simulated latency is a sleep, so a virtual thread per request keeps concurrency unbounded
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/chat", exchange -> handle(exchange, this::chat));
+        server.createContext("/api/embed", exchange -> handle(exchange, this::embed));
+        server.createContext("/api/embeddings", exchange -> handle(exchange, this::embeddings));
+        server.createContext("/api/tags", exchange -> handle(exchange, this::tags));
+        server.start();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long failureCount() {
+        return failures.get();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange, JsonNode body, SplittableRandom random) throws Exception;
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        requests.incrementAndGet();
+        SplittableRandom requestRandom;
+        synchronized (random) {
+            requestRandom = random.split();
+        }
+        try (exchange) {
+            byte[] raw = exchange.getRequestBody().readAllBytes();
+            JsonNode body = raw.length == 0 ? objectMapper.createObjectNode() : objectMapper.readTree(raw);
+            if (requestRandom.nextDouble() < errorRate) {
+                failures.incrementAndGet();
+                send(exchange, 500, Map.of("error", "simulated model server failure"));
+                return;
+            }
+            handler.handle(exchange, body, requestRandom);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            send(exchange, 400, Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    private void chat(HttpExchange exchange, JsonNode body, SplittableRandom random) throws Exception {
+        String model = body.path("model").asText("llama3.2");
+        StringBuilder system = new StringBuilder();
+        String user = "";
+        int promptChars = 0;
+        for (JsonNode message : body.path("messages")) {
+            String content = message.path("content").asText("");
+            promptChars += content.length();
+            switch (message.path("role").asText()) {
+                case "system" -> system.append(content).append('\n');
+                case "user" -> user = content;
+                default -> {
+                }
+            }
+        }
+        // An empty message list only loads the model
+        String content = body.path("messages").isEmpty() ? "" : responses.respond(system.toString(), user);
+        int promptTokens = tokens(promptChars);
+        int completionTokens = tokens(content.length());
+
+        Duration firstToken = chatLatency.sample(random);
+        sleep(firstToken);
+        if (!body.path("stream").asBoolean(true)) {
+            sleep(generation(completionTokens));
+            send(exchange, 200, chatChunk(model, content, true, promptTokens, completionTokens));
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        List<String> pieces = split(content);
+        Duration perPiece = pieces.isEmpty() ? Duration.ZERO : generation(completionTokens).dividedBy(pieces.size());
+        for (String piece : pieces) {
+            writeLine(out, chatChunk(model, piece, false, 0, 0));
+            sleep(perPiece);
+        }
+        writeLine(out, chatChunk(model, "", true, promptTokens, completionTokens));
+    }
+
+    private void embed(HttpExchange exchange, JsonNode body, SplittableRandom random) throws Exception {
+        List<List<Double>> embeddings = new ArrayList<>();
+        JsonNode input = body.path("input");
+        if (input.isArray()) {
+            input.forEach(text -> embeddings.add(embedding(text.asText())));
+        } else {
+            embeddings.add(embedding(input.asText("")));
+        }
+        sleep(embeddingLatency.sample(random));
+        send(exchange, 200, Map.of("model", body.path("model").asText("nomic-embed-text"), "embeddings", embeddings));
+    }
+
+    private void embeddings(HttpExchange exchange, JsonNode body, SplittableRandom random) throws Exception {
+        List<Double> embedding = embedding(body.path("prompt").asText(""));
+        sleep(embeddingLatency.sample(random));
+        send(exchange, 200, Map.of("embedding", embedding));
+    }
+
+    private void tags(HttpExchange exchange, JsonNode body, SplittableRandom random) throws Exception {
+        send(exchange, 200, Map.of("models", List.of(
+                Map.of("name", "llama3.2:latest", "model", "llama3.2:latest"),
+                Map.of("name", "nomic-embed-text:latest", "model", "nomic-embed-text:latest"))));
+    }
+
+    private Map<String, Object> chatChunk(String model, String content, boolean done, int promptTokens,
+            int completionTokens) {
+        Map<String, Object> chunk = new LinkedHashMap<>();
+        chunk.put("model", model);
+        chunk.put("created_at", Instant.now().toString());
+        chunk.put("message", Map.of("role", "assistant", "content", content));
+        chunk.put("done", done);
+        if (done) {
+            chunk.put("done_reason", "stop");
+            chunk.put("prompt_eval_count", promptTokens);
+            chunk.put("eval_count", completionTokens);
+        }
+        return chunk;
+    }
+
+    /**
+     * Unit vector seeded from the text, so similar texts are not similar but equal texts are equal
+     */
+    private List<Double> embedding(String text) {
+        SplittableRandom vectorRandom = new SplittableRandom(text.hashCode());
+        double[] vector = new double[embeddingDimension];
+        double norm = 0;
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = vectorRandom.nextDouble(-1, 1);
+            norm += vector[i] * vector[i];
+        }
+        norm = Math.sqrt(norm);
+        List<Double> embedding = new ArrayList<>(vector.length);
+        for (double value : vector) {
+            embedding.add(value / norm);
+        }
+        return embedding;
+    }
+
+    private Duration generation(int completionTokens) {
+        return tokensPerSecond <= 0 ? Duration.ZERO
+                : Duration.ofNanos((long) (completionTokens / tokensPerSecond * 1_000_000_000L));
+    }
+
+    private static int tokens(int chars) {
+        return (int) Math.ceil(chars / CHARS_PER_TOKEN);
+    }
+
+    private static List<String> split(String content) {
+        List<String> pieces = new ArrayList<>();
+        for (int i = 0; i < content.length(); i += (int) CHARS_PER_TOKEN) {
+            pieces.add(content.substring(i, Math.min(content.length(), i + (int) CHARS_PER_TOKEN)));
+        }
+        return pieces;
+    }
+
+    private static void sleep(Duration duration) throws InterruptedException {
+        if (!duration.isZero() && !duration.isNegative()) {
+            Thread.sleep(duration);
+        }
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+        out.flush();
+    }
+
+    private void send(HttpExchange exchange, int status, Object value) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(value);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    public static final class Builder {
+
+        private int port;
+        private long seed = 42;
+        private LatencyDistribution chatLatency = LatencyDistribution.none();
+        private LatencyDistribution embeddingLatency = LatencyDistribution.none();
+        private double tokensPerSecond;
+        private double errorRate;
+        private int embeddingDimension = 768;
+
+        /** 0 picks a free port. */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /** Time to the first token of a chat reply. */
+        public Builder chatLatency(LatencyDistribution chatLatency) {
+            this.chatLatency = chatLatency;
+            return this;
+        }
+
+        public Builder embeddingLatency(LatencyDistribution embeddingLatency) {
+            this.embeddingLatency = embeddingLatency;
+            return this;
+        }
+
+        /** Generation speed after the first token; 0 returns the whole reply at once. */
+        public Builder tokensPerSecond(double tokensPerSecond) {
+            this.tokensPerSecond = tokensPerSecond;
+            return this;
+        }
+
+        /** Share of requests answered with HTTP 500, between 0 and 1. */
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /** 768 matches nomic-embed-text and the pgvector tables. */
+        public Builder embeddingDimension(int embeddingDimension) {
+            this.embeddingDimension = embeddingDimension;
+            return this;
+        }
+
+        public FakeOllamaServer build() {
+            return new FakeOllamaServer(this);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Builder builder = builder().port(11434);
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            String value = option.length > 1 ? option[1] : "";
+            switch (option[0]) {
+                case "port" -> builder.port(Integer.parseInt(value));
+                case "seed" -> builder.seed(Long.parseLong(value));
+                case "chat-latency" -> builder.chatLatency(LatencyDistribution.parse(value));
+                case "embedding-latency" -> builder.embeddingLatency(LatencyDistribution.parse(value));
+                case "tokens-per-second" -> builder.tokensPerSecond(Double.parseDouble(value));
+                case "error-rate" -> builder.errorRate(Double.parseDouble(value));
+                case "embedding-dimension" -> builder.embeddingDimension(Integer.parseInt(value));
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        FakeOllamaServer server = builder.build().start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("Fake Ollama listening on " + server.baseUrl());
+    }
+}
@@ -0,0 +1,73 @@
+package com.kyc.fakeollama;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Simulated response latency.
+ * Parsed from {@code none}, {@code fixed:200ms}, {@code uniform:100ms:400ms}
+ * or {@code lognormal:800ms:0.5} (median and sigma of the underlying normal).
+ */
+public sealed interface LatencyDistribution {
+
+    Duration sample(RandomGenerator random);
+
+    static LatencyDistribution none() {
+        return new Fixed(Duration.ZERO);
+    }
+
+    static LatencyDistribution fixed(Duration latency) {
+        return new Fixed(latency);
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        return new Uniform(min, max);
+    }
+
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        return new LogNormal(median, sigma);
+    }
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        return switch (parts[0]) {
+            case "none" -> none();
+            case "fixed" -> fixed(duration(parts[1]));
+            case "uniform" -> uniform(duration(parts[1]), duration(parts[2]));
+            case "lognormal" -> logNormal(duration(parts[1]), Double.parseDouble(parts[2]));
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        };
+    }
+
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofMillis((long) (Double.parseDouble(value.substring(0, value.length() - 1)) * 1000));
+        }
+        return Duration.ofMillis(Long.parseLong(value));
+    }
+
+    record Fixed(Duration latency) implements LatencyDistribution {
+        @Override
+        public Duration sample(RandomGenerator random) {
+            return latency;
+        }
+    }
+
+    record Uniform(Duration min, Duration max) implements LatencyDistribution {
+        @Override
+        public Duration sample(RandomGenerator random) {
+            long span = max.toNanos() - min.toNanos();
+            return min.plusNanos(span <= 0 ? 0 : random.nextLong(span + 1));
+        }
+    }
+
+    record LogNormal(Duration median, double sigma) implements LatencyDistribution {
+        @Override
+        public Duration sample(RandomGenerator random) {
+            return Duration.ofNanos((long) (median.toNanos() * Math.exp(sigma * random.nextGaussian())));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+#
+# Compares a JMH run of the kyc-service benchmarks against a committed baseline.
+#
+# Matches benchmarks by name and parameters and prints the change of each
+# primary score. A benchmark regresses when it is worse than the baseline by
+# more than THRESHOLD percent and the difference exceeds both error margins
+# (throughput modes: lower is worse; time modes: higher is worse). Benchmarks
+# missing on either side are listed but do not fail the comparison.
+#
+# Usage:
+#   ./jmh-compare.sh <baseline.json> [result.json]
+#
+# result.json defaults to kyc-service/target/jmh-result.json (the jmh profile
+# output). Exits 1 if any benchmark regressed, 2 on usage errors.
+#
+# Environment:
+#   THRESHOLD      allowed slowdown in percent (default 10)
+#
+# Requires: jq.
+
+set -euo pipefail
+
+SCRIPT_DIR=$(cd "$(dirname "$0")" && pwd)
+BASELINE="${1:-}"
+RESULT="${2:-$SCRIPT_DIR/../../kyc-service/target/jmh-result.json}"
+THRESHOLD="${THRESHOLD:-10}"
+
+if [[ -z "$BASELINE" ]]; then
+  echo "usage: $0 <baseline.json> [result.json]" >&2
+  exit 2
+fi
+for file in "$BASELINE" "$RESULT"; do
+  if [[ ! -f "$file" ]]; then
+    echo "no such file: $file" >&2
+    exit 2
+  fi
+done
+
+jq -r -n --slurpfile base "$BASELINE" --slurpfile run "$RESULT" --argjson threshold "$THRESHOLD" '
+  def key: .benchmark + (if (.params // {}) == {} then "" else " " + (.params | tostring) end);
+  def index: map({key: key, value: .}) | from_entries;
+  # JMH writes "NaN" when a single iteration gives no error estimate
+  def error_margin: if type == "number" and (isnan | not) then . else 0 end;
+  ($base[0] | index) as $b
+  | ($run[0] | index) as $r
+  | (($b | keys) + ($r | keys) | unique)[]
+  | . as $k
+  | if $b[$k] == null then "NEW\t\($k)\t-\t\($r[$k].primaryMetric.score)\t-"
+    elif $r[$k] == null then "MISSING\t\($k)\t\($b[$k].primaryMetric.score)\t-\t-"
+    else
+      ($b[$k].primaryMetric) as $old
+      | ($r[$k].primaryMetric) as $new
+      | ($r[$k].mode == "thrpt") as $higherIsBetter
+      | (if $higherIsBetter then $old.score - $new.score else $new.score - $old.score end) as $worse
+      | (100 * $worse / $old.score) as $pct
+      | (($old.scoreError | error_margin) + ($new.scoreError | error_margin)) as $margin
+      | (if $pct > $threshold and $worse > $margin then "REGRESSED"
+         elif $pct < -$threshold and -$worse > $margin then "IMPROVED"
+         else "OK" end) as $verdict
+      | (100 * ($new.score - $old.score) / $old.score * 10 | round / 10) as $change
+      | "\($verdict)\t\($k)\t\($old.score)\t\($new.score)\t\($change)% \($new.scoreUnit)"
+    end
+' | {
+  regressed=0
+  printf '%-10s %-70s %14s %14s %s\n' verdict benchmark baseline run change
+  while IFS=$'\t' read -r verdict name old new change; do
+    printf '%-10s %-70s %14.14s %14.14s %s\n' "$verdict" "$name" "$old" "$new" "$change"
+    [[ "$verdict" == REGRESSED ]] && regressed=1
+  done
+  exit "$regressed"
+}
@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+#
+# Concurrent-request capacity benchmark for the KYC service.
+#
+# Fires bursts of simultaneous chatbot requests (LLM-bound, so each request
+# parks on the Ollama socket) and reports how many complete, how many are
+# rejected or time out, and the latency distribution. Run it once against a
+# service started with SPRING_THREADS_VIRTUAL_ENABLED=false and once with
+# =true, keeping the model backend identical, and compare the two tables.
+#
+# Usage:
+#   BENCH_USER=admin BENCH_PASSWORD=... ./virtual-threads-capacity.sh platform
+#   BENCH_USER=admin BENCH_PASSWORD=... ./virtual-threads-capacity.sh virtual
+#
+# Environment:
+#   BASE_URL       service URL (default http://localhost:8080)
+#   LEVELS         space-separated burst sizes (default "50 100 200 400 800")
+#   MAX_TIME       per-request timeout in seconds (default 120)
+#   MESSAGE        chatbot message to send
+#
+# Requires: curl, xargs, sort, awk.
+
+set -euo pipefail
+
+LABEL="${1:-run}"
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+LEVELS="${LEVELS:-50 100 200 400 800}"
+MAX_TIME="${MAX_TIME:-120}"
+MESSAGE="${MESSAGE:-What documents do I need for KYC verification?}"
+: "${BENCH_USER:?set BENCH_USER}"
+: "${BENCH_PASSWORD:?set BENCH_PASSWORD}"
+
+TOKEN=$(curl -sf -X POST "$BASE_URL/api/v1/auth/login" \
+  -H 'Content-Type: application/json' \
+  -d "{\"username\":\"$BENCH_USER\",\"password\":\"$BENCH_PASSWORD\"}" |
+  sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+if [[ -z "$TOKEN" ]]; then
+  echo "login failed" >&2
+  exit 1
+fi
+
+WORKDIR=$(mktemp -d)
+trap 'rm -rf "$WORKDIR"' EXIT
+
+fire() {
+  curl -s -o /dev/null -w '%{http_code} %{time_total}\n' --max-time "$MAX_TIME" \
+    -X POST "$BASE_URL/api/v1/chat/message" \
+    -H "Authorization: Bearer $TOKEN" \
+    -H 'Content-Type: application/json' \
+    -d "{\"message\":\"$MESSAGE\"}" || echo "000 $MAX_TIME"
+}
+export -f fire
+export BASE_URL MAX_TIME MESSAGE TOKEN
+
+printf '%-10s %8s %6s %6s %6s %9s %9s %9s %9s\n' \
+  mode burst ok 5xx fail p50_s p99_s max_s wall_s
+for level in $LEVELS; do
+  out="$WORKDIR/$level.txt"
+  start=$(date +%s.%N)
+  seq "$level" | xargs -P "$level" -I{} bash -c fire >"$out"
+  end=$(date +%s.%N)
+
+  ok=$(awk '$1 ~ /^2/' "$out" | wc -l)
+  server=$(awk '$1 ~ /^5/' "$out" | wc -l)
+  failed=$(awk '$1 == "000"' "$out" | wc -l)
+  sort -n -k2 "$out" | awk -v label="$LABEL" -v level="$level" -v ok="$ok" \
+    -v server="$server" -v failed="$failed" -v wall="$(awk -v s="$start" -v e="$end" 'BEGIN { print e - s }')" '
+    { t[NR] = $2 }
+    END {
+      p50 = t[int(NR * 0.50) > 0 ? int(NR * 0.50) : 1]
+      p99 = t[int(NR * 0.99) > 0 ? int(NR * 0.99) : 1]
+      printf "%-10s %8d %6d %6d %6d %9.2f %9.2f %9.2f %9.2f\n",
+        label, level, ok, server, failed, p50, p99, t[NR], wall
+    }'
+done
@@ -0,0 +1,66 @@
+-- Partition pruning check for every AuditLogRepository query.
+-- Run against a migrated database (V8 or later):
+--   psql -d kyc_db -f infrastructure/db/audit-log-partition-pruning.sql
+--
+-- The statements are prepared the way Hibernate sends them, and
+-- plan_cache_mode forces the generic plan a long-lived pooled connection
+-- ends up with. Date-bounded queries must show only the partitions in range,
+-- or "Subplans Removed: N" when pruning happens at execution time.
+-- The other queries have no bound on performed_at and are expected to visit
+-- every partition through its index (Index Scan / Bitmap Index Scan on each),
+-- never a Seq Scan on a large partition.
+
+SET plan_cache_mode = force_generic_plan;
+
+-- findByCustomerIdOrderByPerformedAtDesc: all partitions, idx_audit_customer_id
+PREPARE by_customer(text) AS
+    SELECT * FROM kyc_audit_log WHERE customer_id = $1 ORDER BY performed_at DESC LIMIT 20;
+EXPLAIN (ANALYZE, COSTS OFF, SUMMARY OFF) EXECUTE by_customer('CUST-0001');
+
+-- findByPerformedByOrderByPerformedAtDesc: all partitions, ordered scan of idx_audit_performed_at
+PREPARE by_performer(text) AS
+    SELECT * FROM kyc_audit_log WHERE performed_by = $1 ORDER BY performed_at DESC LIMIT 20;
+EXPLAIN (ANALYZE, COSTS OFF, SUMMARY OFF) EXECUTE by_performer('SYSTEM');
+
+-- findByDateRange: prunes to the months between start and end
+PREPARE by_range(timestamp, timestamp) AS
+    SELECT * FROM kyc_audit_log WHERE performed_at BETWEEN $1 AND $2 ORDER BY performed_at DESC LIMIT 20;
+EXPLAIN (ANALYZE, COSTS OFF, SUMMARY OFF)
+    EXECUTE by_range(date_trunc('month', LOCALTIMESTAMP), LOCALTIMESTAMP);
+
+-- findByAction: all partitions, idx_audit_action
+PREPARE by_action(text) AS
+    SELECT * FROM kyc_audit_log WHERE action = $1 ORDER BY performed_at DESC LIMIT 20;
+EXPLAIN (ANALYZE, COSTS OFF, SUMMARY OFF) EXECUTE by_action('DATA_EXPORT');
+
+-- countByActionAndDateRange: prunes to the months between start and end
+PREPARE count_action_range(text, timestamp, timestamp) AS
+    SELECT COUNT(*) FROM kyc_audit_log WHERE action = $1 AND performed_at BETWEEN $2 AND $3;
+EXPLAIN (ANALYZE, COSTS OFF, SUMMARY OFF)
+    EXECUTE count_action_range('DATA_ACCESS', LOCALTIMESTAMP - INTERVAL '7 days', LOCALTIMESTAMP);
+
+-- findByCustomerIdAndActions: all partitions, idx_audit_customer_id
+PREPARE by_customer_actions(text, text[]) AS
+    SELECT * FROM kyc_audit_log WHERE customer_id = $1 AND action = ANY($2) ORDER BY performed_at DESC;
+EXPLAIN (ANALYZE, COSTS OFF, SUMMARY OFF)
+    EXECUTE by_customer_actions('CUST-0001', ARRAY['DATA_ACCESS', 'DATA_EXPORT']);
+
+-- findFailedActions: all partitions, partial index idx_audit_failed
+PREPARE failed AS
+    SELECT * FROM kyc_audit_log WHERE success = false ORDER BY performed_at DESC LIMIT 20;
+EXPLAIN (ANALYZE, COSTS OFF, SUMMARY OFF) EXECUTE failed;
+
+-- countAccessByDataCategory: prunes to the months between start and end
+PREPARE by_category(timestamp, timestamp) AS
+    SELECT data_categories, COUNT(*) FROM kyc_audit_log
+    WHERE performed_at BETWEEN $1 AND $2 GROUP BY data_categories;
+EXPLAIN (ANALYZE, COSTS OFF, SUMMARY OFF)
+    EXECUTE by_category(LOCALTIMESTAMP - INTERVAL '30 days', LOCALTIMESTAMP);
+
+-- findDataExportsByCustomer: all partitions, idx_audit_customer_id
+PREPARE exports_by_customer(text) AS
+    SELECT * FROM kyc_audit_log WHERE customer_id = $1 AND action = 'DATA_EXPORT' ORDER BY performed_at DESC;
+EXPLAIN (ANALYZE, COSTS OFF, SUMMARY OFF) EXECUTE exports_by_customer('CUST-0001');
+
+DEALLOCATE ALL;
+RESET plan_cache_mode;
@@ -0,0 +1,74 @@
+package com.kyc.ai.agent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson round trips of the document and risk agent results, with the same
+ * mapper defaults Spring Boot applies. Model output samples are in
+ * src/jmh/resources.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class AgentResultJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private String documentJson;
+    private String riskJson;
+    private DocumentAgent.DocumentAnalysisResult documentResult;
+    private RiskAgent.RiskAssessmentResult riskResult;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        documentJson = resource("document-analysis-result.json");
+        riskJson = resource("risk-assessment-result.json");
+        documentResult = objectMapper.readValue(documentJson, DocumentAgent.DocumentAnalysisResult.class);
+        riskResult = objectMapper.readValue(riskJson, RiskAgent.RiskAssessmentResult.class);
+    }
+
+    @Benchmark
+    public DocumentAgent.DocumentAnalysisResult readDocumentAnalysis() throws IOException {
+        return objectMapper.readValue(documentJson, DocumentAgent.DocumentAnalysisResult.class);
+    }
+
+    @Benchmark
+    public String writeDocumentAnalysis() throws IOException {
+        return objectMapper.writeValueAsString(documentResult);
+    }
+
+    @Benchmark
+    public RiskAgent.RiskAssessmentResult readRiskAssessment() throws IOException {
+        return objectMapper.readValue(riskJson, RiskAgent.RiskAssessmentResult.class);
+    }
+
+    @Benchmark
+    public String writeRiskAssessment() throws IOException {
+        return objectMapper.writeValueAsString(riskResult);
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream in = AgentResultJsonBenchmark.class.getResourceAsStream("/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.kyc.ai.controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The redaction applied to every chat message before it reaches the agent.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ChatbotControllerBenchmark {
+
+    private static final String CLEAN_MESSAGE = "Hello, which documents do I need to upload for my application "
+            + "and how long does the verification usually take?";
+
+    private static final String PII_MESSAGE = "Hi, my email is jane.doe@example.com, my SSN is 123-45-6789 "
+            + "and the card I used was 4111-1111-1111-1111. Why is my application still pending?";
+
+    @Benchmark
+    public String sanitizeClean() {
+        return ChatbotController.sanitizeMessage(CLEAN_MESSAGE);
+    }
+
+    @Benchmark
+    public String sanitizePii() {
+        return ChatbotController.sanitizeMessage(PII_MESSAGE);
+    }
+}
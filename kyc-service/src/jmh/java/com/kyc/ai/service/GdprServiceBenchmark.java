@@ -0,0 +1,71 @@
+package com.kyc.ai.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Field encryption, identifier hashing and the PII heuristic, run on every
+ * document save, audit entry and RAG ingestion.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class GdprServiceBenchmark {
+
+    private static final String CLEAN_TEXT = "Customers must provide a valid passport or national ID card and a "
+            + "proof of address issued within the last three months. Applications are usually reviewed within "
+            + "two business days; enhanced due diligence may take longer for high risk jurisdictions.";
+
+    private static final String PII_TEXT = CLEAN_TEXT + " Contact jane.doe@example.com about card 4111 1111 1111 1111.";
+
+    private GdprService gdprService;
+    private String plainText;
+    private String encryptedText;
+
+    @Setup
+    public void setUp() {
+        gdprService = new GdprService(null, null, null);
+        ReflectionTestUtils.setField(gdprService, "encryptionKey", "benchmark-key-32-bytes-long-0000");
+        plainText = "{\"fullName\":\"Alex Sample\",\"dateOfBirth\":\"1985-04-12\",\"nationality\":\"FR\"}";
+        encryptedText = gdprService.encrypt(plainText);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return gdprService.encrypt(plainText);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return gdprService.decrypt(encryptedText);
+    }
+
+    @Benchmark
+    public String hashIdentifier() {
+        return gdprService.hashIdentifier("CUST-000123456");
+    }
+
+    @Benchmark
+    public boolean containsPotentialPiiClean() {
+        return gdprService.containsPotentialPii(CLEAN_TEXT);
+    }
+
+    @Benchmark
+    public boolean containsPotentialPiiMatch() {
+        return gdprService.containsPotentialPii(PII_TEXT);
+    }
+}
@@ -0,0 +1,67 @@
+package com.kyc.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyc.ai.entity.KycDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Findings extraction from document metadata, done once per document on
+ * every submission and status lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class KycOrchestrationServiceBenchmark {
+
+    private KycOrchestrationService orchestrationService;
+    private KycDocument withFindings;
+    private KycDocument withoutMetadata;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        orchestrationService = new KycOrchestrationService(null, null, null, null, null, null, objectMapper,
+                null, null, null);
+        withFindings = KycDocument.builder()
+                .customerId("CUST-1")
+                .documentType(KycDocument.DocumentType.PASSPORT)
+                .metadata("""
+                        {"riskLevel":"MEDIUM","riskScore":42,"confidence":0.93,
+                         "findings":["Residence country under increased monitoring",
+                                     "Source of wealth documentation pending",
+                                     "Low image contrast in MRZ"],
+                         "processedAt":"2026-01-15T10:15:30"}
+                        """)
+                .build();
+        withoutMetadata = KycDocument.builder()
+                .customerId("CUST-1")
+                .documentType(KycDocument.DocumentType.PASSPORT)
+                .build();
+    }
+
+    @Benchmark
+    public List<String> extractFindings() {
+        return orchestrationService.extractFindings(withFindings);
+    }
+
+    @Benchmark
+    public List<String> extractFindingsWithoutMetadata() {
+        return orchestrationService.extractFindings(withoutMetadata);
+    }
+}
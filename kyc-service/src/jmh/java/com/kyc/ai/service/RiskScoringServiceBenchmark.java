@@ -0,0 +1,83 @@
+package com.kyc.ai.service;
+
+import com.kyc.ai.entity.FinancialTransaction;
+import com.kyc.ai.repository.FinancialTransactionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Rule based scoring over a month of transactions. The repository is a
+ * stub returning a fixed list, so only the scoring itself is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class RiskScoringServiceBenchmark {
+
+    private static final String[] COUNTRIES = {"FR", "DE", "NG", "TR", "US", "IR"};
+
+    @Param({"0", "50", "500"})
+    public int transactions;
+
+    private RiskScoringService riskScoringService;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<FinancialTransaction> recent = IntStream.range(0, transactions)
+                .mapToObj(i -> FinancialTransaction.builder()
+                        .customerId("CUST-1")
+                        .amount(random.nextDouble(10, 5000))
+                        .currency("EUR")
+                        .type(FinancialTransaction.TransactionType.values()[
+                                random.nextInt(FinancialTransaction.TransactionType.values().length)])
+                        .sourceCountry("FR")
+                        .destinationCountry(COUNTRIES[random.nextInt(COUNTRIES.length)])
+                        .timestamp(LocalDateTime.now().minusDays(random.nextInt(30)))
+                        .build())
+                .toList();
+        riskScoringService = new RiskScoringService(null, transactionRepository(recent));
+    }
+
+    @Benchmark
+    public RiskScoringService.RiskScoreResult lowRisk() {
+        return riskScoringService.calculateRiskScore("CUST-1", "FR", "FR", false, List.of());
+    }
+
+    @Benchmark
+    public RiskScoringService.RiskScoreResult highRisk() {
+        return riskScoringService.calculateRiskScore("CUST-1", "IR", "NG", true, List.of("CRYPTO_WALLET"));
+    }
+
+    private static FinancialTransactionRepository transactionRepository(List<FinancialTransaction> recent) {
+        return (FinancialTransactionRepository) Proxy.newProxyInstance(
+                FinancialTransactionRepository.class.getClassLoader(),
+                new Class<?>[] {FinancialTransactionRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findRecentTransactions" -> recent;
+                    case "toString" -> "FinancialTransactionRepository stub";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,47 @@
+package com.kyc.ai.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Country lookups for a blacklisted, a greylisted and an unlisted code, in
+ * lower case as they often arrive from OCR.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class CountryRiskUtilBenchmark {
+
+    @Param({"ir", "ng", "fr"})
+    public String countryCode;
+
+    @Benchmark
+    public String nationalityRisk() {
+        return CountryRiskUtil.getNationalityRisk(countryCode);
+    }
+
+    @Benchmark
+    public String residenceRisk() {
+        return CountryRiskUtil.getResidenceRisk(countryCode);
+    }
+
+    @Benchmark
+    public void fatfStatusAndReason(Blackhole blackhole) {
+        blackhole.consume(CountryRiskUtil.getFatfStatus(countryCode));
+        blackhole.consume(CountryRiskUtil.getCountryRiskReason(countryCode));
+    }
+}
@@ -0,0 +1,165 @@
+package com.kyc.ai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyc.ai.agent.ChatbotAgent;
+import com.kyc.ai.agent.ChatbotStreamingAgent;
+import com.kyc.ai.agent.DocumentAgent;
+import com.kyc.ai.agent.RiskAgent;
+import com.kyc.ai.agent.SupervisorAgent;
+import com.kyc.ai.conversation.ConversationMessage;
+import com.kyc.ai.conversation.ConversationSummarizer;
+import com.kyc.ai.conversation.InMemoryConversationStore;
+import com.kyc.fakeollama.AgentResponses;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.service.AiServices;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends each agent's real prompt to the fake Ollama's canned answers and
+ * checks the agent can parse what comes back.
+ */
+class AgentResponsesTest {
+
+    private final AgentResponses responses = new AgentResponses(new ObjectMapper());
+
+    private final ChatLanguageModel model = new ChatLanguageModel() {
+        @Override
+        public Response<AiMessage> generate(List<ChatMessage> messages) {
+            return Response.from(AiMessage.from(respond(messages)));
+        }
+    };
+
+    @Test
+    void documentAgent() {
+        DocumentAgent agent = AiServices.builder(DocumentAgent.class).chatLanguageModel(model).build();
+
+        DocumentAgent.DocumentAnalysisResult result =
+                agent.analyzeDocument("PASSPORT", "FR", "P<FRASAMPLE<<ALEX", "ref-1", "LEGAL_OBLIGATION");
+
+        assertEquals("Alex Sample", result.extractedData().fullName());
+        assertTrue(result.confidenceScores().overall() > 0);
+    }
+
+    @Test
+    void riskAgent() {
+        RiskAgent agent = AiServices.builder(RiskAgent.class).chatLanguageModel(model).build();
+
+        RiskAgent.RiskAssessmentResult result = agent.assessRisk("customer-1", "FR", "FR", "Engineer", "IT",
+                "50k-100k", "Salary", false, "NONE", 0, false, false, "LOW", "LOW", "MEMBER", "NONE", 5, false,
+                false, 24, "5000", List.of());
+
+        assertNotNull(result.riskLevel());
+        assertEquals(2, result.riskFactors().size());
+    }
+
+    @Test
+    void supervisorAgent() {
+        SupervisorAgent agent = AiServices.builder(SupervisorAgent.class).chatLanguageModel(model).build();
+
+        SupervisorAgent.RoutingDecision decision = agent.routeTask("DOCUMENT_ANALYSIS", "customer-1",
+                "Verify passport", "LEGAL_OBLIGATION", 0.8, 0, "PENDING", List.of());
+
+        assertEquals(SupervisorAgent.AgentType.DOCUMENT, decision.selectedAgent());
+    }
+
+    @Test
+    void chatbotAgent() {
+        ChatbotAgent agent = AiServices.builder(ChatbotAgent.class).chatLanguageModel(model).build();
+
+        ChatbotAgent.ChatResponse response =
+                agent.chat("Which documents do I need?", "", false, "NONE", List.of());
+
+        assertTrue(response.response().startsWith("Thanks for"));
+        assertEquals(2, response.suggestedActions().size());
+    }
+
+    @Test
+    void chatbotStreamingAgent() throws Exception {
+        StreamingChatLanguageModel streamingModel = new StreamingChatLanguageModel() {
+            @Override
+            public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+                String text = respond(messages);
+                handler.onNext(text);
+                handler.onComplete(Response.from(AiMessage.from(text)));
+            }
+        };
+        ChatbotStreamingAgent agent = AiServices.builder(ChatbotStreamingAgent.class)
+                .streamingChatLanguageModel(streamingModel)
+                .build();
+        CompletableFuture<String> answer = new CompletableFuture<>();
+
+        agent.chat("Which documents do I need?", "", false, "NONE", List.of())
+                .onNext(token -> { })
+                .onComplete(response -> answer.complete(response.content().text()))
+                .onError(answer::completeExceptionally)
+                .start();
+
+        String text = answer.get(5, TimeUnit.SECONDS);
+        int marker = text.indexOf(ChatbotStreamingAgent.METADATA_MARKER);
+        assertTrue(marker > 0);
+        ChatbotStreamingAgent.Metadata metadata = new ObjectMapper().readValue(
+                text.substring(marker + ChatbotStreamingAgent.METADATA_MARKER.length()),
+                ChatbotStreamingAgent.Metadata.class);
+        assertEquals(2, metadata.suggestedActions().size());
+    }
+
+    @Test
+    void conversationSummarizer() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InMemoryConversationStore store = new InMemoryConversationStore(20, Duration.ofHours(1), 1_000_000,
+                meterRegistry);
+        ConversationSummarizer summarizer = new ConversationSummarizer(store, model, 1, 2, 150, 1, 4, 20,
+                meterRegistry);
+        try {
+            store.open("s1", "alice");
+            store.append("s1", ConversationMessage.user("Which documents do I need?"));
+            store.append("s1", ConversationMessage.assistant("A passport or national ID card."));
+            store.append("s1", ConversationMessage.user("How long does it take?"));
+
+            summarizer.onAnswer("s1");
+
+            String summary = null;
+            for (int i = 0; i < 50 && summary == null; i++) {
+                Thread.sleep(100);
+                summary = store.find("s1").orElseThrow().summary();
+            }
+            assertNotNull(summary);
+            assertTrue(summary.startsWith("The customer asked"));
+        } finally {
+            summarizer.destroy();
+        }
+    }
+
+    /**
+     * The fake server's view of a chat request: system messages joined, the last user message
+     */
+    private String respond(List<ChatMessage> messages) {
+        StringBuilder system = new StringBuilder();
+        String user = "";
+        for (ChatMessage message : messages) {
+            if (message instanceof SystemMessage systemMessage) {
+                system.append(systemMessage.text()).append('\n');
+            } else if (message instanceof UserMessage userMessage) {
+                user = userMessage.singleText();
+            }
+        }
+        return responses.respond(system.toString(), user);
+    }
+}
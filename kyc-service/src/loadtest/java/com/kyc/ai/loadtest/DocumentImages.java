@@ -0,0 +1,93 @@
+package com.kyc.ai.loadtest;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Synthetic passport scans for submissions: a few printed fields and a TD3
+ * machine readable zone with valid check digits, so OCR, MRZ parsing and the
+ * MRZ fast path all run. Each image differs, so the analysis cache only
+ * hits when a customer re-submits.
+ */
+final class DocumentImages {
+
+    private static final int[] WEIGHTS = {7, 3, 1};
+
+    private DocumentImages() {
+    }
+
+    static List<byte[]> passports(int count) {
+        return IntStream.range(0, count).mapToObj(DocumentImages::passport).toList();
+    }
+
+    private static byte[] passport(int index) {
+        String surname = "SAMPLE";
+        String givenName = "ALEX" + (char) ('A' + index % 26) + (char) ('A' + index / 26 % 26);
+        String documentNumber = String.format("LT%07d", index);
+
+        BufferedImage image = new BufferedImage(1250, 880, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.setColor(Color.BLACK);
+        g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 40));
+        g.drawString("PASSPORT / PASSEPORT", 60, 90);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 30));
+        g.drawString("Surname: " + surname, 60, 190);
+        g.drawString("Given names: " + givenName, 60, 250);
+        g.drawString("Nationality: FRA", 60, 310);
+        g.drawString("Date of birth: 12 APR 1985", 60, 370);
+        g.drawString("Document no: " + documentNumber, 60, 430);
+        g.drawString("Date of expiry: 28 FEB 2034", 60, 490);
+        g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 34));
+        String[] mrz = mrz(surname, givenName, documentNumber);
+        g.drawString(mrz[0], 40, 740);
+        g.drawString(mrz[1], 40, 800);
+        g.dispose();
+
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String[] mrz(String surname, String givenName, String documentNumber) {
+        String line1 = pad("P<FRA" + surname + "<<" + givenName);
+        String dob = "850412";
+        String expiry = "340228";
+        String personal = "<<<<<<<<<<<<<<";
+        String line2Start = documentNumber + checkDigit(documentNumber) + "FRA"
+                + dob + checkDigit(dob) + "X" + expiry + checkDigit(expiry) + personal + "<";
+        String composite = line2Start.substring(0, 10) + line2Start.substring(13, 20) + line2Start.substring(21, 43);
+        return new String[] {line1, line2Start + checkDigit(composite)};
+    }
+
+    private static String pad(String line) {
+        return (line + "<".repeat(44)).substring(0, 44);
+    }
+
+    /**
+     * ICAO 9303 check digit
+     */
+    private static int checkDigit(String field) {
+        int sum = 0;
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            int value = Character.isDigit(c) ? c - '0' : Character.isLetter(c) ? c - 'A' + 10 : 0;
+            sum += value * WEIGHTS[i % 3];
+        }
+        return sum % 10;
+    }
+}
@@ -0,0 +1,102 @@
+package com.kyc.ai.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Latencies and outcomes per operation, kept for the current report interval
+ * and for the whole run.
+ */
+class LatencyRecorder {
+
+    private final Map<Scenario.Operation, Samples> interval = new EnumMap<>(Scenario.Operation.class);
+    private final Map<Scenario.Operation, Samples> total = new EnumMap<>(Scenario.Operation.class);
+
+    LatencyRecorder() {
+        for (Scenario.Operation operation : Scenario.Operation.values()) {
+            interval.put(operation, new Samples());
+            total.put(operation, new Samples());
+        }
+    }
+
+    void record(Scenario.Operation operation, long latencyNanos, boolean success) {
+        interval.get(operation).add(latencyNanos, success);
+        total.get(operation).add(latencyNanos, success);
+    }
+
+    void dropped(Scenario.Operation operation) {
+        interval.get(operation).drop();
+        total.get(operation).drop();
+    }
+
+    /**
+     * Statistics of the interval that just ended; starts the next one
+     */
+    Map<Scenario.Operation, Stats> drainInterval(Duration elapsed) {
+        Map<Scenario.Operation, Stats> stats = new EnumMap<>(Scenario.Operation.class);
+        interval.forEach((operation, samples) -> stats.put(operation, samples.drain(elapsed)));
+        return stats;
+    }
+
+    Map<Scenario.Operation, Stats> totals(Duration elapsed) {
+        Map<Scenario.Operation, Stats> stats = new EnumMap<>(Scenario.Operation.class);
+        total.forEach((operation, samples) -> stats.put(operation, samples.snapshot(elapsed)));
+        return stats;
+    }
+
+    /**
+     * @param throughput successful requests per second
+     */
+    record Stats(int count, int errors, int dropped, double throughput, double p50Millis, double p99Millis,
+            double maxMillis) {
+    }
+
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private int dropped;
+
+        synchronized void add(long latencyNanos, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized void drop() {
+            dropped++;
+        }
+
+        synchronized Stats drain(Duration elapsed) {
+            Stats stats = snapshot(elapsed);
+            count = 0;
+            errors = 0;
+            dropped = 0;
+            return stats;
+        }
+
+        synchronized Stats snapshot(Duration elapsed) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            double seconds = Math.max(elapsed.toNanos(), 1) / 1e9;
+            return new Stats(count, errors, dropped, (count - errors) / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    count == 0 ? 0 : sorted[count - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
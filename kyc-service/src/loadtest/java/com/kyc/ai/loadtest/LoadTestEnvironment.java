@@ -0,0 +1,129 @@
+package com.kyc.ai.loadtest;
+
+import com.kyc.ai.KycApplication;
+import com.kyc.fakeollama.FakeOllamaServer;
+import com.kyc.fakeollama.LatencyDistribution;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The service booted in this JVM against local stand-ins: PostgreSQL with
+ * pgvector and MinIO in Testcontainers, and {@link FakeOllamaServer} for the
+ * models. RabbitMQ is not started; the synchronous pipeline is used unless
+ * the async pipeline is enabled through an application property override.
+ */
+@Slf4j
+public class LoadTestEnvironment implements AutoCloseable {
+
+    private static final String MINIO_USER = "loadtest";
+    private static final String MINIO_PASSWORD = "loadtest-secret";
+
+    private final PostgreSQLContainer<?> postgres;
+    private final GenericContainer<?> minio;
+    private final FakeOllamaServer ollama;
+    private final ConfigurableApplicationContext context;
+
+    private LoadTestEnvironment(Settings settings) throws IOException {
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse(settings.postgresImage())
+                .asCompatibleSubstituteFor("postgres"))
+                .withDatabaseName("kyc_db")
+                .withUsername("kyc_user")
+                .withPassword("kyc_password");
+        minio = new GenericContainer<>(DockerImageName.parse(settings.minioImage()))
+                .withCommand("server", "/data")
+                .withEnv("MINIO_ROOT_USER", MINIO_USER)
+                .withEnv("MINIO_ROOT_PASSWORD", MINIO_PASSWORD)
+                .withExposedPorts(9000)
+                .waitingFor(Wait.forHttp("/minio/health/ready").forPort(9000));
+        postgres.start();
+        minio.start();
+
+        ollama = FakeOllamaServer.builder()
+                .seed(settings.seed())
+                .chatLatency(settings.chatLatency())
+                .embeddingLatency(settings.embeddingLatency())
+                .tokensPerSecond(settings.tokensPerSecond())
+                .errorRate(settings.modelErrorRate())
+                .build()
+                .start();
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", postgres.getJdbcUrl());
+        properties.put("spring.datasource.username", postgres.getUsername());
+        properties.put("spring.datasource.password", postgres.getPassword());
+        properties.put("minio.endpoint", "http://" + minio.getHost() + ":" + minio.getMappedPort(9000));
+        properties.put("minio.access-key", MINIO_USER);
+        properties.put("minio.secret-key", MINIO_PASSWORD);
+        properties.put("langchain4j.ollama.base-url", ollama.baseUrl());
+        properties.put("langchain4j.ollama.base-urls", ollama.baseUrl());
+        properties.put("management.health.rabbit.enabled", "false");
+        // Per-request DEBUG logging would dominate the profile
+        properties.put("logging.level.com.kyc.ai", "INFO");
+        properties.put("logging.level.org.springframework.security", "INFO");
+        properties.putAll(settings.applicationProperties());
+
+        List<String> args = new ArrayList<>();
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+        log.info("Starting KYC service against {} / {} / {}", postgres.getJdbcUrl(),
+                properties.get("minio.endpoint"), ollama.baseUrl());
+        context = new SpringApplicationBuilder(KycApplication.class).run(args.toArray(String[]::new));
+    }
+
+    public static LoadTestEnvironment start(Settings settings) throws IOException {
+        return new LoadTestEnvironment(settings);
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    public ConfigurableApplicationContext context() {
+        return context;
+    }
+
+    public FakeOllamaServer ollama() {
+        return ollama;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        ollama.close();
+        minio.stop();
+        postgres.stop();
+    }
+
+    /**
+     * Stand-in images and model behaviour; applicationProperties override the
+     * service configuration (for example kyc.chat.conversation.store=jdbc)
+     */
+    public record Settings(
+            String postgresImage,
+            String minioImage,
+            long seed,
+            LatencyDistribution chatLatency,
+            LatencyDistribution embeddingLatency,
+            double tokensPerSecond,
+            double modelErrorRate,
+            Map<String, String> applicationProperties) {
+
+        public static Settings defaults() {
+            return new Settings("pgvector/pgvector:pg16", "minio/minio:latest", 42,
+                    LatencyDistribution.logNormal(Duration.ofMillis(800), 0.5),
+                    LatencyDistribution.fixed(Duration.ofMillis(20)), 40, 0.0, Map.of());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.kyc.ai.loadtest;
+
+import com.kyc.fakeollama.LatencyDistribution;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entry point of the load-test harness.
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--scenario=mixed,chat-heavy --rate=20"
+ * </pre>
+ * Options (all {@code --name=value}):
+ * <ul>
+ *   <li>scenario - comma-separated presets run one after another: mixed, onboarding, chat-heavy, soak</li>
+ *   <li>rate, duration, users, mix, report-interval - override the preset
+ *       (durations in ISO-8601, e.g. PT30M; mix as submit:10,status:40,chat:40,export:10)</li>
+ *   <li>warmup - unrecorded run before each scenario (default PT30S, none for soak)</li>
+ *   <li>chat-latency, embedding-latency, tokens-per-second, model-error-rate - fake Ollama behaviour</li>
+ *   <li>postgres-image, minio-image - stand-in container images</li>
+ *   <li>seed - request mix and fake model randomness</li>
+ *   <li>output - directory for the CSV report (default target/loadtest)</li>
+ *   <li>app.&lt;property&gt; - service property override, e.g. --app.kyc.chat.conversation.store=jdbc</li>
+ * </ul>
+ */
+@Slf4j
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        Map<String, String> applicationProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            String value = option.length > 1 ? option[1] : "true";
+            if (option[0].startsWith("app.")) {
+                applicationProperties.put(option[0].substring("app.".length()), value);
+            } else {
+                options.put(option[0], value);
+            }
+        }
+
+        LoadTestEnvironment.Settings defaults = LoadTestEnvironment.Settings.defaults();
+        long seed = Long.parseLong(options.getOrDefault("seed", Long.toString(defaults.seed())));
+        LoadTestEnvironment.Settings settings = new LoadTestEnvironment.Settings(
+                options.getOrDefault("postgres-image", defaults.postgresImage()),
+                options.getOrDefault("minio-image", defaults.minioImage()),
+                seed,
+                options.containsKey("chat-latency")
+                        ? LatencyDistribution.parse(options.get("chat-latency")) : defaults.chatLatency(),
+                options.containsKey("embedding-latency")
+                        ? LatencyDistribution.parse(options.get("embedding-latency")) : defaults.embeddingLatency(),
+                Double.parseDouble(options.getOrDefault("tokens-per-second",
+                        Double.toString(defaults.tokensPerSecond()))),
+                Double.parseDouble(options.getOrDefault("model-error-rate",
+                        Double.toString(defaults.modelErrorRate()))),
+                applicationProperties);
+
+        String[] scenarios = options.getOrDefault("scenario", "mixed").split(",");
+        Path csvFile = Path.of(options.getOrDefault("output", "target/loadtest"),
+                String.join("+", scenarios) + "-"
+                        + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".csv");
+
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(settings);
+                ResourceSampler sampler = new ResourceSampler(environment.context());
+                LoadTestReport report = new LoadTestReport(System.out, csvFile)) {
+            sampler.start();
+            LoadTestRunner runner = new LoadTestRunner(environment, sampler, report, seed);
+            for (String name : scenarios) {
+                Scenario scenario = configure(Scenario.preset(name.trim()), options);
+                Duration warmup = options.containsKey("warmup") ? Duration.parse(options.get("warmup"))
+                        : scenario.soak() ? Duration.ZERO : Duration.ofSeconds(30);
+                runner.run(scenario, warmup);
+            }
+        }
+        log.info("Report written to {}", csvFile.toAbsolutePath());
+    }
+
+    private static Scenario configure(Scenario scenario, Map<String, String> options) {
+        if (options.containsKey("rate")) {
+            scenario = scenario.withRate(Double.parseDouble(options.get("rate")));
+        }
+        if (options.containsKey("duration")) {
+            scenario = scenario.withDuration(Duration.parse(options.get("duration")));
+        }
+        if (options.containsKey("users")) {
+            scenario = scenario.withUsers(Integer.parseInt(options.get("users")));
+        }
+        if (options.containsKey("mix")) {
+            scenario = scenario.withMix(Scenario.parseMix(options.get("mix")));
+        }
+        if (options.containsKey("report-interval")) {
+            scenario = scenario.withReportInterval(Duration.parse(options.get("report-interval")));
+        }
+        return scenario;
+    }
+}
@@ -0,0 +1,83 @@
+package com.kyc.ai.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One row per operation per report interval, and a TOTAL row per operation
+ * at the end of each scenario, printed as a table and appended to a CSV file.
+ */
+class LoadTestReport implements AutoCloseable {
+
+    private static final String TABLE_FORMAT =
+            "%-11s %8s %-7s %7s %6s %6s %8s %9s %9s %9s %11s %8s %9s %9s%n";
+    private static final String CSV_HEADER = "scenario,elapsed_s,operation,count,errors,dropped,throughput_rps,"
+            + "p50_ms,p99_ms,max_ms,hikari_active_max,hikari_pool_size,hikari_pending_max,heap_max_mb,heap_end_mb";
+
+    private final PrintStream out;
+    private final Writer csv;
+
+    LoadTestReport(PrintStream out, Path csvFile) throws IOException {
+        this.out = out;
+        Files.createDirectories(csvFile.toAbsolutePath().getParent());
+        this.csv = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8);
+        csv.write(CSV_HEADER + "\n");
+        out.printf(TABLE_FORMAT, "scenario", "elapsed", "op", "count", "errors", "drop", "rps",
+                "p50_ms", "p99_ms", "max_ms", "pool_act/max", "pending", "heap_max", "heap_end");
+    }
+
+    void interval(String scenario, Duration elapsed, Map<Scenario.Operation, LatencyRecorder.Stats> operations,
+            ResourceSampler.Stats resources) {
+        rows(scenario, Long.toString(elapsed.toSeconds()), operations, resources);
+    }
+
+    void total(String scenario, Map<Scenario.Operation, LatencyRecorder.Stats> operations,
+            ResourceSampler.Stats resources) {
+        rows(scenario, "TOTAL", operations, resources);
+    }
+
+    private synchronized void rows(String scenario, String elapsed,
+            Map<Scenario.Operation, LatencyRecorder.Stats> operations, ResourceSampler.Stats resources) {
+        try {
+            for (Map.Entry<Scenario.Operation, LatencyRecorder.Stats> entry : operations.entrySet()) {
+                LatencyRecorder.Stats stats = entry.getValue();
+                if (stats.count() == 0 && stats.dropped() == 0) {
+                    continue;
+                }
+                String operation = entry.getKey().name().toLowerCase(Locale.ROOT);
+                out.printf(Locale.ROOT, TABLE_FORMAT, scenario, elapsed, operation, stats.count(), stats.errors(),
+                        stats.dropped(), format(stats.throughput()), format(stats.p50Millis()),
+                        format(stats.p99Millis()), format(stats.maxMillis()),
+                        resources.maxActiveConnections() + "/" + resources.poolSize(),
+                        resources.maxPendingThreads(), resources.maxHeapUsedMb() + "M",
+                        resources.heapUsedMb() + "M");
+                csv.write(String.join(",", scenario, elapsed, operation, Integer.toString(stats.count()),
+                        Integer.toString(stats.errors()), Integer.toString(stats.dropped()),
+                        format(stats.throughput()), format(stats.p50Millis()), format(stats.p99Millis()),
+                        format(stats.maxMillis()), Integer.toString(resources.maxActiveConnections()),
+                        Integer.toString(resources.poolSize()), Integer.toString(resources.maxPendingThreads()),
+                        Long.toString(resources.maxHeapUsedMb()), Long.toString(resources.heapUsedMb())) + "\n");
+            }
+            csv.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        csv.close();
+    }
+}
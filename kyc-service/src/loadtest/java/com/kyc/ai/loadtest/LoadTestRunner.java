@@ -0,0 +1,164 @@
+package com.kyc.ai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives one scenario against a running service: registers its customers,
+ * issues requests at the scenario's arrival rate on virtual threads, and
+ * reports every interval and at the end.
+ */
+@Slf4j
+class LoadTestRunner {
+
+    private static final int DISTINCT_DOCUMENTS = 64;
+
+    private final LoadTestEnvironment environment;
+    private final ResourceSampler sampler;
+    private final LoadTestReport report;
+    private final long seed;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<byte[]> documents = DocumentImages.passports(DISTINCT_DOCUMENTS);
+
+    LoadTestRunner(LoadTestEnvironment environment, ResourceSampler sampler, LoadTestReport report, long seed) {
+        this.environment = environment;
+        this.sampler = sampler;
+        this.report = report;
+        this.seed = seed;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Run the scenario at its rate for {@code warmup} without recording, then for its duration
+     */
+    void run(Scenario scenario, Duration warmup) throws Exception {
+        List<VirtualUser> users = registerUsers(scenario);
+        if (!warmup.isZero()) {
+            log.info("Warming up '{}' for {}", scenario.name(), warmup);
+            drive(scenario.withDuration(warmup), users, new LatencyRecorder(), new SplittableRandom(seed - 1));
+            sampler.drainInterval(false);
+        }
+
+        log.info("Running '{}': {} req/s for {} over {} customers, mix {}", scenario.name(), scenario.rate(),
+                scenario.duration(), users.size(), scenario.mix());
+        LatencyRecorder recorder = new LatencyRecorder();
+        long start = System.nanoTime();
+        ResourceSampler.Stats[] peak = new ResourceSampler.Stats[1];
+        long intervalNanos = scenario.reportInterval().toNanos();
+        long[] lastReport = {start};
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        Runnable reportInterval = () -> {
+            long now = System.nanoTime();
+            ResourceSampler.Stats resources = sampler.drainInterval(scenario.soak());
+            peak[0] = peak[0] == null ? resources : peak[0].peak(resources);
+            report.interval(scenario.name(), Duration.ofNanos(now - start),
+                    recorder.drainInterval(Duration.ofNanos(now - lastReport[0])), resources);
+            lastReport[0] = now;
+        };
+        reporter.scheduleAtFixedRate(reportInterval, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        try {
+            drive(scenario, users, recorder, new SplittableRandom(seed));
+        } finally {
+            reporter.shutdown();
+            reporter.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        reportInterval.run();
+        report.total(scenario.name(), recorder.totals(Duration.ofNanos(System.nanoTime() - start)), peak[0]);
+        log.info("Fake Ollama served {} requests ({} injected failures)", environment.ollama().requestCount(),
+                environment.ollama().failureCount());
+    }
+
+    private List<VirtualUser> registerUsers(Scenario scenario) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<Future<VirtualUser>> registrations = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < scenario.users(); i++) {
+                int index = i;
+                registrations.add(executor.submit(() -> VirtualUser.register(httpClient, objectMapper,
+                        environment.baseUrl(), runId, index, scenario.chatTurnsPerSession())));
+            }
+        }
+        List<VirtualUser> users = new ArrayList<>();
+        for (Future<VirtualUser> registration : registrations) {
+            users.add(registration.get());
+        }
+        return users;
+    }
+
+    /**
+     * Open-model load: request i is due at start + i / rate. Latency is taken
+     * from that due time, so queueing inside the service is not hidden by a
+     * load generator that slows down with it.
+     */
+    private void drive(Scenario scenario, List<VirtualUser> users, LatencyRecorder recorder,
+            SplittableRandom random) {
+        AtomicInteger inFlight = new AtomicInteger();
+        long start = System.nanoTime();
+        long end = start + scenario.duration().toNanos();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long due = start + (long) (i * 1e9 / scenario.rate());
+                if (due >= end) {
+                    break;
+                }
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Scenario.Operation operation = scenario.next(random);
+                VirtualUser user = users.get(random.nextInt(users.size()));
+                int variant = random.nextInt(Integer.MAX_VALUE);
+                if (inFlight.incrementAndGet() > scenario.maxInFlight()) {
+                    inFlight.decrementAndGet();
+                    recorder.dropped(operation);
+                    continue;
+                }
+                requests.submit(() -> {
+                    try {
+                        boolean success = execute(operation, user, variant);
+                        recorder.record(operation, System.nanoTime() - due, success);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+    }
+
+    private boolean execute(Scenario.Operation operation, VirtualUser user, int variant) {
+        try {
+            int status = switch (operation) {
+                case SUBMIT -> user.submit(documents.get(variant % documents.size()));
+                case STATUS -> user.status();
+                case CHAT -> user.chat(variant);
+                case EXPORT -> user.export();
+            };
+            return status / 100 == 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.debug("{} failed: {}", operation, e.toString());
+            return false;
+        }
+    }
+}
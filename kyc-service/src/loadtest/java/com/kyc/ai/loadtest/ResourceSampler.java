@@ -0,0 +1,101 @@
+package com.kyc.ai.loadtest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.context.ApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the Hikari pool and the heap once a second and keeps the peaks of
+ * the current report interval. The service runs in this JVM, so heap figures
+ * include the load generator; its share is small and constant, while a leak
+ * in the service keeps the live heap growing from interval to interval.
+ */
+class ResourceSampler implements AutoCloseable {
+
+    private final HikariDataSource dataSource;
+    private final List<MemoryPoolMXBean> heapPools;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "loadtest-resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private int maxActive;
+    private int maxPending;
+    private long maxHeapUsed;
+
+    ResourceSampler(ApplicationContext context) throws SQLException {
+        this.dataSource = context.getBean(DataSource.class).unwrap(HikariDataSource.class);
+        this.heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+
+    void start() {
+        scheduler.scheduleAtFixedRate(this::sample, 0, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Peaks since the last call. With {@code collectFirst} a full GC runs
+     * before the live heap is measured, which makes the soak trend comparable
+     * across intervals.
+     */
+    synchronized Stats drainInterval(boolean collectFirst) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (collectFirst) {
+            System.gc();
+        }
+        Stats stats = new Stats(maxActive, dataSource.getMaximumPoolSize(), maxPending,
+                pool == null ? 0 : pool.getTotalConnections(), maxHeapUsed / (1024 * 1024),
+                heapUsed() / (1024 * 1024));
+        maxActive = 0;
+        maxPending = 0;
+        maxHeapUsed = 0;
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private synchronized void sample() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool != null) {
+            maxActive = Math.max(maxActive, pool.getActiveConnections());
+            maxPending = Math.max(maxPending, pool.getThreadsAwaitingConnection());
+        }
+        maxHeapUsed = Math.max(maxHeapUsed, heapUsed());
+    }
+
+    private long heapUsed() {
+        return heapPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+    }
+
+    /**
+     * @param maxPendingThreads peak number of threads waiting for a connection; above 0 the pool is saturated
+     * @param heapUsedMb        heap in use at the end of the interval, after the GC when one was forced
+     */
+    record Stats(int maxActiveConnections, int poolSize, int maxPendingThreads, int totalConnections,
+            long maxHeapUsedMb, long heapUsedMb) {
+
+        /**
+         * Peaks over this and a later interval, with the later end-of-interval heap
+         */
+        Stats peak(Stats later) {
+            return new Stats(Math.max(maxActiveConnections, later.maxActiveConnections), later.poolSize,
+                    Math.max(maxPendingThreads, later.maxPendingThreads), later.totalConnections,
+                    Math.max(maxHeapUsedMb, later.maxHeapUsedMb), later.heapUsedMb);
+        }
+    }
+}
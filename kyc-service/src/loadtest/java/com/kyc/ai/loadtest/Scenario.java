@@ -0,0 +1,112 @@
+package com.kyc.ai.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * A traffic mix driven at a fixed arrival rate.
+ * Requests are issued on schedule whether or not earlier ones have finished,
+ * and latency is measured from the scheduled start, so a slow service shows
+ * up as latency instead of as a lower request rate.
+ *
+ * @param rate           requests per second across all operations
+ * @param users          registered customers the requests are spread over
+ * @param maxInFlight    requests beyond this are dropped and counted, not queued
+ * @param reportInterval one report row per operation per interval
+ * @param soak           force a GC before each resource sample so the live heap can be trended
+ */
+public record Scenario(
+        String name,
+        double rate,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        int users,
+        int chatTurnsPerSession,
+        int maxInFlight,
+        Duration reportInterval,
+        boolean soak) {
+
+    public enum Operation {
+        SUBMIT, STATUS, CHAT, EXPORT
+    }
+
+    public static Scenario preset(String name) {
+        return switch (name) {
+            // Steady state: customers checking status and chatting, fewer new submissions
+            case "mixed" -> new Scenario(name, 10, Duration.ofMinutes(5),
+                    mix(10, 40, 40, 10), 50, 6, 500, Duration.ofMinutes(1), false);
+            // Onboarding campaign: submission heavy, status polling behind it
+            case "onboarding" -> new Scenario(name, 5, Duration.ofMinutes(5),
+                    mix(40, 50, 5, 5), 200, 6, 500, Duration.ofMinutes(1), false);
+            case "chat-heavy" -> new Scenario(name, 20, Duration.ofMinutes(5),
+                    mix(0, 20, 80, 0), 100, 10, 1000, Duration.ofMinutes(1), false);
+            // Hours of the steady mix; new chat sessions keep opening, which is what leaks show up on
+            case "soak" -> new Scenario(name, 5, Duration.ofHours(4),
+                    mix(10, 40, 40, 10), 500, 6, 500, Duration.ofMinutes(5), true);
+            default -> throw new IllegalArgumentException("Unknown scenario: " + name
+                    + " (mixed, onboarding, chat-heavy, soak)");
+        };
+    }
+
+    /**
+     * Parse a mix such as {@code submit:10,status:40,chat:40,export:10}
+     */
+    public static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] weight = part.trim().split(":");
+            mix.put(Operation.valueOf(weight[0].trim().toUpperCase().replace('-', '_')),
+                    Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+
+    public Operation next(RandomGenerator random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    public Scenario withRate(double rate) {
+        return new Scenario(name, rate, duration, mix, users, chatTurnsPerSession, maxInFlight, reportInterval,
+                soak);
+    }
+
+    public Scenario withDuration(Duration duration) {
+        return new Scenario(name, rate, duration, mix, users, chatTurnsPerSession, maxInFlight, reportInterval,
+                soak);
+    }
+
+    public Scenario withMix(Map<Operation, Integer> mix) {
+        return new Scenario(name, rate, duration, mix, users, chatTurnsPerSession, maxInFlight, reportInterval,
+                soak);
+    }
+
+    public Scenario withUsers(int users) {
+        return new Scenario(name, rate, duration, mix, users, chatTurnsPerSession, maxInFlight, reportInterval,
+                soak);
+    }
+
+    public Scenario withReportInterval(Duration reportInterval) {
+        return new Scenario(name, rate, duration, mix, users, chatTurnsPerSession, maxInFlight, reportInterval,
+                soak);
+    }
+
+    private static Map<Operation, Integer> mix(int submit, int status, int chat, int export) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.SUBMIT, submit);
+        mix.put(Operation.STATUS, status);
+        mix.put(Operation.CHAT, chat);
+        mix.put(Operation.EXPORT, export);
+        mix.values().removeIf(weight -> weight == 0);
+        return mix;
+    }
+}
@@ -0,0 +1,148 @@
+package com.kyc.ai.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One registered customer. Chat turns continue the customer's current
+ * session until it has had its share of turns, then a new session starts,
+ * the way returning customers open new conversations over a day.
+ */
+class VirtualUser {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(3);
+    private static final List<String> QUESTIONS = List.of(
+            "What documents do I need for KYC verification?",
+            "How long does the verification usually take?",
+            "Why is my application still pending?",
+            "Can I use a driving licence instead of a passport?",
+            "How do you protect my personal data?",
+            "What happens if my document is expired?");
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String username;
+    private final int chatTurnsPerSession;
+    private final String token;
+
+    private volatile String sessionId;
+    private int turns;
+
+    private VirtualUser(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, String username,
+            int chatTurnsPerSession, String token) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.username = username;
+        this.chatTurnsPerSession = chatTurnsPerSession;
+        this.token = token;
+    }
+
+    /**
+     * Register a new customer and log in
+     */
+    static VirtualUser register(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, String runId,
+            int index, int chatTurnsPerSession) throws IOException, InterruptedException {
+        String username = "lt-" + runId + "-" + index;
+        String password = "LoadTest-" + runId + "!";
+        Map<String, String> registration = Map.of("username", username, "email", username + "@loadtest.invalid",
+                "password", password, "firstName", "Load", "lastName", "Test " + index);
+        expectSuccess(httpClient.send(json(baseUrl + "/api/v1/auth/register", objectMapper, registration).build(),
+                HttpResponse.BodyHandlers.ofString()), "register " + username);
+
+        HttpResponse<String> login = httpClient.send(json(baseUrl + "/api/v1/auth/login", objectMapper,
+                Map.of("username", username, "password", password)).build(), HttpResponse.BodyHandlers.ofString());
+        expectSuccess(login, "login " + username);
+        String token = objectMapper.readTree(login.body()).path("token").asText();
+        return new VirtualUser(httpClient, objectMapper, baseUrl, username, chatTurnsPerSession, token);
+    }
+
+    int submit(byte[] document) throws IOException, InterruptedException {
+        String boundary = "----kyc-loadtest-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(document.length + 512);
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"docType\"\r\n\r\nPASSPORT\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"document\"; filename=\"passport.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(document);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest request = authorized(baseUrl + "/api/v1/kyc/submit")
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .header("X-Customer-Id", username)
+                .header("X-Consent-Token", "loadtest")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    int status() throws IOException, InterruptedException {
+        HttpRequest request = authorized(baseUrl + "/api/v1/kyc/status/" + username).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    int chat(int questionIndex) throws IOException, InterruptedException {
+        String currentSession;
+        synchronized (this) {
+            if (turns++ % chatTurnsPerSession == 0) {
+                sessionId = null;
+            }
+            currentSession = sessionId;
+        }
+        HttpRequest.Builder builder = authorized(baseUrl + "/api/v1/chat/message")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(Map.of(
+                        "message", QUESTIONS.get(questionIndex % QUESTIONS.size()),
+                        "hasActiveApplication", true,
+                        "currentStatus", "PENDING",
+                        "documentsSubmitted", List.of("PASSPORT")))));
+        if (currentSession != null) {
+            builder.header("X-Session-Id", currentSession);
+        }
+        HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 200 && currentSession == null) {
+            JsonNode session = objectMapper.readTree(response.body()).path("sessionId");
+            sessionId = session.isTextual() ? session.asText() : null;
+        }
+        return response.statusCode();
+    }
+
+    int export() throws IOException, InterruptedException {
+        HttpRequest request = authorized(baseUrl + "/api/v1/gdpr/export-data?customerId=" + username).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder authorized(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private static HttpRequest.Builder json(String url, ObjectMapper objectMapper, Object body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+    }
+
+    private static void expectSuccess(HttpResponse<String> response, String action) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(action + " failed with HTTP " + response.statusCode() + ": "
+                    + response.body());
+        }
+    }
+}
@@ -1,21 +1,27 @@
 package com.kyc.ai.agent;
 
-import dev.langchain4j.service.MemoryId;
 import dev.langchain4j.service.SystemMessage;
 import dev.langchain4j.service.UserMessage;
 import dev.langchain4j.service.V;
 import dev.langchain4j.service.spring.AiService;
+import dev.langchain4j.service.spring.AiServiceWiringMode;
 
 import java.util.List;
 
 /**
  * Chatbot Agent - Provides KYC support and handles customer inquiries
  * Uses RAG to retrieve regulatory information while maintaining privacy
+ * Context comes pre-budgeted from ChatPromptAssembler, so the content retriever
+ * is not wired in (it would append unbudgeted chunks); prior turns come from
+ * the conversation store through the chat memory, so calls go through
+ * ChatbotMemoryProvider.inSession
  */
-@AiService
+@AiService(wiringMode = AiServiceWiringMode.EXPLICIT, chatModel = "chatLanguageModel",
+        chatMemoryProvider = "chatbotMemoryProvider")
 public interface ChatbotAgent {
 
-    @SystemMessage("""
+    /** Shared with {@link ChatbotStreamingAgent}. */
+    String SYSTEM_PROMPT = """
             You are a helpful and professional KYC (Know Your Customer) support assistant.
 
             Your Purpose:
@@ -63,13 +69,9 @@ public interface ChatbotAgent {
             2. Provide helpful information
             3. Offer next steps or additional assistance
             4. Include relevant disclaimer when needed
-            """)
-
-    @UserMessage("""
-            Customer inquiry: {{message}}
-
-            Conversation history: {{history}}
+            """;
 
+    @SystemMessage({SYSTEM_PROMPT, """
             Retrieved context from knowledge base: {{context}}
 
             Customer context:
@@ -90,11 +92,10 @@ public interface ChatbotAgent {
               "disclaimer": "Any required disclaimer",
               "relatedTopics": ["topic1", "topic2"]
             }
-            """)
+            """})
+    @UserMessage("{{message}}")
     ChatResponse chat(
-            @MemoryId String conversationId,
             @V("message") String message,
-            @V("history") String history,
             @V("context") String context,
             @V("hasActiveApplication") boolean hasActiveApplication,
             @V("currentStatus") String currentStatus,
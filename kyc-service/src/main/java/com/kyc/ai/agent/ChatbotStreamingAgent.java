@@ -0,0 +1,62 @@
+package com.kyc.ai.agent;
+
+import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.TokenStream;
+import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.service.V;
+import dev.langchain4j.service.spring.AiService;
+import dev.langchain4j.service.spring.AiServiceWiringMode;
+
+import java.util.List;
+
+/**
+ * Streaming variant of the {@link ChatbotAgent}.
+ * The answer is produced as plain text so it can be forwarded token by token;
+ * the structured fields follow after {@link #METADATA_MARKER} as a JSON object.
+ */
+@AiService(wiringMode = AiServiceWiringMode.EXPLICIT, streamingChatModel = "streamingChatLanguageModel",
+        chatMemoryProvider = "chatbotMemoryProvider")
+public interface ChatbotStreamingAgent {
+
+    /** Separates the customer-facing answer from the trailing JSON metadata. */
+    String METADATA_MARKER = "<<<METADATA>>>";
+
+    @SystemMessage({ChatbotAgent.SYSTEM_PROMPT, """
+            Retrieved context from knowledge base: {{context}}
+
+            Customer context:
+            - Has active KYC application: {{hasActiveApplication}}
+            - Current status (if applicable): {{currentStatus}}
+            - Documents submitted: {{documentsSubmitted}}
+
+            Respond helpfully while ensuring GDPR compliance.
+            If the user is asking about their specific data, remind them to verify identity.
+            If the request requires data deletion or export, inform them a human agent will contact them.
+
+            First write your answer to the customer as plain text (no JSON, no heading).
+            Then, on a new line, write exactly <<<METADATA>>> followed by a single JSON object:
+            {
+              "suggestedActions": ["action1", "action2"],
+              "escalationNeeded": true|false,
+              "escalationReason": "if applicable",
+              "disclaimer": "Any required disclaimer",
+              "relatedTopics": ["topic1", "topic2"]
+            }
+            """})
+    @UserMessage("{{message}}")
+    TokenStream chat(
+            @V("message") String message,
+            @V("context") String context,
+            @V("hasActiveApplication") boolean hasActiveApplication,
+            @V("currentStatus") String currentStatus,
+            @V("documentsSubmitted") List<String> documentsSubmitted);
+
+    /** Structured fields sent after the streamed answer. */
+    record Metadata(
+            List<String> suggestedActions,
+            boolean escalationNeeded,
+            String escalationReason,
+            String disclaimer,
+            List<String> relatedTopics) {
+    }
+}
@@ -4,6 +4,7 @@ import dev.langchain4j.service.SystemMessage;
 import dev.langchain4j.service.UserMessage;
 import dev.langchain4j.service.V;
 import dev.langchain4j.service.spring.AiService;
+import dev.langchain4j.service.spring.AiServiceWiringMode;
 
 import java.util.List;
 import java.util.Map;
@@ -12,7 +13,8 @@ import java.util.Map;
  * Risk Agent - Performs AML (Anti-Money Laundering) risk assessment
  * Analyzes customer risk factors and provides risk scoring with GDPR compliance
  */
-@AiService
+@AiService(wiringMode = AiServiceWiringMode.EXPLICIT, chatModel = "chatLanguageModel",
+        contentRetriever = "contentRetriever")
 public interface RiskAgent {
 
   @SystemMessage("""
@@ -4,6 +4,7 @@ import dev.langchain4j.service.SystemMessage;
 import dev.langchain4j.service.UserMessage;
 import dev.langchain4j.service.V;
 import dev.langchain4j.service.spring.AiService;
+import dev.langchain4j.service.spring.AiServiceWiringMode;
 
 import java.util.List;
 
@@ -11,7 +12,8 @@ import java.util.List;
  * Supervisor Agent - Orchestrates the multi-agent KYC workflow
  * Routes tasks to appropriate specialized agents and ensures GDPR compliance
  */
-@AiService
+@AiService(wiringMode = AiServiceWiringMode.EXPLICIT, chatModel = "chatLanguageModel",
+        contentRetriever = "contentRetriever")
 public interface SupervisorAgent {
 
     @SystemMessage("""
@@ -1,21 +1,32 @@
 package com.kyc.ai.config;
 
+import com.kyc.ai.llm.AgentMetricsInterceptor;
+import com.kyc.ai.llm.LoadBalancedChatModel;
+import com.kyc.ai.llm.LoadBalancedEmbeddingModel;
+import com.kyc.ai.llm.LoadBalancedStreamingChatModel;
+import com.kyc.ai.llm.OllamaEndpointPool;
+import com.kyc.ai.llm.TokenCounter;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.ollama.OllamaChatModel;
 import dev.langchain4j.model.ollama.OllamaEmbeddingModel;
+import dev.langchain4j.model.ollama.OllamaStreamingChatModel;
 import dev.langchain4j.rag.content.retriever.ContentRetriever;
 import dev.langchain4j.rag.content.retriever.EmbeddingStoreContentRetriever;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.pgvector.PgVectorEmbeddingStore;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
+import java.util.List;
 
 @Slf4j
 @Configuration
@@ -30,20 +41,90 @@ public class LangChain4jConfig {
         @Value("${spring.datasource.password}")
         private String datasourcePassword;
 
-        @Value("${langchain4j.ollama.base-url}")
-        private String ollamaBaseUrl;
+        /** Comma-separated list of Ollama servers; defaults to the single base-url. */
+        @Value("${langchain4j.ollama.base-urls}")
+        private List<String> ollamaBaseUrls;
+
+        @Value("${langchain4j.ollama.timeout:300s}")
+        private Duration ollamaTimeout;
+
+        @Value("${langchain4j.ollama.chat-model.model-name:llama3.2}")
+        private String chatModelName;
+
+        @Value("${langchain4j.ollama.embedding-model.model-name:nomic-embed-text}")
+        private String embeddingModelName;
+
+        // ================== Ollama Endpoints ==================
+
+        @Bean
+        public OllamaEndpointPool ollamaEndpointPool(
+                        @Value("${kyc.llm.load-balancer.probe-timeout:PT2S}") Duration probeTimeout,
+                        @Value("${kyc.llm.load-balancer.ejection.latency-factor:3.0}") double ejectionLatencyFactor,
+                        @Value("${kyc.llm.load-balancer.ejection.min-samples:20}") int ejectionMinSamples,
+                        @Value("${kyc.llm.load-balancer.ejection.duration:PT30S}") Duration ejectionDuration,
+                        MeterRegistry meterRegistry) {
+                return new OllamaEndpointPool(ollamaBaseUrls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList(),
+                                probeTimeout, ejectionLatencyFactor, ejectionMinSamples, ejectionDuration, meterRegistry);
+        }
 
         // ================== Chat Models ==================
 
         @Bean
-        public ChatLanguageModel chatLanguageModel() {
-                log.info("Initializing Ollama Chat Model at: {}", ollamaBaseUrl);
-                return OllamaChatModel.builder()
-                                .baseUrl(ollamaBaseUrl)
-                                .modelName("llama3.2")
-                                .temperature(0.7)
-                                .timeout(Duration.ofSeconds(300))
-                                .build();
+        public ChatLanguageModel chatLanguageModel(OllamaEndpointPool ollamaEndpointPool, TokenCounter tokenCounter,
+                        AgentMetricsInterceptor agentMetrics,
+                        @Value("${kyc.llm.load-balancer.hedge.enabled:false}") boolean hedgeEnabled,
+                        @Value("${kyc.llm.load-balancer.hedge.percentile:0.95}") double hedgePercentile,
+                        @Value("${kyc.llm.load-balancer.hedge.min-delay:PT5S}") Duration hedgeMinDelay,
+                        @Value("${kyc.llm.load-balancer.hedge.min-samples:50}") int hedgeMinSamples,
+                        MeterRegistry meterRegistry) {
+                log.info("Initializing Ollama Chat Model across {} endpoint(s)", ollamaEndpointPool.size());
+                return new LoadBalancedChatModel(ollamaEndpointPool,
+                                baseUrl -> OllamaChatModel.builder()
+                                                .baseUrl(baseUrl)
+                                                .modelName(chatModelName)
+                                                .temperature(0.7)
+                                                .timeout(ollamaTimeout)
+                                                .listeners(List.of(tokenCounter, agentMetrics))
+                                                .build(),
+                                new LoadBalancedChatModel.Hedging(hedgeEnabled, hedgePercentile, hedgeMinDelay,
+                                                hedgeMinSamples),
+                                meterRegistry);
+        }
+
+        @Bean
+        public StreamingChatLanguageModel streamingChatLanguageModel(OllamaEndpointPool ollamaEndpointPool,
+                        TokenCounter tokenCounter) {
+                log.info("Initializing Ollama Streaming Chat Model across {} endpoint(s)", ollamaEndpointPool.size());
+                return new LoadBalancedStreamingChatModel(ollamaEndpointPool,
+                                baseUrl -> OllamaStreamingChatModel.builder()
+                                                .baseUrl(baseUrl)
+                                                .modelName(chatModelName)
+                                                .temperature(0.7)
+                                                .timeout(ollamaTimeout)
+                                                .listeners(List.of(tokenCounter))
+                                                .build());
+        }
+
+        /** Short, low-temperature calls that compact chatbot history; may point at a smaller model. */
+        @Bean
+        @ConditionalOnProperty(prefix = "kyc.chat.conversation.summary", name = "enabled", havingValue = "true")
+        public ChatLanguageModel summaryChatLanguageModel(OllamaEndpointPool ollamaEndpointPool, TokenCounter tokenCounter,
+                        @Value("${kyc.chat.conversation.summary.model-name:llama3.2}") String modelName,
+                        @Value("${kyc.chat.conversation.summary.max-tokens:256}") int maxTokens,
+                        MeterRegistry meterRegistry) {
+                log.info("Initializing Ollama Summary Model {} across {} endpoint(s)", modelName,
+                                ollamaEndpointPool.size());
+                return new LoadBalancedChatModel(ollamaEndpointPool,
+                                baseUrl -> OllamaChatModel.builder()
+                                                .baseUrl(baseUrl)
+                                                .modelName(modelName)
+                                                .temperature(0.2)
+                                                .numPredict(maxTokens)
+                                                .timeout(ollamaTimeout)
+                                                .listeners(List.of(tokenCounter))
+                                                .build(),
+                                new LoadBalancedChatModel.Hedging(false, 0.95, Duration.ZERO, 0),
+                                meterRegistry);
         }
 
         // @Bean
@@ -61,13 +142,14 @@ public class LangChain4jConfig {
         // ================== Embedding Model ==================
 
         @Bean
-        public EmbeddingModel embeddingModel() {
-                log.info("Initializing Ollama Embedding Model at: {}", ollamaBaseUrl);
-                return OllamaEmbeddingModel.builder()
-                                .baseUrl(ollamaBaseUrl)
-                                .modelName("nomic-embed-text")
-                                .timeout(Duration.ofSeconds(180))
-                                .build();
+        public EmbeddingModel embeddingModel(OllamaEndpointPool ollamaEndpointPool) {
+                log.info("Initializing Ollama Embedding Model across {} endpoint(s)", ollamaEndpointPool.size());
+                return new LoadBalancedEmbeddingModel(ollamaEndpointPool,
+                                baseUrl -> OllamaEmbeddingModel.builder()
+                                                .baseUrl(baseUrl)
+                                                .modelName(embeddingModelName)
+                                                .timeout(Duration.ofSeconds(180))
+                                                .build());
         }
 
         // ================== Embedding Stores ==================
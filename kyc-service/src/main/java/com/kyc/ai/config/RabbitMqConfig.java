@@ -0,0 +1,213 @@
+package com.kyc.ai.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * RabbitMQ topology for the asynchronous KYC pipeline.
+ * Each stage (OCR, analysis, risk) has its own queue and listener container
+ * factory so OCR and LLM worker capacity can be scaled independently.
+ * Stages that hit a transient overload are parked on the stage's retry queue,
+ * which has no consumer and dead-letters expired messages back to the stage.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "kyc.pipeline", name = "async-enabled", havingValue = "true")
+public class RabbitMqConfig {
+
+    public static final String EXCHANGE = "kyc.pipeline";
+    public static final String DEAD_LETTER_EXCHANGE = "kyc.pipeline.dlx";
+
+    public static final String OCR_QUEUE = "kyc.pipeline.ocr";
+    public static final String ANALYSIS_QUEUE = "kyc.pipeline.analysis";
+    public static final String RISK_QUEUE = "kyc.pipeline.risk";
+    public static final String DEAD_LETTER_QUEUE = "kyc.pipeline.dead-letter";
+
+    /** Suffix of the per-stage queues that hold messages for a delayed retry. */
+    public static final String RETRY_SUFFIX = ".retry";
+
+    @Value("${kyc.pipeline.stages.ocr.concurrency:2}")
+    private int ocrConcurrency;
+
+    @Value("${kyc.pipeline.stages.ocr.max-concurrency:4}")
+    private int ocrMaxConcurrency;
+
+    @Value("${kyc.pipeline.stages.analysis.concurrency:2}")
+    private int analysisConcurrency;
+
+    @Value("${kyc.pipeline.stages.analysis.max-concurrency:4}")
+    private int analysisMaxConcurrency;
+
+    @Value("${kyc.pipeline.stages.risk.concurrency:1}")
+    private int riskConcurrency;
+
+    @Value("${kyc.pipeline.stages.risk.max-concurrency:2}")
+    private int riskMaxConcurrency;
+
+    @Value("${kyc.pipeline.retry.delay:PT30S}")
+    private Duration retryDelay;
+
+    // ================== Topology ==================
+
+    @Bean
+    public DirectExchange kycPipelineExchange() {
+        return new DirectExchange(EXCHANGE, true, false);
+    }
+
+    @Bean
+    public DirectExchange kycPipelineDeadLetterExchange() {
+        return new DirectExchange(DEAD_LETTER_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Queue ocrQueue() {
+        return stageQueue(OCR_QUEUE);
+    }
+
+    @Bean
+    public Queue analysisQueue() {
+        return stageQueue(ANALYSIS_QUEUE);
+    }
+
+    @Bean
+    public Queue riskQueue() {
+        return stageQueue(RISK_QUEUE);
+    }
+
+    @Bean
+    public Queue deadLetterQueue() {
+        return QueueBuilder.durable(DEAD_LETTER_QUEUE).build();
+    }
+
+    @Bean
+    public Queue ocrRetryQueue() {
+        return retryQueue(OCR_QUEUE);
+    }
+
+    @Bean
+    public Queue analysisRetryQueue() {
+        return retryQueue(ANALYSIS_QUEUE);
+    }
+
+    @Bean
+    public Queue riskRetryQueue() {
+        return retryQueue(RISK_QUEUE);
+    }
+
+    @Bean
+    public Binding ocrBinding() {
+        return BindingBuilder.bind(ocrQueue()).to(kycPipelineExchange()).with(OCR_QUEUE);
+    }
+
+    @Bean
+    public Binding analysisBinding() {
+        return BindingBuilder.bind(analysisQueue()).to(kycPipelineExchange()).with(ANALYSIS_QUEUE);
+    }
+
+    @Bean
+    public Binding riskBinding() {
+        return BindingBuilder.bind(riskQueue()).to(kycPipelineExchange()).with(RISK_QUEUE);
+    }
+
+    @Bean
+    public Binding ocrRetryBinding() {
+        return BindingBuilder.bind(ocrRetryQueue()).to(kycPipelineExchange()).with(OCR_QUEUE + RETRY_SUFFIX);
+    }
+
+    @Bean
+    public Binding analysisRetryBinding() {
+        return BindingBuilder.bind(analysisRetryQueue()).to(kycPipelineExchange())
+                .with(ANALYSIS_QUEUE + RETRY_SUFFIX);
+    }
+
+    @Bean
+    public Binding riskRetryBinding() {
+        return BindingBuilder.bind(riskRetryQueue()).to(kycPipelineExchange()).with(RISK_QUEUE + RETRY_SUFFIX);
+    }
+
+    @Bean
+    public Binding deadLetterBinding() {
+        return BindingBuilder.bind(deadLetterQueue()).to(kycPipelineDeadLetterExchange()).with(DEAD_LETTER_QUEUE);
+    }
+
+    @Bean
+    public MessageConverter pipelineMessageConverter(ObjectMapper objectMapper) {
+        return new Jackson2JsonMessageConverter(objectMapper);
+    }
+
+    // ================== Per-stage Listener Containers ==================
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory ocrListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        return stageContainerFactory("OCR", configurer, connectionFactory,
+                ocrConcurrency, ocrMaxConcurrency);
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory analysisListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        return stageContainerFactory("ANALYSIS", configurer, connectionFactory,
+                analysisConcurrency, analysisMaxConcurrency);
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory riskListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        return stageContainerFactory("RISK", configurer, connectionFactory,
+                riskConcurrency, riskMaxConcurrency);
+    }
+
+    // ================== Helper Methods ==================
+
+    private Queue stageQueue(String name) {
+        return QueueBuilder.durable(name)
+                .deadLetterExchange(DEAD_LETTER_EXCHANGE)
+                .deadLetterRoutingKey(DEAD_LETTER_QUEUE)
+                .build();
+    }
+
+    /**
+     * Holds a stage's messages for kyc.pipeline.retry.delay, then routes them back to the stage queue
+     */
+    private Queue retryQueue(String stageQueue) {
+        return QueueBuilder.durable(stageQueue + RETRY_SUFFIX)
+                .ttl((int) retryDelay.toMillis())
+                .deadLetterExchange(EXCHANGE)
+                .deadLetterRoutingKey(stageQueue)
+                .build();
+    }
+
+    private SimpleRabbitListenerContainerFactory stageContainerFactory(String stage,
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            int concurrency, int maxConcurrency) {
+        log.info("Configuring {} pipeline stage with {}-{} consumers", stage, concurrency, maxConcurrency);
+
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        // Applies spring.rabbitmq.listener.* defaults and the JSON message converter
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        // Stages run for seconds to minutes - hand out one message at a time
+        factory.setPrefetchCount(1);
+        // Failed stages are routed to the dead-letter queue instead of redelivered forever
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+}
@@ -1,17 +1,56 @@
 package com.kyc.ai.config;
 
+import com.kyc.ai.ocr.ImagePreprocessor;
+import com.kyc.ai.ocr.TesseractPool;
+import io.micrometer.core.instrument.MeterRegistry;
 import net.sourceforge.tess4j.Tesseract;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class TesseractConfig {
 
-    @org.springframework.beans.factory.annotation.Value("${tesseract.datapath}")
+    @Value("${tesseract.datapath}")
     private String datapath;
 
+    /** Number of engines; 0 sizes the pool to the available cores. */
+    @Value("${tesseract.pool.size:0}")
+    private int poolSize;
+
+    @Value("${tesseract.pool.checkout-timeout:PT30S}")
+    private Duration checkoutTimeout;
+
+    @Value("${tesseract.preprocess.target-dpi:300}")
+    private int targetDpi;
+
+    /** Upper bound on decoded pixels per page; caps heap per submission. */
+    @Value("${tesseract.preprocess.max-pixels:8000000}")
+    private long maxPixels;
+
+    @Value("${tesseract.preprocess.binarize:false}")
+    private boolean binarize;
+
+    @Value("${tesseract.preprocess.deskew:false}")
+    private boolean deskew;
+
+    @Value("${tesseract.preprocess.min-deskew-angle:0.5}")
+    private double minDeskewAngle;
+
+    @Bean
+    public ImagePreprocessor imagePreprocessor(MeterRegistry meterRegistry) {
+        return new ImagePreprocessor(targetDpi, maxPixels, binarize, deskew, minDeskewAngle, meterRegistry);
+    }
+
     @Bean
-    public Tesseract tesseract() {
+    public TesseractPool tesseractPool(MeterRegistry meterRegistry) {
+        int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new TesseractPool(size, checkoutTimeout, this::newTesseract, meterRegistry);
+    }
+
+    private Tesseract newTesseract() {
         Tesseract tesseract = new Tesseract();
         tesseract.setDatapath(datapath);
         return tesseract;
@@ -1,24 +1,36 @@
 package com.kyc.ai.controller;
 
 import com.kyc.ai.agent.ChatbotAgent;
+import com.kyc.ai.conversation.ChatbotMemoryProvider;
+import com.kyc.ai.conversation.Conversation;
+import com.kyc.ai.conversation.ConversationMessage;
+import com.kyc.ai.conversation.ConversationStore;
 import com.kyc.ai.entity.AuditLog;
+import com.kyc.ai.exception.BadRequestException;
+import com.kyc.ai.exception.NotFoundException;
+import com.kyc.ai.service.ChatPromptAssembler;
+import com.kyc.ai.service.ChatbotStreamingService;
 import com.kyc.ai.service.GdprService;
-import com.kyc.ai.service.RagService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @RestController
@@ -28,12 +40,15 @@ import java.util.concurrent.ConcurrentHashMap;
 @SecurityRequirement(name = "bearerAuth")
 public class ChatbotController {
 
+    /** Matches chat_conversations.session_id. */
+    private static final int MAX_SESSION_ID_LENGTH = 128;
+
     private final ChatbotAgent chatbotAgent;
     private final GdprService gdprService;
-    private final RagService ragService;
-
-    // In-memory conversation store (use Redis in production)
-    private final Map<String, Conversation> conversations = new ConcurrentHashMap<>();
+    private final ChatPromptAssembler promptAssembler;
+    private final ChatbotStreamingService chatbotStreamingService;
+    private final ConversationStore conversationStore;
+    private final ChatbotMemoryProvider chatbotMemory;
 
     @PostMapping("/message")
     @Operation(summary = "Send message to chatbot", description = "Chat with KYC support assistant")
@@ -43,35 +58,23 @@ public class ChatbotController {
             @RequestBody ChatRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
 
-        String conversationId = sessionId != null ? sessionId : UUID.randomUUID().toString();
-        
-        // Get or create conversation
-        Conversation conversation = conversations.computeIfAbsent(conversationId, 
-            id -> new Conversation(id, userDetails.getUsername()));
+        String conversationId = openConversation(sessionId, userDetails);
 
         // Sanitize message before processing
         String sanitizedMessage = sanitizeMessage(request.message());
 
-        // Retrieve RAG context
-        String context = ragService.retrieveContextForChatbot(sanitizedMessage);
+        // Fit RAG context and conversation history into the prompt budget
+        ChatPromptAssembler.ChatPrompt prompt = promptAssembler.assemble(conversationId, sanitizedMessage);
 
-        // Get conversation history
-        String history = String.join("\n", conversation.messages);
-
-        // Generate response
-        ChatbotAgent.ChatResponse agentResponse = chatbotAgent.chat(
-            conversationId,
-            sanitizedMessage,
-            history,
-            context,
+        // Generate response; the agent's chat memory records the customer's turn in the conversation store
+        ChatbotAgent.ChatResponse agentResponse = chatbotMemory.inSession(conversationId, () -> chatbotAgent.chat(
+            prompt.message(),
+            prompt.context(),
             request.hasActiveApplication(),
             request.currentStatus(),
             request.documentsSubmitted()
-        );
-
-        // Update conversation history
-        conversation.addMessage("User: " + sanitizedMessage);
-        conversation.addMessage("Assistant: " + agentResponse.response());
+        ));
+        chatbotMemory.recordAnswer(conversationId, agentResponse.response());
 
         // Log interaction (GDPR)
         gdprService.logDataAccess(
@@ -94,14 +97,53 @@ public class ChatbotController {
         ));
     }
 
+    @PostMapping("/stream")
+    @Operation(summary = "Stream chatbot reply", description = "Chat with KYC support assistant over Server-Sent Events: "
+            + "'session', then 'token' chunks, then 'complete' with the structured fields (or 'error')")
+    public SseEmitter streamMessage(
+            @RequestHeader(value = "X-Session-Id", required = false)
+                @Parameter(description = "Session ID for conversation continuity") String sessionId,
+            @RequestBody ChatRequest request,
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletResponse response) {
+
+        String conversationId = openConversation(sessionId, userDetails);
+
+        String sanitizedMessage = sanitizeMessage(request.message());
+        ChatPromptAssembler.ChatPrompt prompt = promptAssembler.assemble(conversationId, sanitizedMessage);
+
+        // Logged up front: the audit entry needs the request, which is gone once streaming completes
+        gdprService.logDataAccess(
+            userDetails.getUsername(),
+            AuditLog.AuditAction.CHAT_INTERACTION,
+            AuditLog.LegalBasis.LEGITIMATE_INTEREST,
+            "CHATBOT",
+            new String[]{"CONVERSATION"},
+            true,
+            "{\"sessionId\": \"" + conversationId + "\", \"streaming\": true}"
+        );
+
+        // Stop reverse proxies (nginx) from buffering the event stream
+        response.setHeader("X-Accel-Buffering", "no");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        return chatbotStreamingService.stream(
+            new ChatbotStreamingService.StreamRequest(conversationId, prompt.message(), prompt.context(),
+                request.hasActiveApplication(), request.currentStatus(), request.documentsSubmitted()));
+    }
+
     @DeleteMapping("/history/{sessionId}")
     @Operation(summary = "Delete conversation history", description = "GDPR Right to Erasure for chat history")
     public ResponseEntity<Map<String, String>> deleteHistory(
             @PathVariable @Parameter(description = "Session ID") String sessionId,
             @AuthenticationPrincipal UserDetails userDetails) {
 
-        conversations.remove(sessionId);
-        
+        Optional<Conversation> conversation = conversationStore.find(sessionId);
+        if (conversation.isPresent() && !isOwner(conversation.get(), userDetails)) {
+            return ResponseEntity.notFound().build();
+        }
+        conversationStore.delete(sessionId);
+
         gdprService.logDataAccess(
             userDetails.getUsername(),
             AuditLog.AuditAction.DATA_DELETION,
@@ -121,21 +163,49 @@ public class ChatbotController {
     @GetMapping("/history/{sessionId}")
     @Operation(summary = "Get conversation history", description = "Retrieve chat history")
     public ResponseEntity<ConversationHistoryResponse> getHistory(
-            @PathVariable @Parameter(description = "Session ID") String sessionId) {
+            @PathVariable @Parameter(description = "Session ID") String sessionId,
+            @AuthenticationPrincipal UserDetails userDetails) {
 
-        Conversation conversation = conversations.get(sessionId);
-        if (conversation == null) {
-            return ResponseEntity.notFound().build();
+        return ownedConversation(sessionId, userDetails)
+            .map(conversation -> ResponseEntity.ok(new ConversationHistoryResponse(
+                sessionId,
+                conversation.messages().stream()
+                    .map(message -> (message.role() == ConversationMessage.Role.USER ? "User: " : "Assistant: ")
+                        + message.text())
+                    .toList(),
+                LocalDateTime.ofInstant(conversation.createdAt(), ZoneId.systemDefault())
+            )))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Open the caller's session, starting a new one when no session ID is given
+     */
+    private String openConversation(String sessionId, UserDetails userDetails) {
+        String conversationId = sessionId != null ? sessionId : UUID.randomUUID().toString();
+        if (conversationId.isBlank() || conversationId.length() > MAX_SESSION_ID_LENGTH) {
+            throw new BadRequestException("Session ID must be 1 to " + MAX_SESSION_ID_LENGTH + " characters");
+        }
+        String owner = conversationStore.open(conversationId, userDetails.getUsername());
+        if (!userDetails.getUsername().equals(owner)) {
+            // Same answer as for an unknown session, so session IDs of other users are not disclosed
+            throw new NotFoundException("Session not found");
         }
+        return conversationId;
+    }
 
-        return ResponseEntity.ok(new ConversationHistoryResponse(
-            sessionId,
-            conversation.messages,
-            conversation.createdAt
-        ));
+    /**
+     * The session, if it exists and belongs to the caller
+     */
+    private Optional<Conversation> ownedConversation(String sessionId, UserDetails userDetails) {
+        return conversationStore.find(sessionId).filter(conversation -> isOwner(conversation, userDetails));
+    }
+
+    private static boolean isOwner(Conversation conversation, UserDetails userDetails) {
+        return userDetails.getUsername().equals(conversation.ownerId());
     }
 
-    private String sanitizeMessage(String message) {
+    static String sanitizeMessage(String message) {
         // Remove potential PII from logs
         return message
             .replaceAll("\\b\\d{4}[\\s-]?\\d{4}[\\s-]?\\d{4}[\\s-]?\\d{4}\\b", "[REDACTED_CARD]")
@@ -143,28 +213,6 @@ public class ChatbotController {
             .replaceAll("\\b[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Z|a-z]{2,}\\b", "[REDACTED_EMAIL]");
     }
 
-    // Inner classes
-    private static class Conversation {
-        final String id;
-        final String userId;
-        final List<String> messages = new java.util.ArrayList<>();
-        final java.time.LocalDateTime createdAt;
-
-        Conversation(String id, String userId) {
-            this.id = id;
-            this.userId = userId;
-            this.createdAt = java.time.LocalDateTime.now();
-        }
-
-        void addMessage(String message) {
-            messages.add(message);
-            // Keep only last 20 messages to prevent memory issues
-            if (messages.size() > 20) {
-                messages.remove(0);
-            }
-        }
-    }
-
     // DTOs
     public record ChatRequest(
         String message,
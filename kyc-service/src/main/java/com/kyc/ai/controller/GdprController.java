@@ -1,5 +1,7 @@
 package com.kyc.ai.controller;
 
+import com.kyc.ai.exception.BadRequestException;
+import com.kyc.ai.service.GdprErasureService;
 import com.kyc.ai.service.GdprService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,12 +12,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -26,6 +31,7 @@ import java.util.Map;
 public class GdprController {
 
     private final GdprService gdprService;
+    private final GdprErasureService erasureService;
 
     @GetMapping("/export-data")
     @Operation(summary = "Export personal data", description = "GDPR Article 20 - Right to Data Portability")
@@ -65,25 +71,82 @@ public class GdprController {
 
         log.info("Data deletion requested for customer: {} by user: {}", customerId, userDetails.getUsername());
 
-        boolean success = gdprService.deleteCustomerData(customerId);
-
-        if (success) {
+        try {
+            GdprErasureService.Erasure erasure = erasureService.erase(customerId, userDetails.getUsername(),
+                    request != null ? request.reason() : null);
             return ResponseEntity.ok(new DeletionResponse(
                 "SUCCESS",
-                "Your personal data has been deleted in accordance with GDPR Article 17",
+                erasure.status() == GdprErasureService.Status.COMPLETED
+                    ? "Your personal data has been deleted in accordance with GDPR Article 17"
+                    : "Your personal data has been deleted in accordance with GDPR Article 17; "
+                        + "stored files are being removed",
                 customerId,
-                java.time.LocalDateTime.now().toString()
+                erasure.requestedAt().toString(),
+                erasure.id().toString(),
+                erasure.status().name()
             ));
-        } else {
+        } catch (RuntimeException e) {
+            log.error("Failed to delete customer data", e);
             return ResponseEntity.status(500).body(new DeletionResponse(
                 "FAILED",
                 "Unable to complete data deletion. Please contact our DPO.",
                 customerId,
+                null,
+                null,
                 null
             ));
         }
     }
 
+    @GetMapping("/erasures/{erasureId}")
+    @Operation(summary = "Erasure status", description = "Progress of an erasure request, including stored file removal")
+    @PostAuthorize("returnObject.body == null or returnObject.body.customerId() == authentication.name "
+            + "or hasAnyRole('ADMIN', 'DPO')")
+    public ResponseEntity<GdprErasureService.Erasure> getErasure(
+            @PathVariable @Parameter(description = "Erasure ID") UUID erasureId) {
+        return erasureService.find(erasureId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/erasures")
+    @Operation(summary = "Erasures of a customer", description = "Erasure requests for a customer, newest first")
+    @PreAuthorize("#customerId == authentication.name or hasAnyRole('ADMIN', 'DPO')")
+    public ResponseEntity<List<GdprErasureService.Erasure>> getErasures(
+            @RequestParam("customerId") @Parameter(description = "Customer ID") String customerId) {
+        return ResponseEntity.ok(erasureService.findByCustomer(customerId));
+    }
+
+    @PostMapping("/erasures/batch")
+    @Operation(summary = "Bulk erasure", description = "GDPR Article 17 - erase a batch of customers at once")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DPO')")
+    public ResponseEntity<BatchErasureResponse> eraseBatch(
+            @RequestBody @Parameter(description = "Customers to erase") BatchErasureRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (request.customerIds() == null) {
+            throw new BadRequestException("customerIds is required");
+        }
+        log.info("Bulk erasure of {} customers requested by user: {}", request.customerIds().size(),
+                userDetails.getUsername());
+
+        List<GdprErasureService.Erasure> erasures = erasureService.eraseBatch(request.customerIds(),
+                userDetails.getUsername(), request.reason());
+        return ResponseEntity.ok(new BatchErasureResponse(erasures.get(0).batchId(), erasures));
+    }
+
+    @GetMapping("/erasures/batch/{batchId}")
+    @Operation(summary = "Bulk erasure status", description = "Erasure requests of a bulk erasure")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DPO')")
+    public ResponseEntity<BatchErasureResponse> getBatch(
+            @PathVariable @Parameter(description = "Batch ID") UUID batchId) {
+        List<GdprErasureService.Erasure> erasures = erasureService.findByBatch(batchId);
+        if (erasures.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new BatchErasureResponse(batchId, erasures));
+    }
+
     @PostMapping("/consent")
     @Operation(summary = "Record consent", description = "Record explicit consent for data processing")
     public ResponseEntity<ConsentResponse> recordConsent(
@@ -167,7 +230,19 @@ public class GdprController {
         String status,
         String message,
         String customerId,
-        String completedAt
+        String completedAt,
+        String erasureId,
+        String erasureStatus
+    ) {}
+
+    public record BatchErasureRequest(
+        List<String> customerIds,
+        String reason
+    ) {}
+
+    public record BatchErasureResponse(
+        UUID batchId,
+        List<GdprErasureService.Erasure> erasures
     ) {}
 
     public record ConsentRequest(
@@ -18,6 +18,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -49,6 +50,22 @@ public class KycController {
 
                 log.info("KYC submission received for customer: {}, docType: {}", customerId, docType);
 
+                if (orchestrationService.isAsyncPipelineEnabled()) {
+                        KycOrchestrationService.KycSubmissionResult accepted = orchestrationService.submitKycAsync(
+                                        customerId, document, docType, legalBasis);
+                        if (accepted.documentId() == null) {
+                                return ResponseEntity.ok(new KycSubmissionResponse(
+                                                accepted.status(), accepted.message(), null, null));
+                        }
+                        return ResponseEntity.accepted()
+                                        .location(URI.create("/api/v1/kyc/jobs/" + accepted.documentId()))
+                                        .body(new KycSubmissionResponse(
+                                                        accepted.status(),
+                                                        accepted.message(),
+                                                        accepted.documentId(),
+                                                        null));
+                }
+
                 KycOrchestrationService.KycSubmissionResult result = orchestrationService.submitKyc(
                                 customerId, document, docType, legalBasis);
 
@@ -80,6 +97,28 @@ public class KycController {
                                 status.findings()));
         }
 
+        @GetMapping("/jobs/{documentId}")
+        @Operation(summary = "Get submission job status", description = "Poll an asynchronously processed KYC submission")
+        @PreAuthorize("hasAnyRole('CUSTOMER', 'OPERATOR', 'ADMIN')")
+        public ResponseEntity<DocumentResponse> getJobStatus(
+                        @PathVariable @Parameter(description = "Document ID returned by submit") UUID documentId,
+                        @AuthenticationPrincipal UserDetails userDetails) {
+
+                // Customers only see their own submissions; others get the same 404 as an unknown ID
+                return documentService.findDocument(documentId)
+                                .filter(d -> isStaff(userDetails) || d.getCustomerId().equals(userDetails.getUsername()))
+                                .map(d -> ResponseEntity.ok(new DocumentResponse(
+                                                d.getId(),
+                                                d.getDocumentType().name(),
+                                                d.getVerificationStatus().name(),
+                                                d.getRiskLevel() != null ? d.getRiskLevel().name() : null,
+                                                d.getConfidenceScore(),
+                                                d.getCreatedAt(),
+                                                d.getProcessedAt(),
+                                                orchestrationService.extractFindings(d))))
+                                .orElse(ResponseEntity.notFound().build());
+        }
+
         @GetMapping("/documents/{customerId}")
         @Operation(summary = "Get customer documents", description = "List all documents for a customer")
         @PreAuthorize("hasAnyRole('OPERATOR', 'ADMIN')")
@@ -149,6 +188,12 @@ public class KycController {
                                 summary.overallStatus()));
         }
 
+        private static boolean isStaff(UserDetails userDetails) {
+                return userDetails.getAuthorities().stream()
+                                .anyMatch(a -> a.getAuthority().equals("ROLE_OPERATOR")
+                                                || a.getAuthority().equals("ROLE_ADMIN"));
+        }
+
         // DTOs
         public record KycSubmissionResponse(
                         String status,
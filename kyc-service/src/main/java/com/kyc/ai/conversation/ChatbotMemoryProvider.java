@@ -0,0 +1,50 @@
+package com.kyc.ai.conversation;
+
+import com.kyc.ai.service.ChatPromptAssembler;
+import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.memory.chat.ChatMemoryProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Chat memory for the chatbot agents, backed by the conversation store.
+ * Every agent gets the same stateless {@link ConversationChatMemory}; the
+ * session is bound per call with {@link #inSession}. Assistant turns are
+ * stored as the answer text only, without the JSON envelope or streamed
+ * metadata, so history stays readable and compact.
+ * With kyc.chat.conversation.summary.enabled older turns are handed to the
+ * {@link ConversationSummarizer} after each answer.
+ */
+@Component
+public class ChatbotMemoryProvider implements ChatMemoryProvider {
+
+    private final ConversationChatMemory memory;
+
+    public ChatbotMemoryProvider(ConversationStore conversationStore, ChatPromptAssembler promptAssembler,
+            ObjectProvider<ConversationSummarizer> summarizer) {
+        ConversationSummarizer compaction = summarizer.getIfAvailable();
+        this.memory = new ConversationChatMemory(conversationStore, promptAssembler::historyWindow,
+                compaction != null ? compaction::onAnswer : sessionId -> { });
+    }
+
+    @Override
+    public ChatMemory get(Object memoryId) {
+        return memory;
+    }
+
+    /**
+     * Call a chatbot agent for this session
+     */
+    public <T> T inSession(String sessionId, Supplier<T> call) {
+        return memory.inSession(sessionId, call);
+    }
+
+    /**
+     * Store the customer-facing answer of a completed turn
+     */
+    public void recordAnswer(String sessionId, String answer) {
+        memory.recordAnswer(sessionId, answer);
+    }
+}
@@ -0,0 +1,12 @@
+package com.kyc.ai.conversation;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Snapshot of a chatbot session; messages are oldest first.
+ * {@code summary} covers the turns already compacted out of {@code messages}, or is null.
+ */
+public record Conversation(String sessionId, String ownerId, Instant createdAt, String summary,
+        List<ConversationMessage> messages) {
+}
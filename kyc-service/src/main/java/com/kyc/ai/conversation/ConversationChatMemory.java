@@ -0,0 +1,188 @@
+package com.kyc.ai.conversation;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * LangChain4j chat memory backed by the {@link ConversationStore}.
+ * One instance serves every session: LangChain4j keeps each memory its
+ * provider returns for the lifetime of the agent, so nothing session- or
+ * call-specific is kept in fields. Agent calls are made through
+ * {@link #inSession}, which binds the session to the calling thread; the
+ * system message and the current user message live in that binding and are
+ * dropped when the call returns, so concurrent calls on one session never see
+ * each other's prompt.
+ * The messages sent to the model are the system message (with the session's
+ * running summary appended, if any), the prior turns chosen by
+ * {@code historyWindow} and the customer's current message.
+ * For POJO return types LangChain4j appends its output format instructions
+ * to the user message; only the customer's text is stored.
+ * Assistant turns are not taken from LangChain4j (streamed answers complete
+ * on another thread); callers store them with {@link #recordAnswer}.
+ */
+public class ConversationChatMemory implements ChatMemory {
+
+    /** Introduces the running summary at the end of the system message. */
+    public static final String SUMMARY_HEADER = "\n\nSummary of the earlier conversation:\n";
+
+    /** Start of the instructions LangChain4j appends for structured outputs. */
+    static final String FORMAT_INSTRUCTIONS = "\nYou must answer strictly in the following ";
+
+    private final ConversationStore store;
+    private final UnaryOperator<List<ConversationMessage>> historyWindow;
+    private final Consumer<String> afterAnswer;
+    private final ThreadLocal<Turn> turn = new ThreadLocal<>();
+
+    /**
+     * @param historyWindow picks the prior turns to send, oldest first
+     * @param afterAnswer   called with the session ID once an answer is stored
+     */
+    public ConversationChatMemory(ConversationStore store, UnaryOperator<List<ConversationMessage>> historyWindow,
+            Consumer<String> afterAnswer) {
+        this.store = store;
+        this.historyWindow = historyWindow;
+        this.afterAnswer = afterAnswer;
+    }
+
+    /**
+     * Run an agent call for this session; the prompt built during the call is released when it returns
+     */
+    public <T> T inSession(String sessionId, Supplier<T> call) {
+        Turn previous = turn.get();
+        turn.set(new Turn(sessionId));
+        try {
+            return call.get();
+        } finally {
+            if (previous != null) {
+                turn.set(previous);
+            } else {
+                turn.remove();
+            }
+        }
+    }
+
+    /**
+     * Store the customer-facing answer for a session
+     */
+    public void recordAnswer(String sessionId, String answer) {
+        if (answer == null || answer.isBlank()) {
+            return;
+        }
+        store.append(sessionId, ConversationMessage.assistant(answer.strip()));
+        afterAnswer.accept(sessionId);
+    }
+
+    @Override
+    public Object id() {
+        Turn current = turn.get();
+        return current != null ? current.sessionId : null;
+    }
+
+    @Override
+    public void add(ChatMessage message) {
+        if (message instanceof AiMessage) {
+            return;
+        }
+        Turn current = boundTurn();
+        if (message instanceof SystemMessage system) {
+            current.systemMessage = system;
+        } else if (message instanceof UserMessage user && user.hasSingleText()) {
+            current.userMessage = user;
+            store.append(current.sessionId, ConversationMessage.user(customerText(user.singleText())));
+        }
+    }
+
+    @Override
+    public List<ChatMessage> messages() {
+        Turn current = turn.get();
+        if (current == null) {
+            return List.of();
+        }
+        Conversation conversation = store.find(current.sessionId).orElse(null);
+        List<ConversationMessage> stored = conversation != null ? conversation.messages() : List.of();
+        String summary = conversation != null ? conversation.summary() : null;
+        if (current.userMessage != null) {
+            stored = withoutCurrent(stored, customerText(current.userMessage.singleText()));
+        }
+
+        List<ChatMessage> messages = new ArrayList<>();
+        SystemMessage systemMessage = current.systemMessage;
+        if (systemMessage != null) {
+            messages.add(summary != null
+                    ? SystemMessage.from(systemMessage.text() + SUMMARY_HEADER + summary)
+                    : systemMessage);
+        } else if (summary != null) {
+            messages.add(SystemMessage.from(SUMMARY_HEADER.strip() + "\n" + summary));
+        }
+        for (ConversationMessage prior : historyWindow.apply(stored)) {
+            messages.add(toChatMessage(prior));
+        }
+        if (current.userMessage != null) {
+            messages.add(current.userMessage);
+        }
+        return messages;
+    }
+
+    @Override
+    public void clear() {
+        store.delete(boundTurn().sessionId);
+    }
+
+    /**
+     * The user message without the output format instructions, if any
+     */
+    static String customerText(String text) {
+        int instructions = text.lastIndexOf(FORMAT_INSTRUCTIONS);
+        return instructions >= 0 ? text.substring(0, instructions) : text;
+    }
+
+    /**
+     * Stored turns without this call's own user message (the latest user turn with its text)
+     */
+    private static List<ConversationMessage> withoutCurrent(List<ConversationMessage> stored, String text) {
+        for (int i = stored.size() - 1; i >= 0; i--) {
+            ConversationMessage message = stored.get(i);
+            if (message.role() == ConversationMessage.Role.USER && message.text().equals(text)) {
+                List<ConversationMessage> prior = new ArrayList<>(stored);
+                prior.remove(i);
+                return prior;
+            }
+        }
+        return stored;
+    }
+
+    private Turn boundTurn() {
+        Turn current = turn.get();
+        if (current == null) {
+            throw new IllegalStateException("Chatbot agent called outside ConversationChatMemory.inSession");
+        }
+        return current;
+    }
+
+    private static ChatMessage toChatMessage(ConversationMessage message) {
+        return message.role() == ConversationMessage.Role.USER
+                ? UserMessage.from(message.text())
+                : AiMessage.from(message.text());
+    }
+
+    /** Prompt state of one agent call. */
+    private static final class Turn {
+
+        private final String sessionId;
+        private SystemMessage systemMessage;
+        private UserMessage userMessage;
+
+        private Turn(String sessionId) {
+            this.sessionId = sessionId;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.kyc.ai.conversation;
+
+import java.time.Instant;
+
+/**
+ * One turn of a chatbot conversation
+ */
+public record ConversationMessage(Role role, String text, Instant createdAt) {
+
+    public enum Role {
+        USER,
+        ASSISTANT
+    }
+
+    public static ConversationMessage user(String text) {
+        return new ConversationMessage(Role.USER, text, Instant.now());
+    }
+
+    public static ConversationMessage assistant(String text) {
+        return new ConversationMessage(Role.ASSISTANT, text, Instant.now());
+    }
+}
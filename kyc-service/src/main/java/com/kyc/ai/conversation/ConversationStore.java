@@ -0,0 +1,49 @@
+package com.kyc.ai.conversation;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Chatbot conversation storage.
+ * Each session keeps at most kyc.chat.conversation.max-messages messages
+ * (oldest dropped first) and expires after kyc.chat.conversation.idle-ttl
+ * without access. Select the implementation with kyc.chat.conversation.store:
+ * {@code memory} (per node) or {@code jdbc} (shared by all replicas).
+ */
+public interface ConversationStore {
+
+    /**
+     * Create the session for this owner if it does not exist yet, returning the session's actual owner
+     */
+    String open(String sessionId, String ownerId);
+
+    /**
+     * Append a message to an existing session, dropping the oldest message when full.
+     * Never creates a session: if it expired or was evicted since {@link #open}, the message is discarded
+     */
+    void append(String sessionId, ConversationMessage message);
+
+    /**
+     * Session with its messages; counts as an access for the idle TTL
+     */
+    Optional<Conversation> find(String sessionId);
+
+    /**
+     * Replace the session's running summary and drop the messages it now covers (created at or before {@code through})
+     */
+    void compact(String sessionId, String summary, Instant through);
+
+    void delete(String sessionId);
+
+    /**
+     * Delete every session owned by these users (GDPR erasure), returning the number removed per owner
+     */
+    Map<String, Integer> deleteByOwners(Collection<String> ownerIds);
+
+    default List<ConversationMessage> messages(String sessionId) {
+        return find(sessionId).map(Conversation::messages).orElse(List.of());
+    }
+}
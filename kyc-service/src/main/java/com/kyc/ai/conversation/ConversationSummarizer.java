@@ -0,0 +1,158 @@
+package com.kyc.ai.conversation;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rolling summary memory for long chatbot sessions.
+ * Once a session holds compact-after messages beyond the keep-recent newest
+ * ones, the older turns are folded into the session's running summary by a
+ * call to the summary model and removed from the store. This runs on a small
+ * background pool after the answer is stored, never on the request path; a
+ * session is compacted by one task at a time, and when the pool is busy the
+ * compaction simply waits for the session's next turn.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "kyc.chat.conversation.summary", name = "enabled", havingValue = "true")
+public class ConversationSummarizer implements DisposableBean {
+
+    private static final String INSTRUCTIONS = """
+            You maintain a running summary of a conversation between a customer and a KYC support assistant.
+            Merge the previous summary and the new turns into one updated summary of at most %d words.
+            Keep what later answers depend on: the customer's situation and goals, questions asked,
+            answers and instructions given, and anything still open. Drop greetings and repetition.
+            Do not add personal identifiers the customer did not need to share. Reply with the summary only.
+            """;
+
+    private final ConversationStore conversationStore;
+    private final ChatLanguageModel summaryModel;
+    private final MeterRegistry meterRegistry;
+    private final int keepRecent;
+    private final int compactAfter;
+    private final int maxWords;
+    private final ExecutorService executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ConversationSummarizer(ConversationStore conversationStore,
+            @Qualifier("summaryChatLanguageModel") ChatLanguageModel summaryModel,
+            @Value("${kyc.chat.conversation.summary.keep-recent:4}") int keepRecent,
+            @Value("${kyc.chat.conversation.summary.compact-after:6}") int compactAfter,
+            @Value("${kyc.chat.conversation.summary.max-words:150}") int maxWords,
+            @Value("${kyc.chat.conversation.summary.threads:2}") int threads,
+            @Value("${kyc.chat.conversation.summary.queue-capacity:256}") int queueCapacity,
+            @Value("${kyc.chat.conversation.max-messages:20}") int maxMessages,
+            MeterRegistry meterRegistry) {
+        this.conversationStore = conversationStore;
+        this.summaryModel = summaryModel;
+        this.meterRegistry = meterRegistry;
+        this.keepRecent = keepRecent;
+        this.compactAfter = compactAfter;
+        this.maxWords = maxWords;
+        if (keepRecent + compactAfter > maxMessages) {
+            log.warn("kyc.chat.conversation.summary keep-recent + compact-after ({}) exceeds max-messages ({}); "
+                    + "turns will be dropped before they are summarized", keepRecent + compactAfter, maxMessages);
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "kyc-chat-summary-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "kycChatSummaryExecutor");
+        log.info("Chat summary memory: keep {} recent messages, compact after {} more", keepRecent, compactAfter);
+    }
+
+    /**
+     * Queue compaction of the session if it has grown past the threshold
+     */
+    public void onAnswer(String sessionId) {
+        if (!inFlight.add(sessionId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    compact(sessionId);
+                } finally {
+                    inFlight.remove(sessionId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(sessionId);
+            meterRegistry.counter("kyc.chat.summary.rejected").increment();
+        }
+    }
+
+    private void compact(String sessionId) {
+        Conversation conversation = conversationStore.find(sessionId).orElse(null);
+        if (conversation == null || conversation.messages().size() < keepRecent + compactAfter) {
+            return;
+        }
+        List<ConversationMessage> messages = conversation.messages();
+        List<ConversationMessage> older = messages.subList(0, messages.size() - keepRecent);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            String summary = summaryModel.generate(prompt(conversation.summary(), older)).content().text();
+            if (summary == null || summary.isBlank()) {
+                outcome = "empty";
+                return;
+            }
+            conversationStore.compact(sessionId, summary.strip(), older.get(older.size() - 1).createdAt());
+            log.debug("Compacted {} chat messages into the summary of session {}", older.size(), sessionId);
+        } catch (Exception e) {
+            // The turns stay in the store; the next answer retries
+            outcome = "failure";
+            log.warn("Chat summary failed for session {}: {}", sessionId, e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("kyc.chat.summary")
+                    .description("Background compaction of chatbot turns into the running summary")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private List<ChatMessage> prompt(String previousSummary, List<ConversationMessage> turns) {
+        StringBuilder text = new StringBuilder("Previous summary:\n")
+                .append(previousSummary != null ? previousSummary : "(none)")
+                .append("\n\nNew turns:\n");
+        for (ConversationMessage turn : turns) {
+            text.append(turn.role() == ConversationMessage.Role.USER ? "Customer: " : "Assistant: ")
+                    .append(turn.text())
+                    .append('\n');
+        }
+        return List.of(SystemMessage.from(INSTRUCTIONS.formatted(maxWords)), UserMessage.from(text.toString()));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,171 @@
+package com.kyc.ai.conversation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Per-node conversation store.
+ * Sessions live in a Caffeine cache with idle expiry, weighed by the characters
+ * they hold so the total is capped at kyc.chat.conversation.max-memory-chars;
+ * least recently used sessions are evicted first when the cap is reached.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "kyc.chat.conversation", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryConversationStore implements ConversationStore {
+
+    /** Rough per-session and per-message overhead, in characters, on top of the text itself. */
+    private static final int SESSION_OVERHEAD = 128;
+    private static final int MESSAGE_OVERHEAD = 32;
+
+    private final int maxMessages;
+    private final Cache<String, Session> sessions;
+
+    public InMemoryConversationStore(
+            @Value("${kyc.chat.conversation.max-messages:20}") int maxMessages,
+            @Value("${kyc.chat.conversation.idle-ttl:PT2H}") Duration idleTtl,
+            @Value("${kyc.chat.conversation.max-memory-chars:50000000}") long maxMemoryChars,
+            MeterRegistry meterRegistry) {
+        this.maxMessages = maxMessages;
+        this.sessions = Caffeine.newBuilder()
+                .expireAfterAccess(idleTtl)
+                .maximumWeight(maxMemoryChars)
+                .weigher((String id, Session session) -> session.weight())
+                .build();
+
+        Gauge.builder("kyc.chat.conversations", sessions, Cache::estimatedSize)
+                .description("Chatbot sessions held in memory")
+                .register(meterRegistry);
+        log.info("In-memory conversation store: {} messages per session, idle TTL {}, cap {} chars",
+                maxMessages, idleTtl, maxMemoryChars);
+    }
+
+    @Override
+    public String open(String sessionId, String ownerId) {
+        return sessions.get(sessionId, id -> new Session(ownerId, Instant.now(), null, new MessageRing(maxMessages)))
+                .ownerId();
+    }
+
+    @Override
+    public void append(String sessionId, ConversationMessage message) {
+        // A fresh Session wrapper per append makes Caffeine re-weigh the entry
+        Session updated = sessions.asMap().computeIfPresent(sessionId, (id, session) -> {
+            session.ring().add(message);
+            return new Session(session.ownerId(), session.createdAt(), session.summary(), session.ring());
+        });
+        if (updated == null) {
+            log.debug("Session {} no longer exists, message not stored", sessionId);
+        }
+    }
+
+    @Override
+    public Optional<Conversation> find(String sessionId) {
+        Session session = sessions.getIfPresent(sessionId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Conversation(sessionId, session.ownerId(), session.createdAt(), session.summary(),
+                session.ring().toList()));
+    }
+
+    @Override
+    public void compact(String sessionId, String summary, Instant through) {
+        sessions.asMap().computeIfPresent(sessionId, (id, session) -> {
+            session.ring().removeThrough(through);
+            return new Session(session.ownerId(), session.createdAt(), summary, session.ring());
+        });
+    }
+
+    @Override
+    public void delete(String sessionId) {
+        sessions.invalidate(sessionId);
+    }
+
+    @Override
+    public Map<String, Integer> deleteByOwners(Collection<String> ownerIds) {
+        Set<String> owners = Set.copyOf(ownerIds);
+        Map<String, Integer> removed = new HashMap<>();
+        sessions.asMap().values().removeIf(session -> {
+            if (session.ownerId() == null || !owners.contains(session.ownerId())) {
+                return false;
+            }
+            removed.merge(session.ownerId(), 1, Integer::sum);
+            return true;
+        });
+        return removed;
+    }
+
+    private record Session(String ownerId, Instant createdAt, String summary, MessageRing ring) {
+        int weight() {
+            return SESSION_OVERHEAD + (summary != null ? summary.length() : 0) + ring.chars();
+        }
+    }
+
+    /**
+     * Fixed-capacity ring buffer of messages; the oldest is overwritten once full
+     */
+    private static final class MessageRing {
+
+        private final ConversationMessage[] slots;
+        private int head;
+        private int size;
+        private int chars;
+
+        private MessageRing(int capacity) {
+            this.slots = new ConversationMessage[capacity];
+        }
+
+        synchronized void add(ConversationMessage message) {
+            int tail = (head + size) % slots.length;
+            if (size == slots.length) {
+                chars -= weight(slots[head]);
+                head = (head + 1) % slots.length;
+            } else {
+                size++;
+            }
+            slots[tail] = message;
+            chars += weight(message);
+        }
+
+        synchronized void removeThrough(Instant through) {
+            while (size > 0 && !slots[head].createdAt().isAfter(through)) {
+                chars -= weight(slots[head]);
+                slots[head] = null;
+                head = (head + 1) % slots.length;
+                size--;
+            }
+        }
+
+        synchronized List<ConversationMessage> toList() {
+            List<ConversationMessage> messages = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                messages.add(slots[(head + i) % slots.length]);
+            }
+            return messages;
+        }
+
+        synchronized int chars() {
+            return chars;
+        }
+
+        private static int weight(ConversationMessage message) {
+            return MESSAGE_OVERHEAD + message.text().length();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.kyc.ai.conversation;
+
+import com.kyc.ai.service.GdprService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Conversation store in PostgreSQL, so any replica can serve any session.
+ * Message text is encrypted at rest with the GDPR key. The ring buffer is kept
+ * by trimming a session to its newest max-messages rows on every append; idle
+ * sessions and sessions beyond kyc.chat.conversation.max-sessions (least
+ * recently used first) are removed by a periodic sweep.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "kyc.chat.conversation", name = "store", havingValue = "jdbc")
+public class JdbcConversationStore implements ConversationStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GdprService gdprService;
+    private final int maxMessages;
+    private final Duration idleTtl;
+    private final int maxSessions;
+
+    public JdbcConversationStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            GdprService gdprService,
+            @Value("${kyc.chat.conversation.max-messages:20}") int maxMessages,
+            @Value("${kyc.chat.conversation.idle-ttl:PT2H}") Duration idleTtl,
+            @Value("${kyc.chat.conversation.max-sessions:100000}") int maxSessions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.gdprService = gdprService;
+        this.maxMessages = maxMessages;
+        this.idleTtl = idleTtl;
+        this.maxSessions = maxSessions;
+        log.info("JDBC conversation store: {} messages per session, idle TTL {}, cap {} sessions",
+                maxMessages, idleTtl, maxSessions);
+    }
+
+    @Override
+    public String open(String sessionId, String ownerId) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO chat_conversations (session_id, owner_id) VALUES (?, ?)
+                ON CONFLICT (session_id) DO UPDATE SET last_access_at = CURRENT_TIMESTAMP
+                RETURNING owner_id
+                """, String.class, sessionId, ownerId);
+    }
+
+    @Override
+    public void append(String sessionId, ConversationMessage message) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Locks the session row, so it cannot be deleted before the message is in
+            int touched = jdbcTemplate.update("""
+                    UPDATE chat_conversations SET last_access_at = CURRENT_TIMESTAMP WHERE session_id = ?
+                    """, sessionId);
+            if (touched == 0) {
+                log.debug("Session {} no longer exists, message not stored", sessionId);
+                return;
+            }
+            jdbcTemplate.update("""
+                    INSERT INTO chat_messages (session_id, role, content, created_at) VALUES (?, ?, ?, ?)
+                    """, sessionId, message.role().name(), gdprService.encrypt(message.text()),
+                    Timestamp.from(message.createdAt()));
+            // Keep only the newest maxMessages rows of the session
+            jdbcTemplate.update("""
+                    DELETE FROM chat_messages
+                    WHERE session_id = ?
+                      AND id <= (SELECT id FROM chat_messages WHERE session_id = ?
+                                 ORDER BY id DESC OFFSET ? LIMIT 1)
+                    """, sessionId, sessionId, maxMessages);
+        });
+    }
+
+    @Override
+    public Optional<Conversation> find(String sessionId) {
+        List<Conversation> sessions = jdbcTemplate.query("""
+                UPDATE chat_conversations SET last_access_at = CURRENT_TIMESTAMP
+                WHERE session_id = ? AND last_access_at >= ?
+                RETURNING owner_id, created_at, summary
+                """,
+                (rs, row) -> new Conversation(sessionId, rs.getString("owner_id"),
+                        rs.getTimestamp("created_at").toInstant(),
+                        rs.getString("summary") != null ? gdprService.decrypt(rs.getString("summary")) : null,
+                        null),
+                sessionId, Timestamp.from(Instant.now().minus(idleTtl)));
+        if (sessions.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<ConversationMessage> messages = jdbcTemplate.query("""
+                SELECT role, content, created_at FROM chat_messages WHERE session_id = ? ORDER BY id
+                """,
+                (rs, row) -> new ConversationMessage(
+                        ConversationMessage.Role.valueOf(rs.getString("role")),
+                        rs.getString("content") != null ? gdprService.decrypt(rs.getString("content")) : "",
+                        rs.getTimestamp("created_at").toInstant()),
+                sessionId);
+        Conversation session = sessions.get(0);
+        return Optional.of(new Conversation(sessionId, session.ownerId(), session.createdAt(), session.summary(),
+                messages));
+    }
+
+    @Override
+    public void compact(String sessionId, String summary, Instant through) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE chat_conversations SET summary = ? WHERE session_id = ?",
+                    gdprService.encrypt(summary), sessionId);
+            jdbcTemplate.update("DELETE FROM chat_messages WHERE session_id = ? AND created_at <= ?",
+                    sessionId, Timestamp.from(through));
+        });
+    }
+
+    @Override
+    public void delete(String sessionId) {
+        jdbcTemplate.update("DELETE FROM chat_conversations WHERE session_id = ?", sessionId);
+    }
+
+    @Override
+    public Map<String, Integer> deleteByOwners(Collection<String> ownerIds) {
+        Map<String, Integer> removed = new HashMap<>();
+        // Messages go with their session (ON DELETE CASCADE)
+        jdbcTemplate.query("DELETE FROM chat_conversations WHERE owner_id = ANY(?) RETURNING owner_id",
+                statement -> statement.setArray(1,
+                        statement.getConnection().createArrayOf("varchar", ownerIds.toArray())),
+                (RowCallbackHandler) rs -> removed.merge(rs.getString("owner_id"), 1, Integer::sum));
+        return removed;
+    }
+
+    /**
+     * Remove idle sessions and the least recently used ones beyond the session cap
+     */
+    @Scheduled(fixedDelayString = "${kyc.chat.conversation.eviction-interval:PT5M}")
+    public void evict() {
+        int expired = jdbcTemplate.update("DELETE FROM chat_conversations WHERE last_access_at < ?",
+                Timestamp.from(Instant.now().minus(idleTtl)));
+        int overCap = jdbcTemplate.update("""
+                DELETE FROM chat_conversations WHERE session_id IN (
+                    SELECT session_id FROM chat_conversations ORDER BY last_access_at DESC OFFSET ?)
+                """, maxSessions);
+        if (expired + overCap > 0) {
+            log.info("Evicted {} idle and {} over-cap chat sessions", expired, overCap);
+        }
+    }
+}
@@ -36,6 +36,9 @@ public class KycDocument {
     @Column(name = "storage_path")
     private String storagePath;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "metadata", columnDefinition = "jsonb")
     @JdbcTypeCode(SqlTypes.JSON)
     private String metadata;
@@ -0,0 +1,7 @@
+package com.kyc.ai.exception;
+
+public class NotFoundException extends RuntimeException {
+    public NotFoundException(String exception) {
+    super(exception);
+    }
+}
@@ -0,0 +1,7 @@
+package com.kyc.ai.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String exception) {
+    super(exception);
+    }
+}
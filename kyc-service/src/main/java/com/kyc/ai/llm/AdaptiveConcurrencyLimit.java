@@ -0,0 +1,105 @@
+package com.kyc.ai.llm;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to measured latency (gradient style).
+ * A slow-moving average of call latency is the baseline; each sample moves
+ * the limit by the ratio baseline / sample, so the limit shrinks as soon as
+ * the model server starts queueing and grows back once latency recovers.
+ * Timeouts and errors cut the limit multiplicatively (AIMD backoff).
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double BASELINE_SMOOTHING = 0.05;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    // Tolerate latency up to 2x the baseline before shrinking hard
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile double limit;
+    private double baselineNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Reserve a slot, or return false if the limit is reached
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a slot after a successful call and feed its latency back
+     */
+    public void onSuccess(long latencyNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            baselineNanos = baselineNanos == 0
+                    ? latencyNanos
+                    : baselineNanos * (1 - BASELINE_SMOOTHING) + latencyNanos * BASELINE_SMOOTHING;
+
+            // Don't grow a limit the caller isn't using
+            if (inFlightAtCompletion < limit / 2) {
+                return;
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, baselineNanos / latencyNanos));
+            double queueAllowance = Math.sqrt(limit);
+            double target = limit * gradient + queueAllowance;
+            limit = clamp(limit * (1 - LIMIT_SMOOTHING) + target * LIMIT_SMOOTHING);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release a slot after a failed or timed-out call and back off
+     */
+    public void onFailure() {
+        inFlight.decrementAndGet();
+        lock.lock();
+        try {
+            limit = clamp(limit * BACKOFF_RATIO);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release a slot without feeding back a sample (e.g. a client-side error)
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
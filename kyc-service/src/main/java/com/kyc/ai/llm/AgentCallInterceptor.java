@@ -0,0 +1,36 @@
+package com.kyc.ai.llm;
+
+import dev.langchain4j.service.TokenStream;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.core.Ordered;
+
+import java.lang.reflect.Method;
+
+/**
+ * Interceptor applied to every LangChain4j {@code @AiService} agent proxy.
+ * Implementations are Spring beans; {@link AgentProxyPostProcessor} chains
+ * them around each agent in {@link #getOrder()} order (lowest runs first).
+ */
+public interface AgentCallInterceptor extends MethodInterceptor, Ordered {
+
+    /**
+     * Agent name used for metrics and per-agent configuration, e.g. "DocumentAgent"
+     */
+    static String agentName(Method method) {
+        return method.getDeclaringClass().getSimpleName();
+    }
+
+    /**
+     * Whether the invocation is an actual agent call rather than Object/default plumbing
+     */
+    static boolean isAgentCall(Method method) {
+        return method.getDeclaringClass() != Object.class && !method.isDefault();
+    }
+
+    /**
+     * Whether the agent method returns a {@link TokenStream} that only calls the model once started
+     */
+    static boolean isStreaming(Method method) {
+        return TokenStream.class.isAssignableFrom(method.getReturnType());
+    }
+}
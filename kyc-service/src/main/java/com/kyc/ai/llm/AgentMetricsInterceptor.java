@@ -0,0 +1,205 @@
+package com.kyc.ai.llm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.gson.JsonParseException;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.listener.ChatModelListener;
+import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import dev.langchain4j.service.TokenStream;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per agent method metrics for calls that reach the model (cache hits and
+ * bulkhead rejections are counted by their own interceptors):
+ * <ul>
+ *   <li>kyc.llm.agent.latency - call latency histogram, tagged with the outcome
+ *       (success, timeout, parse_error, error)</li>
+ *   <li>kyc.llm.agent.tokens - prompt and completion tokens as reported by Ollama</li>
+ *   <li>kyc.llm.agent.tokens_per_second - completion tokens over call latency</li>
+ *   <li>kyc.llm.agent.in_flight - calls currently running</li>
+ * </ul>
+ * Token usage is not returned by the agents themselves; it is collected as a
+ * {@link ChatModelListener} on the chat model and added to the agent call in
+ * progress, and streaming calls take it from the final response.
+ */
+@Component
+public class AgentMetricsInterceptor implements AgentCallInterceptor, ChatModelListener {
+
+    public static final int ORDER = 300;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    // Inheritable so model calls the chat model forks onto other threads (hedged requests) still count
+    private final ThreadLocal<AtomicReference<TokenUsage>> currentUsage = new InheritableThreadLocal<>();
+
+    public AgentMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Add the token usage of one model call to the agent call it belongs to, if any
+     */
+    @Override
+    public void onResponse(ChatModelResponseContext context) {
+        AtomicReference<TokenUsage> usage = currentUsage.get();
+        TokenUsage reported = context.response().tokenUsage();
+        if (usage != null && reported != null) {
+            usage.accumulateAndGet(reported, (total, next) -> total == null ? next : total.add(next));
+        }
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (!AgentCallInterceptor.isAgentCall(method)) {
+            return invocation.proceed();
+        }
+        String agent = AgentCallInterceptor.agentName(method);
+
+        if (AgentCallInterceptor.isStreaming(method)) {
+            return new MeteredTokenStream((TokenStream) invocation.proceed(), agent, method.getName());
+        }
+
+        AtomicInteger running = inFlight(agent, method.getName());
+        AtomicReference<TokenUsage> previous = currentUsage.get();
+        AtomicReference<TokenUsage> usage = new AtomicReference<>();
+        currentUsage.set(usage);
+        running.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            record(agent, method.getName(), System.nanoTime() - start, usage.get(), null);
+            return result;
+        } catch (Throwable t) {
+            record(agent, method.getName(), System.nanoTime() - start, usage.get(), t);
+            throw t;
+        } finally {
+            running.decrementAndGet();
+            currentUsage.set(previous);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private void record(String agent, String method, long nanos, TokenUsage usage, Throwable failure) {
+        Timer.builder("kyc.llm.agent.latency")
+                .description("Agent calls that reached the model")
+                .tag("agent", agent)
+                .tag("method", method)
+                .tag("outcome", outcome(failure))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(100))
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (usage == null) {
+            return;
+        }
+        if (usage.inputTokenCount() != null) {
+            tokens(agent, method, "prompt").record(usage.inputTokenCount());
+        }
+        if (usage.outputTokenCount() != null) {
+            tokens(agent, method, "completion").record(usage.outputTokenCount());
+            if (nanos > 0 && failure == null) {
+                DistributionSummary.builder("kyc.llm.agent.tokens_per_second")
+                        .description("Completion tokens per second of call latency")
+                        .tag("agent", agent)
+                        .tag("method", method)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(1.0)
+                        .maximumExpectedValue(500.0)
+                        .register(meterRegistry)
+                        .record(usage.outputTokenCount() * 1_000_000_000.0 / nanos);
+            }
+        }
+    }
+
+    private DistributionSummary tokens(String agent, String method, String type) {
+        return DistributionSummary.builder("kyc.llm.agent.tokens")
+                .description("Tokens per agent call as reported by the model server")
+                .baseUnit("tokens")
+                .tag("agent", agent)
+                .tag("method", method)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private AtomicInteger inFlight(String agent, String method) {
+        return inFlight.computeIfAbsent(agent + "." + method, key -> {
+            AtomicInteger running = new AtomicInteger();
+            Gauge.builder("kyc.llm.agent.in_flight", running, AtomicInteger::get)
+                    .description("Agent calls currently waiting on the model")
+                    .tag("agent", agent)
+                    .tag("method", method)
+                    .register(meterRegistry);
+            return running;
+        });
+    }
+
+    /**
+     * Timeouts are I/O or future timeouts; parse errors are model output that does not map onto the result type.
+     * LangChain4j parses POJO replies with Gson, our own parsing uses Jackson.
+     */
+    private static String outcome(Throwable failure) {
+        if (failure == null) {
+            return "success";
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedIOException || cause instanceof TimeoutException) {
+                return "timeout";
+            }
+            if (cause instanceof JsonParseException || cause instanceof JsonProcessingException) {
+                return "parse_error";
+            }
+        }
+        return "error";
+    }
+
+    /**
+     * Token stream that measures from {@link #start()} until the stream completes or fails
+     */
+    private final class MeteredTokenStream extends ForwardingTokenStream {
+
+        private final String agent;
+        private final String method;
+        private final AtomicInteger running;
+
+        private MeteredTokenStream(TokenStream delegate, String agent, String method) {
+            super(delegate);
+            this.agent = agent;
+            this.method = method;
+            this.running = inFlight(agent, method);
+        }
+
+        @Override
+        protected void onStart() {
+            running.incrementAndGet();
+        }
+
+        @Override
+        protected void onFinish(Response<AiMessage> response, long nanos, Throwable failure) {
+            running.decrementAndGet();
+            record(agent, method, nanos, response != null ? response.tokenUsage() : null, failure);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.kyc.ai.llm;
+
+import dev.langchain4j.service.spring.AiService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Wraps the LangChain4j {@code @AiService} agent beans in a proxy that runs
+ * every {@link AgentCallInterceptor} bean around each agent call.
+ * Interceptors are resolved lazily so this post-processor does not force
+ * early initialization of their dependencies.
+ */
+@Slf4j
+@Component
+public class AgentProxyPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<AgentCallInterceptor> interceptors;
+
+    public AgentProxyPostProcessor(ObjectProvider<AgentCallInterceptor> interceptors) {
+        this.interceptors = interceptors;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Optional<Class<?>> agentInterface = Arrays.stream(bean.getClass().getInterfaces())
+                .filter(type -> type.isAnnotationPresent(AiService.class))
+                .findFirst();
+        if (agentInterface.isEmpty()) {
+            return bean;
+        }
+
+        List<AgentCallInterceptor> chain = interceptors.orderedStream().toList();
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setInterfaces(agentInterface.get());
+        chain.forEach(proxyFactory::addAdvice);
+
+        log.info("Applying {} interceptors to agent {}", chain.size(), agentInterface.get().getSimpleName());
+        return proxyFactory.getProxy(agentInterface.get().getClassLoader());
+    }
+}
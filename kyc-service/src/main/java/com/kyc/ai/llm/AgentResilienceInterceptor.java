@@ -0,0 +1,197 @@
+package com.kyc.ai.llm;
+
+import com.kyc.ai.exception.ServiceUnavailableException;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.service.TokenStream;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-agent bulkhead and circuit breaker around Ollama calls.
+ * Each agent gets its own adaptive concurrency limit, so a slow model can only
+ * tie up that agent's share of request threads; excess calls and calls made
+ * while the breaker is open fail fast with 503 instead of queueing for the
+ * full model timeout.
+ *
+ * Defaults live under kyc.llm.resilience.*, overridable per agent under
+ * kyc.llm.resilience.agents.&lt;AgentName&gt;.*.
+ */
+@Slf4j
+@Component
+public class AgentResilienceInterceptor implements AgentCallInterceptor {
+
+    public static final int ORDER = 200;
+
+    private static final String PREFIX = "kyc.llm.resilience.";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+
+    public AgentResilienceInterceptor(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!AgentCallInterceptor.isAgentCall(invocation.getMethod())
+                || !property("", "enabled", Boolean.class, true)) {
+            return invocation.proceed();
+        }
+
+        String agent = AgentCallInterceptor.agentName(invocation.getMethod());
+        Guard guard = guards.computeIfAbsent(agent, this::newGuard);
+
+        if (AgentCallInterceptor.isStreaming(invocation.getMethod())) {
+            // The model is only called once the stream starts; guard it from start to completion
+            return new GuardedTokenStream((TokenStream) invocation.proceed(), agent, guard);
+        }
+
+        acquire(agent, guard);
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            release(agent, guard, System.nanoTime() - start, null);
+            return result;
+        } catch (Throwable t) {
+            release(agent, guard, System.nanoTime() - start, t);
+            throw t;
+        }
+    }
+
+    private void acquire(String agent, Guard guard) {
+        if (!guard.limit.tryAcquire()) {
+            guard.bulkheadRejections.increment();
+            throw new ServiceUnavailableException(agent + " is at its concurrency limit, please retry shortly");
+        }
+        if (!guard.breaker.tryAcquire()) {
+            guard.limit.onIgnore();
+            guard.circuitRejections.increment();
+            throw new ServiceUnavailableException(agent + " is temporarily unavailable, please retry shortly");
+        }
+    }
+
+    private void release(String agent, Guard guard, long latency, Throwable failure) {
+        if (failure == null) {
+            guard.limit.onSuccess(latency);
+            guard.breaker.record(false, latency);
+        } else if (isOverload(failure)) {
+            guard.limit.onFailure();
+            guard.breaker.record(true, latency);
+            LlmCircuitBreaker.State state = guard.breaker.getState();
+            if (state == LlmCircuitBreaker.State.OPEN) {
+                log.warn("Circuit breaker for {} is OPEN after: {}", agent, failure.getMessage());
+            }
+        } else {
+            // e.g. unparseable model output: not a capacity signal
+            guard.limit.onIgnore();
+            guard.breaker.record(false, latency);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Timeouts and connection failures indicate a saturated or unreachable model server
+     */
+    private static boolean isOverload(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Guard newGuard(String agent) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                property(agent, "initial-limit", Integer.class, 8),
+                property(agent, "min-limit", Integer.class, 1),
+                property(agent, "max-limit", Integer.class, 16));
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(
+                property(agent, "circuit.window-size", Integer.class, 20),
+                property(agent, "circuit.minimum-calls", Integer.class, 10),
+                property(agent, "circuit.failure-rate", Double.class, 0.5),
+                property(agent, "circuit.slow-call-threshold", Duration.class, Duration.ofSeconds(60)),
+                property(agent, "circuit.open-duration", Duration.class, Duration.ofSeconds(30)),
+                property(agent, "circuit.half-open-calls", Integer.class, 2));
+
+        Gauge.builder("kyc.llm.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Adaptive concurrency limit per agent")
+                .tag("agent", agent)
+                .register(meterRegistry);
+        Gauge.builder("kyc.llm.concurrency.in_flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Agent calls currently in flight")
+                .tag("agent", agent)
+                .register(meterRegistry);
+        Gauge.builder("kyc.llm.circuit.state", breaker, b -> b.getState().ordinal())
+                .description("Circuit breaker state (0=closed, 1=half-open, 2=open)")
+                .tag("agent", agent)
+                .register(meterRegistry);
+
+        log.info("Agent {} guarded with concurrency limit {} (max {})",
+                agent, limit.getLimit(), property(agent, "max-limit", Integer.class, 16));
+        return new Guard(limit, breaker,
+                rejectionCounter(agent, "bulkhead"),
+                rejectionCounter(agent, "circuit_open"));
+    }
+
+    private Counter rejectionCounter(String agent, String reason) {
+        return Counter.builder("kyc.llm.rejected")
+                .description("Agent calls rejected without reaching the model server")
+                .tag("agent", agent)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private <T> T property(String agent, String key, Class<T> type, T defaultValue) {
+        T fallback = environment.getProperty(PREFIX + key, type, defaultValue);
+        return agent.isEmpty()
+                ? fallback
+                : environment.getProperty(PREFIX + "agents." + agent + "." + key, type, fallback);
+    }
+
+    /**
+     * Token stream that holds a bulkhead permit from {@link #start()} until the stream completes or fails
+     */
+    private final class GuardedTokenStream extends ForwardingTokenStream {
+
+        private final String agent;
+        private final Guard guard;
+
+        private GuardedTokenStream(TokenStream delegate, String agent, Guard guard) {
+            super(delegate);
+            this.agent = agent;
+            this.guard = guard;
+        }
+
+        @Override
+        protected void onStart() {
+            acquire(agent, guard);
+        }
+
+        @Override
+        protected void onFinish(Response<AiMessage> response, long nanos, Throwable failure) {
+            release(agent, guard, nanos, failure);
+        }
+    }
+
+    private record Guard(AdaptiveConcurrencyLimit limit, LlmCircuitBreaker breaker,
+            Counter bulkheadRejections, Counter circuitRejections) {
+    }
+}
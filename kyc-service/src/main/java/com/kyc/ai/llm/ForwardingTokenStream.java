@@ -0,0 +1,103 @@
+package com.kyc.ai.llm;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.service.TokenStream;
+import dev.langchain4j.service.tool.ToolExecution;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Token stream that forwards to a delegate and brackets the streamed call for
+ * interceptors: {@link #onStart()} runs when the stream is started and may
+ * reject it by throwing; {@link #onFinish} runs exactly once when the stream
+ * completes, fails or cannot be started, before the caller's own handler.
+ */
+abstract class ForwardingTokenStream implements TokenStream {
+
+    private final TokenStream delegate;
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private Consumer<Response<AiMessage>> completeHandler = response -> {
+    };
+    private Consumer<Throwable> errorHandler;
+
+    protected ForwardingTokenStream(TokenStream delegate) {
+        this.delegate = delegate;
+    }
+
+    protected abstract void onStart();
+
+    /**
+     * @param response the final response, or null when the stream failed
+     * @param nanos    time since {@link #start()}
+     * @param failure  the error, or null on completion
+     */
+    protected abstract void onFinish(Response<AiMessage> response, long nanos, Throwable failure);
+
+    @Override
+    public TokenStream onNext(Consumer<String> tokenHandler) {
+        delegate.onNext(tokenHandler);
+        return this;
+    }
+
+    @Override
+    public TokenStream onRetrieved(Consumer<List<Content>> contentHandler) {
+        delegate.onRetrieved(contentHandler);
+        return this;
+    }
+
+    @Override
+    public TokenStream onToolExecuted(Consumer<ToolExecution> toolExecuteHandler) {
+        delegate.onToolExecuted(toolExecuteHandler);
+        return this;
+    }
+
+    @Override
+    public TokenStream onComplete(Consumer<Response<AiMessage>> completionHandler) {
+        this.completeHandler = completionHandler;
+        return this;
+    }
+
+    @Override
+    public TokenStream onError(Consumer<Throwable> errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    @Override
+    public TokenStream ignoreErrors() {
+        this.errorHandler = null;
+        return this;
+    }
+
+    @Override
+    public void start() {
+        onStart();
+        long start = System.nanoTime();
+        delegate.onComplete(response -> {
+            finish(response, System.nanoTime() - start, null);
+            completeHandler.accept(response);
+        });
+        delegate.onError(error -> {
+            finish(null, System.nanoTime() - start, error);
+            if (errorHandler != null) {
+                errorHandler.accept(error);
+            }
+        });
+        try {
+            delegate.start();
+        } catch (RuntimeException e) {
+            finish(null, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    private void finish(Response<AiMessage> response, long nanos, Throwable failure) {
+        if (finished.compareAndSet(false, true)) {
+            onFinish(response, nanos, failure);
+        }
+    }
+}
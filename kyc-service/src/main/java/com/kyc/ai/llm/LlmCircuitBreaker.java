@@ -0,0 +1,128 @@
+package com.kyc.ai.llm;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Count-based circuit breaker for one agent.
+ * Trips OPEN when the failure rate (errors and calls slower than the slow-call
+ * threshold) over the last window of calls reaches the configured rate, fails
+ * fast while OPEN, then lets a few trial calls through in HALF_OPEN to decide
+ * whether to close again.
+ */
+public class LlmCircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final boolean[] window;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int windowIndex;
+    private int recorded;
+    private int failures;
+
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public LlmCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+            Duration slowCallThreshold, Duration openDuration, int halfOpenCalls) {
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.window = new boolean[windowSize];
+    }
+
+    /**
+     * Whether a call may proceed right now
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits == 0) {
+                    return false;
+                }
+                halfOpenPermits--;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record the outcome of a permitted call
+     */
+    public void record(boolean error, long latencyNanos) {
+        boolean failed = error || latencyNanos >= slowCallNanos;
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                if (failed) {
+                    open();
+                } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                    close();
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                return;
+            }
+
+            if (recorded == windowSize && window[windowIndex]) {
+                failures--;
+            }
+            window[windowIndex] = failed;
+            if (failed) {
+                failures++;
+            }
+            windowIndex = (windowIndex + 1) % windowSize;
+            recorded = Math.min(recorded + 1, windowSize);
+
+            if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+                open();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        Arrays.fill(window, false);
+        windowIndex = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,202 @@
+package com.kyc.ai.llm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import dev.langchain4j.service.MemoryId;
+import dev.langchain4j.service.V;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Response cache in front of the agent proxies.
+ * The key is a SHA-256 of the agent method and its template variables, with
+ * whitespace in text variables collapsed. The pseudonymized customer
+ * identifier stays in the key, so an answer produced for one customer is never
+ * served for another customer's document. Concurrent identical calls share one
+ * in-flight request (single-flight); failures are never cached.
+ *
+ * Each entry remembers the pseudonymized customer it belongs to, so a GDPR
+ * erasure can evict everything derived from that customer's data.
+ * Methods with a {@code @MemoryId} parameter are never cached because the
+ * call also updates conversation memory, and streaming methods are passed
+ * through untouched.
+ */
+@Slf4j
+@Component
+public class LlmResponseCacheInterceptor implements AgentCallInterceptor {
+
+    public static final int ORDER = 100;
+
+    private static final String PREFIX = "kyc.llm.cache.";
+    private static final Set<String> SUBJECT_VARIABLES = Set.of("customerId", "customerRef");
+
+    private final Environment environment;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AsyncCache<CacheKey, Object>> caches = new ConcurrentHashMap<>();
+    private final Map<CacheKey, Set<String>> subjects = new ConcurrentHashMap<>();
+
+    public LlmResponseCacheInterceptor(Environment environment, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    private record CacheKey(String agent, String method, String hash) {
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        String agent = AgentCallInterceptor.agentName(method);
+        if (!AgentCallInterceptor.isAgentCall(method) || AgentCallInterceptor.isStreaming(method)
+                || hasMemoryId(method)
+                || !property(agent, "enabled", Boolean.class, true)) {
+            return invocation.proceed();
+        }
+
+        Map<String, Object> variables = new TreeMap<>();
+        String subject = null;
+        Parameter[] parameters = method.getParameters();
+        Object[] arguments = invocation.getArguments();
+        for (int i = 0; i < parameters.length; i++) {
+            V v = parameters[i].getAnnotation(V.class);
+            String name = v != null ? v.value() : parameters[i].getName();
+            if (SUBJECT_VARIABLES.contains(name) && arguments[i] != null) {
+                subject = arguments[i].toString();
+            }
+            variables.put(name, normalize(arguments[i]));
+        }
+
+        CacheKey key = new CacheKey(agent, method.getName(), hash(variables));
+        AsyncCache<CacheKey, Object> cache = caches.computeIfAbsent(agent, this::newCache);
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = cache.asMap().putIfAbsent(key, mine);
+        if (subject != null) {
+            subjects.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subject);
+        }
+        if (existing != null) {
+            count(agent, existing.isDone() ? "hit" : "shared");
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                // The shared call failed; surface the same error to every waiter
+                throw e.getCause() != null ? e.getCause() : e;
+            }
+        }
+
+        count(agent, "miss");
+        try {
+            Object result = invocation.proceed();
+            mine.complete(result);
+            return result;
+        } catch (Throwable t) {
+            cache.asMap().remove(key, mine);
+            mine.completeExceptionally(t);
+            throw t;
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Drop every cached response that was produced for any of these pseudonymized customers
+     */
+    public void evictSubjects(Set<String> pseudonymizedCustomerIds) {
+        subjects.forEach((key, served) -> {
+            if (served.stream().anyMatch(pseudonymizedCustomerIds::contains)) {
+                AsyncCache<CacheKey, Object> cache = caches.get(key.agent());
+                if (cache != null) {
+                    cache.synchronous().invalidate(key);
+                }
+                subjects.remove(key);
+            }
+        });
+    }
+
+    private AsyncCache<CacheKey, Object> newCache(String agent) {
+        Duration ttl = property(agent, "ttl", Duration.class, Duration.ofHours(1));
+        long maxEntries = property(agent, "max-entries", Long.class, 1000L);
+        AsyncCache<CacheKey, Object> cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .removalListener((CacheKey key, Object value, RemovalCause cause) -> forgetSubjects(key))
+                .buildAsync();
+
+        Gauge.builder("kyc.llm.cache.size", cache, c -> c.synchronous().estimatedSize())
+                .description("Cached agent responses")
+                .tag("agent", agent)
+                .register(meterRegistry);
+        log.info("LLM response cache for {}: ttl {}, max {} entries", agent, ttl, maxEntries);
+        return cache;
+    }
+
+    /**
+     * Removal notifications are asynchronous; keep the subjects if the key was re-populated meanwhile
+     */
+    private void forgetSubjects(CacheKey key) {
+        AsyncCache<CacheKey, Object> cache = caches.get(key.agent());
+        if (cache == null || !cache.asMap().containsKey(key)) {
+            subjects.remove(key);
+        }
+    }
+
+    private void count(String agent, String result) {
+        meterRegistry.counter("kyc.llm.cache.requests", "agent", agent, "result", result).increment();
+    }
+
+    private static boolean hasMemoryId(Method method) {
+        return Arrays.stream(method.getParameters()).anyMatch(p -> p.isAnnotationPresent(MemoryId.class));
+    }
+
+    private static Object normalize(Object value) {
+        if (value instanceof String text) {
+            return text.strip().replaceAll("\\s+", " ");
+        }
+        if (value instanceof List<?> list) {
+            return list.stream().map(LlmResponseCacheInterceptor::normalize).toList();
+        }
+        return value;
+    }
+
+    private String hash(Map<String, Object> variables) throws JsonProcessingException {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(variables));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private <T> T property(String agent, String key, Class<T> type, T defaultValue) {
+        T fallback = environment.getProperty(PREFIX + key, type, defaultValue);
+        return environment.getProperty(PREFIX + "agents." + agent + "." + key, type, fallback);
+    }
+}
@@ -0,0 +1,243 @@
+package com.kyc.ai.llm;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Chat model that spreads calls over the {@link OllamaEndpointPool}.
+ * Each call goes to the least-loaded endpoint; a connection failure is
+ * retried once on another endpoint. With hedging enabled, a call still
+ * running after the configured latency percentile is duplicated on a
+ * second endpoint and whichever answers first wins. The percentile is taken
+ * per prompt class (see {@link #promptClass}), so long document and risk
+ * generations don't push the delay of short chat calls out of reach. A
+ * connection failure before the hedge is due fails over as without hedging.
+ * The losing attempt is not aborted - a blocking HTTP call inside the Ollama
+ * client cannot be cancelled from here - so it runs to completion and keeps
+ * counting as in-flight on its endpoint, which steers new calls away from it.
+ */
+@Slf4j
+public class LoadBalancedChatModel implements ChatLanguageModel, DisposableBean {
+
+    /** Settings for hedged requests; disabled when {@code enabled} is false. */
+    public record Hedging(boolean enabled, double percentile, Duration minDelay, int minSamples) {
+    }
+
+    private static final int MAX_PROMPT_CLASS_LENGTH = 120;
+
+    private final OllamaEndpointPool pool;
+    private final Map<OllamaEndpoint, ChatLanguageModel> models = new LinkedHashMap<>();
+    private final Hedging hedging;
+    private final MeterRegistry meterRegistry;
+    // Hedged calls only wait on sockets, so virtual threads are the natural fit
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LoadBalancedChatModel(OllamaEndpointPool pool, Function<String, ChatLanguageModel> factory,
+            Hedging hedging, MeterRegistry meterRegistry) {
+        this.pool = pool;
+        this.hedging = hedging;
+        this.meterRegistry = meterRegistry;
+        pool.getEndpoints().forEach(endpoint -> models.put(endpoint, factory.apply(endpoint.getBaseUrl())));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages) {
+        return call(promptClass(messages), model -> model.generate(messages));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications) {
+        return call(promptClass(messages), model -> model.generate(messages, toolSpecifications));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, ToolSpecification toolSpecification) {
+        return call(promptClass(messages), model -> model.generate(messages, toolSpecification));
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        return call(promptClass(chatRequest.messages()), model -> model.chat(chatRequest));
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return models.values().iterator().next().supportedCapabilities();
+    }
+
+    /**
+     * Latency class of a request: the first line of its system message, which
+     * names the agent, so every agent prompt gets its own hedge delay
+     */
+    static String promptClass(List<ChatMessage> messages) {
+        for (ChatMessage message : messages) {
+            if (message instanceof SystemMessage system && system.text() != null) {
+                String text = system.text().strip();
+                int lineEnd = text.indexOf('\n');
+                String firstLine = lineEnd >= 0 ? text.substring(0, lineEnd) : text;
+                return firstLine.length() > MAX_PROMPT_CLASS_LENGTH
+                        ? firstLine.substring(0, MAX_PROMPT_CLASS_LENGTH)
+                        : firstLine;
+            }
+        }
+        return "";
+    }
+
+    private <T> T call(String promptClass, Function<ChatLanguageModel, T> request) {
+        Duration hedgeDelay = hedgeDelay(promptClass);
+        return hedgeDelay == null
+                ? callWithFailover(promptClass, request)
+                : callHedged(promptClass, request, hedgeDelay);
+    }
+
+    private Duration hedgeDelay(String promptClass) {
+        if (!hedging.enabled() || pool.size() < 2) {
+            return null;
+        }
+        Duration percentile = pool.chatLatencyPercentile(promptClass, hedging.percentile(), hedging.minSamples());
+        if (percentile == null) {
+            return null;
+        }
+        return percentile.compareTo(hedging.minDelay()) > 0 ? percentile : hedging.minDelay();
+    }
+
+    private <T> T callWithFailover(String promptClass, Function<ChatLanguageModel, T> request) {
+        OllamaEndpoint first = pool.select(List.of());
+        try {
+            return callOn(first, promptClass, request);
+        } catch (RuntimeException e) {
+            if (pool.size() < 2 || !OllamaEndpointPool.isConnectFailure(e)) {
+                throw e;
+            }
+            OllamaEndpoint second = pool.select(List.of(first));
+            log.warn("Ollama endpoint {} unreachable, retrying on {}", first.getBaseUrl(), second.getBaseUrl());
+            return callOn(second, promptClass, request);
+        }
+    }
+
+    private <T> T callHedged(String promptClass, Function<ChatLanguageModel, T> request, Duration hedgeDelay) {
+        CompletionService<T> completion = new ExecutorCompletionService<>(hedgeExecutor);
+        List<Future<T>> futures = new ArrayList<>(2);
+        OllamaEndpoint primary = pool.select(List.of());
+        futures.add(completion.submit(attempt(primary, promptClass, request)));
+
+        try {
+            Future<T> done = completion.poll(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS);
+            if (done != null) {
+                try {
+                    return unwrap(done);
+                } catch (RuntimeException e) {
+                    // Failed before the hedge was due: fail over like an unhedged call
+                    if (!OllamaEndpointPool.isConnectFailure(e)) {
+                        throw e;
+                    }
+                    OllamaEndpoint second = pool.select(List.of(primary));
+                    log.warn("Ollama endpoint {} unreachable, retrying on {}", primary.getBaseUrl(),
+                            second.getBaseUrl());
+                    return callOn(second, promptClass, request);
+                }
+            }
+
+            OllamaEndpoint secondary = pool.select(List.of(primary));
+            futures.add(completion.submit(attempt(secondary, promptClass, request)));
+            meterRegistry.counter("kyc.llm.hedged", "outcome", "sent").increment();
+
+            // First successful answer wins; only fail if both attempts fail
+            RuntimeException failure = null;
+            for (int i = 0; i < futures.size(); i++) {
+                Future<T> next = completion.take();
+                try {
+                    T result = unwrap(next);
+                    meterRegistry.counter("kyc.llm.hedged", "outcome",
+                            next == futures.get(0) ? "primary_won" : "hedge_won").increment();
+                    return result;
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the model", e);
+        }
+    }
+
+    /**
+     * A hedged attempt, counted as in-flight on its endpoint from the moment
+     * it is routed until the HTTP call returns, whether or not it wins
+     */
+    private <T> Callable<T> attempt(OllamaEndpoint endpoint, String promptClass,
+            Function<ChatLanguageModel, T> request) {
+        endpoint.begin();
+        return () -> {
+            try {
+                return timedCall(endpoint, promptClass, request);
+            } finally {
+                endpoint.end();
+            }
+        };
+    }
+
+    private <T> T callOn(OllamaEndpoint endpoint, String promptClass, Function<ChatLanguageModel, T> request) {
+        endpoint.begin();
+        try {
+            return timedCall(endpoint, promptClass, request);
+        } finally {
+            endpoint.end();
+        }
+    }
+
+    private <T> T timedCall(OllamaEndpoint endpoint, String promptClass, Function<ChatLanguageModel, T> request) {
+        long start = System.nanoTime();
+        try {
+            T result = request.apply(models.get(endpoint));
+            pool.recordChatLatency(endpoint, promptClass, System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            pool.recordFailure(endpoint, e);
+            throw e;
+        }
+    }
+
+    private static <T> T unwrap(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        hedgeExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,58 @@
+package com.kyc.ai.llm;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Embedding model that sends each batch to the least-loaded endpoint of the
+ * {@link OllamaEndpointPool}, retrying once elsewhere on connection failure
+ */
+public class LoadBalancedEmbeddingModel implements EmbeddingModel {
+
+    private final OllamaEndpointPool pool;
+    private final Map<OllamaEndpoint, EmbeddingModel> models = new LinkedHashMap<>();
+
+    public LoadBalancedEmbeddingModel(OllamaEndpointPool pool, Function<String, EmbeddingModel> factory) {
+        this.pool = pool;
+        pool.getEndpoints().forEach(endpoint -> models.put(endpoint, factory.apply(endpoint.getBaseUrl())));
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+        OllamaEndpoint first = pool.select(List.of());
+        try {
+            return embedOn(first, textSegments);
+        } catch (RuntimeException e) {
+            if (pool.size() < 2 || !OllamaEndpointPool.isConnectFailure(e)) {
+                throw e;
+            }
+            return embedOn(pool.select(List.of(first)), textSegments);
+        }
+    }
+
+    @Override
+    public int dimension() {
+        return models.values().iterator().next().dimension();
+    }
+
+    private Response<List<Embedding>> embedOn(OllamaEndpoint endpoint, List<TextSegment> textSegments) {
+        endpoint.begin();
+        try {
+            Response<List<Embedding>> response = models.get(endpoint).embedAll(textSegments);
+            pool.recordSuccess(endpoint);
+            return response;
+        } catch (RuntimeException e) {
+            pool.recordFailure(endpoint, e);
+            throw e;
+        } finally {
+            endpoint.end();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.kyc.ai.llm;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Streaming chat model that sends each call to the least-loaded endpoint of the
+ * {@link OllamaEndpointPool}. A connection failure before the first token is
+ * retried once on another endpoint; once tokens have been forwarded the error
+ * is passed to the caller, since the partial answer cannot be taken back.
+ */
+@Slf4j
+public class LoadBalancedStreamingChatModel implements StreamingChatLanguageModel {
+
+    private final OllamaEndpointPool pool;
+    private final Map<OllamaEndpoint, StreamingChatLanguageModel> models = new LinkedHashMap<>();
+
+    public LoadBalancedStreamingChatModel(OllamaEndpointPool pool,
+            Function<String, StreamingChatLanguageModel> factory) {
+        this.pool = pool;
+        pool.getEndpoints().forEach(endpoint -> models.put(endpoint, factory.apply(endpoint.getBaseUrl())));
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+        stream(LoadBalancedChatModel.promptClass(messages),
+                (model, h) -> model.generate(messages, h), handler, null);
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications,
+            StreamingResponseHandler<AiMessage> handler) {
+        stream(LoadBalancedChatModel.promptClass(messages),
+                (model, h) -> model.generate(messages, toolSpecifications, h), handler, null);
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, ToolSpecification toolSpecification,
+            StreamingResponseHandler<AiMessage> handler) {
+        stream(LoadBalancedChatModel.promptClass(messages),
+                (model, h) -> model.generate(messages, toolSpecification, h), handler, null);
+    }
+
+    private void stream(String promptClass,
+            BiConsumer<StreamingChatLanguageModel, StreamingResponseHandler<AiMessage>> request,
+            StreamingResponseHandler<AiMessage> handler, OllamaEndpoint failedEndpoint) {
+        OllamaEndpoint endpoint = pool.select(failedEndpoint != null ? List.of(failedEndpoint) : List.of());
+        endpoint.begin();
+        long start = System.nanoTime();
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicBoolean finished = new AtomicBoolean();
+
+        StreamingResponseHandler<AiMessage> tracking = new StreamingResponseHandler<>() {
+            @Override
+            public void onNext(String token) {
+                started.set(true);
+                handler.onNext(token);
+            }
+
+            @Override
+            public void onComplete(Response<AiMessage> response) {
+                if (finished.compareAndSet(false, true)) {
+                    endpoint.end();
+                    pool.recordChatLatency(endpoint, promptClass, System.nanoTime() - start);
+                }
+                handler.onComplete(response);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                if (finished.compareAndSet(false, true)) {
+                    endpoint.end();
+                    pool.recordFailure(endpoint, error);
+                }
+                if (failedEndpoint == null && !started.get() && pool.size() > 1
+                        && OllamaEndpointPool.isConnectFailure(error)) {
+                    log.warn("Ollama endpoint {} unreachable, retrying stream elsewhere", endpoint.getBaseUrl());
+                    stream(promptClass, request, handler, endpoint);
+                    return;
+                }
+                handler.onError(error);
+            }
+        };
+
+        try {
+            request.accept(models.get(endpoint), tracking);
+        } catch (RuntimeException e) {
+            tracking.onError(e);
+        }
+    }
+}
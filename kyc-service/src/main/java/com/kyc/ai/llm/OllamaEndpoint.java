@@ -0,0 +1,106 @@
+package com.kyc.ai.llm;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One Ollama server in the {@link OllamaEndpointPool} with its live routing state.
+ * Chat latency is tracked per prompt class, as a short chatbot answer and a
+ * long document analysis are not comparable. Latency statistics are updated
+ * without locking; they only steer routing, so an occasional lost update under
+ * contention is acceptable.
+ */
+public class OllamaEndpoint {
+
+    private static final double LATENCY_SMOOTHING = 0.1;
+
+    private final String baseUrl;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private volatile boolean healthy = true;
+    private volatile long ejectedUntilNanos;
+    private final Map<String, Latency> latencies = new ConcurrentHashMap<>();
+
+    public OllamaEndpoint(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public boolean isEjected(long now) {
+        return now - ejectedUntilNanos < 0;
+    }
+
+    public boolean isAvailable(long now) {
+        return healthy && !isEjected(now);
+    }
+
+    /**
+     * Smoothed chat latency of one prompt class, 0 before the first sample
+     */
+    public double getLatencyNanos(String promptClass) {
+        Latency latency = latencies.get(promptClass);
+        return latency != null ? latency.nanos : 0;
+    }
+
+    public int getSamples(String promptClass) {
+        Latency latency = latencies.get(promptClass);
+        return latency != null ? latency.samples : 0;
+    }
+
+    void begin() {
+        inFlight.incrementAndGet();
+    }
+
+    void end() {
+        inFlight.decrementAndGet();
+    }
+
+    void recordLatency(String promptClass, long nanos) {
+        latencies.computeIfAbsent(promptClass, k -> new Latency()).record(nanos);
+    }
+
+    void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    int recordFailure() {
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    void markHealthy(boolean healthy) {
+        this.healthy = healthy;
+        if (healthy) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    void eject(long untilNanos) {
+        ejectedUntilNanos = untilNanos;
+        latencies.clear();
+    }
+
+    /** Exponentially weighted chat latency of one prompt class. */
+    private static final class Latency {
+
+        private volatile double nanos;
+        private volatile int samples;
+
+        void record(long latencyNanos) {
+            nanos = samples == 0 ? latencyNanos : nanos * (1 - LATENCY_SMOOTHING) + latencyNanos * LATENCY_SMOOTHING;
+            samples++;
+        }
+    }
+}
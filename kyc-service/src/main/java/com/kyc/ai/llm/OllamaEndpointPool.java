@@ -0,0 +1,257 @@
+package com.kyc.ai.llm;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Set of Ollama servers shared by the load-balanced chat and embedding models.
+ * Routing picks the available endpoint with the fewest in-flight requests.
+ * Endpoints are marked down after repeated connection failures or a failed
+ * health probe, and ejected for a while when their chat latency for a prompt
+ * class drifts far above the other endpoints' latency for the same class.
+ * If nothing is available, routing falls back to
+ * every endpoint rather than failing outright.
+ */
+@Slf4j
+public class OllamaEndpointPool {
+
+    private static final int FAILURES_BEFORE_DOWN = 3;
+    private static final int LATENCY_WINDOW = 256;
+    private static final int MAX_PROMPT_CLASSES = 64;
+    private static final String OTHER_PROMPT_CLASS = "<other>";
+
+    private final List<OllamaEndpoint> endpoints;
+    private final Duration probeTimeout;
+    private final double ejectionLatencyFactor;
+    private final int ejectionMinSamples;
+    private final Duration ejectionDuration;
+    private final HttpClient httpClient;
+
+    // Recent chat latencies per prompt class across all endpoints, used for the hedging delay
+    private final Map<String, LatencyWindow> latencyWindows = new ConcurrentHashMap<>();
+
+    public OllamaEndpointPool(List<String> baseUrls, Duration probeTimeout, double ejectionLatencyFactor,
+            int ejectionMinSamples, Duration ejectionDuration, MeterRegistry meterRegistry) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("At least one Ollama base URL is required");
+        }
+        this.endpoints = baseUrls.stream().map(OllamaEndpoint::new).toList();
+        this.probeTimeout = probeTimeout;
+        this.ejectionLatencyFactor = ejectionLatencyFactor;
+        this.ejectionMinSamples = ejectionMinSamples;
+        this.ejectionDuration = ejectionDuration;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(probeTimeout).build();
+
+        for (OllamaEndpoint endpoint : endpoints) {
+            Gauge.builder("kyc.llm.endpoint.in_flight", endpoint, OllamaEndpoint::getInFlight)
+                    .description("Requests in flight per Ollama endpoint")
+                    .tag("endpoint", endpoint.getBaseUrl())
+                    .register(meterRegistry);
+            Gauge.builder("kyc.llm.endpoint.available", endpoint,
+                    e -> e.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .description("Whether the endpoint is healthy and not ejected")
+                    .tag("endpoint", endpoint.getBaseUrl())
+                    .register(meterRegistry);
+        }
+        log.info("Ollama endpoint pool: {}", baseUrls);
+    }
+
+    public List<OllamaEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public int size() {
+        return endpoints.size();
+    }
+
+    /**
+     * Pick the endpoint with the fewest in-flight requests, skipping the excluded ones
+     */
+    public OllamaEndpoint select(Collection<OllamaEndpoint> excluded) {
+        long now = System.nanoTime();
+        OllamaEndpoint best = leastLoaded(excluded, endpoint -> endpoint.isAvailable(now));
+        if (best == null) {
+            best = leastLoaded(excluded, endpoint -> true);
+        }
+        if (best == null) {
+            best = leastLoaded(List.of(), endpoint -> true);
+        }
+        return best;
+    }
+
+    private OllamaEndpoint leastLoaded(Collection<OllamaEndpoint> excluded,
+            Predicate<OllamaEndpoint> eligible) {
+        // Random starting point so ties don't always go to the first endpoint
+        int offset = ThreadLocalRandom.current().nextInt(endpoints.size());
+        OllamaEndpoint best = null;
+        for (int i = 0; i < endpoints.size(); i++) {
+            OllamaEndpoint endpoint = endpoints.get((offset + i) % endpoints.size());
+            if (excluded.contains(endpoint) || !eligible.test(endpoint)) {
+                continue;
+            }
+            if (best == null || endpoint.getInFlight() < best.getInFlight()) {
+                best = endpoint;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Record a successful chat call and eject the endpoint if it is much slower than its peers
+     *
+     * @param promptClass the kind of request, see {@link #chatLatencyPercentile}
+     */
+    public void recordChatLatency(OllamaEndpoint endpoint, String promptClass, long nanos) {
+        String key = promptClassKey(promptClass);
+        endpoint.recordSuccess();
+        endpoint.recordLatency(key, nanos);
+        latencyWindow(key).record(nanos);
+        maybeEject(endpoint, key);
+    }
+
+    public void recordSuccess(OllamaEndpoint endpoint) {
+        endpoint.recordSuccess();
+    }
+
+    /**
+     * Record a failed call; connection failures take the endpoint down until the next good probe
+     */
+    public void recordFailure(OllamaEndpoint endpoint, Throwable failure) {
+        if (isConnectFailure(failure) && endpoint.recordFailure() >= FAILURES_BEFORE_DOWN && endpoint.isHealthy()) {
+            endpoint.markHealthy(false);
+            log.warn("Ollama endpoint {} marked down after repeated connection failures", endpoint.getBaseUrl());
+        }
+    }
+
+    /**
+     * Chat latency of one prompt class at the given percentile over its recent window, or null if too few samples.
+     * Prompt classes keep long document and risk generations from inflating the hedge delay of short chat calls
+     */
+    public Duration chatLatencyPercentile(String promptClass, double percentile, int minSamples) {
+        long[] snapshot = latencyWindow(promptClass).snapshot(Math.max(1, minSamples));
+        if (snapshot == null) {
+            return null;
+        }
+        Arrays.sort(snapshot);
+        int index = Math.min(snapshot.length - 1, (int) Math.ceil(percentile * snapshot.length) - 1);
+        return Duration.ofNanos(snapshot[Math.max(0, index)]);
+    }
+
+    private LatencyWindow latencyWindow(String promptClass) {
+        return latencyWindows.computeIfAbsent(promptClassKey(promptClass), k -> new LatencyWindow());
+    }
+
+    /**
+     * Prompt classes are a handful of agent prompts; anything beyond the cap shares one class
+     */
+    private String promptClassKey(String promptClass) {
+        return latencyWindows.containsKey(promptClass) || latencyWindows.size() < MAX_PROMPT_CLASSES
+                ? promptClass
+                : OTHER_PROMPT_CLASS;
+    }
+
+    private void maybeEject(OllamaEndpoint endpoint, String promptClass) {
+        if (endpoints.size() < 2 || endpoint.getSamples(promptClass) < ejectionMinSamples) {
+            return;
+        }
+        long now = System.nanoTime();
+        double[] peers = endpoints.stream()
+                .filter(e -> e != endpoint && e.isAvailable(now) && e.getSamples(promptClass) >= ejectionMinSamples)
+                .mapToDouble(e -> e.getLatencyNanos(promptClass))
+                .sorted()
+                .toArray();
+        if (peers.length == 0) {
+            return;
+        }
+        double peerMedian = peers[peers.length / 2];
+        double latency = endpoint.getLatencyNanos(promptClass);
+        if (latency > peerMedian * ejectionLatencyFactor) {
+            endpoint.eject(now + ejectionDuration.toNanos());
+            log.warn("Ejecting slow Ollama endpoint {} for {} (latency {} ms vs peer median {} ms for \"{}\")",
+                    endpoint.getBaseUrl(), ejectionDuration, (long) (latency / 1_000_000),
+                    (long) (peerMedian / 1_000_000), promptClass);
+        }
+    }
+
+    /**
+     * Probe every endpoint's /api/tags and update its health
+     */
+    @Scheduled(fixedDelayString = "${kyc.llm.load-balancer.probe-interval:PT10S}")
+    public void probe() {
+        for (OllamaEndpoint endpoint : endpoints) {
+            boolean healthy;
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint.getBaseUrl() + "/api/tags"))
+                        .timeout(probeTimeout)
+                        .GET()
+                        .build();
+                healthy = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                healthy = false;
+            }
+            if (healthy != endpoint.isHealthy()) {
+                log.info("Ollama endpoint {} is now {}", endpoint.getBaseUrl(), healthy ? "UP" : "DOWN");
+            }
+            endpoint.markHealthy(healthy);
+        }
+    }
+
+    static boolean isConnectFailure(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Ring buffer of the most recent latencies of one prompt class. */
+    private static final class LatencyWindow {
+
+        private final long[] latencies = new long[LATENCY_WINDOW];
+        private final ReentrantLock lock = new ReentrantLock();
+        private int index;
+        private int count;
+
+        void record(long nanos) {
+            lock.lock();
+            try {
+                latencies[index] = nanos;
+                index = (index + 1) % LATENCY_WINDOW;
+                count = Math.min(count + 1, LATENCY_WINDOW);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long[] snapshot(int minSamples) {
+            lock.lock();
+            try {
+                return count < minSamples ? null : Arrays.copyOf(latencies, count);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.kyc.ai.llm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the configured Ollama models resident on every endpoint.
+ * From startup, each chat and embedding model is sent a one-token probe with
+ * {@code keep_alive}; the first probe loads the model, later ones keep it
+ * loaded well past Ollama's default five-minute unload. A model counts as warm
+ * once a probe answers within the latency threshold. After that only a failed
+ * probe makes it cold again: a slow probe under real traffic says nothing about
+ * the model being resident. Probes repeat every retry-interval until all
+ * models are warm, then every keep-alive-interval.
+ * Readiness only gates the cold start: once enough endpoints have had every
+ * model warm, {@link #hasWarmedUp()} stays true. Models that go cold later
+ * are reported through the kyc.llm.model.warm and
+ * kyc.llm.model.ready_endpoints gauges, so a flaky Ollama does not take
+ * every pod out of the Service at once.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "kyc.llm.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OllamaModelWarmer implements DisposableBean {
+
+    /** Warm-up state of one model on one endpoint. */
+    public record ModelState(boolean warm, long latencyMs, Instant checkedAt, String error) {
+    }
+
+    private enum ModelType {
+        CHAT,
+        EMBEDDING
+    }
+
+    private final OllamaEndpointPool pool;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ModelType> models = new LinkedHashMap<>();
+    private final String keepAlive;
+    private final Duration latencyThreshold;
+    private final Duration loadTimeout;
+    private final Duration retryInterval;
+    private final Duration keepAliveInterval;
+    private final int minReadyEndpoints;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService scheduler;
+    private final Map<OllamaEndpoint, Map<String, ModelState>> states = new ConcurrentHashMap<>();
+    private volatile boolean warmedUp;
+
+    public OllamaModelWarmer(OllamaEndpointPool pool, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${kyc.llm.warmup.chat-models:${langchain4j.ollama.chat-model.model-name}}") List<String> chatModels,
+            @Value("${kyc.llm.warmup.embedding-models:${langchain4j.ollama.embedding-model.model-name}}")
+            List<String> embeddingModels,
+            @Value("${kyc.chat.conversation.summary.enabled:false}") boolean summaryEnabled,
+            @Value("${kyc.chat.conversation.summary.model-name:}") String summaryModel,
+            @Value("${kyc.llm.warmup.keep-alive:30m}") String keepAlive,
+            @Value("${kyc.llm.warmup.latency-threshold:PT5S}") Duration latencyThreshold,
+            @Value("${kyc.llm.warmup.load-timeout:PT5M}") Duration loadTimeout,
+            @Value("${kyc.llm.warmup.retry-interval:PT10S}") Duration retryInterval,
+            @Value("${kyc.llm.warmup.keep-alive-interval:PT5M}") Duration keepAliveInterval,
+            @Value("${kyc.llm.warmup.min-ready-endpoints:1}") int minReadyEndpoints) {
+        this.pool = pool;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        chatModels.stream().map(String::trim).filter(m -> !m.isEmpty()).forEach(m -> models.put(m, ModelType.CHAT));
+        if (summaryEnabled && !summaryModel.isBlank()) {
+            models.putIfAbsent(summaryModel.trim(), ModelType.CHAT);
+        }
+        embeddingModels.stream().map(String::trim).filter(m -> !m.isEmpty())
+                .forEach(m -> models.put(m, ModelType.EMBEDDING));
+        this.keepAlive = keepAlive;
+        this.latencyThreshold = latencyThreshold;
+        this.loadTimeout = loadTimeout;
+        this.retryInterval = retryInterval;
+        this.keepAliveInterval = keepAliveInterval;
+        this.minReadyEndpoints = Math.min(minReadyEndpoints, pool.size());
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kyc-ollama-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (OllamaEndpoint endpoint : pool.getEndpoints()) {
+            Map<String, ModelState> endpointStates = new ConcurrentHashMap<>();
+            states.put(endpoint, endpointStates);
+            for (String model : models.keySet()) {
+                Gauge.builder("kyc.llm.model.warm", endpointStates,
+                        s -> s.containsKey(model) && s.get(model).warm() ? 1 : 0)
+                        .description("Whether the model answered a warm-up probe within the latency threshold")
+                        .tag("endpoint", endpoint.getBaseUrl())
+                        .tag("model", model)
+                        .register(meterRegistry);
+            }
+        }
+        Gauge.builder("kyc.llm.model.ready_endpoints", this, OllamaModelWarmer::readyEndpoints)
+                .description("Endpoints that currently have every model warm")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("Warming Ollama models {} on {} endpoint(s), keep_alive={}", models.keySet(), pool.size(), keepAlive);
+        scheduler.execute(this::cycle);
+    }
+
+    /**
+     * Whether at least min-ready-endpoints endpoints have every model warm
+     */
+    public boolean isReady() {
+        return readyEndpoints() >= minReadyEndpoints;
+    }
+
+    /**
+     * Whether the models have been warm on enough endpoints at least once since startup
+     */
+    public boolean hasWarmedUp() {
+        return warmedUp;
+    }
+
+    public int readyEndpoints() {
+        int ready = 0;
+        for (OllamaEndpoint endpoint : pool.getEndpoints()) {
+            Map<String, ModelState> endpointStates = states.get(endpoint);
+            if (models.keySet().stream().allMatch(m -> endpointStates.containsKey(m) && endpointStates.get(m).warm())) {
+                ready++;
+            }
+        }
+        return ready;
+    }
+
+    public int getMinReadyEndpoints() {
+        return minReadyEndpoints;
+    }
+
+    /**
+     * Model states per endpoint base URL
+     */
+    public Map<String, Map<String, ModelState>> states() {
+        Map<String, Map<String, ModelState>> snapshot = new LinkedHashMap<>();
+        for (OllamaEndpoint endpoint : pool.getEndpoints()) {
+            snapshot.put(endpoint.getBaseUrl(), Map.copyOf(states.get(endpoint)));
+        }
+        return snapshot;
+    }
+
+    private void cycle() {
+        try {
+            for (OllamaEndpoint endpoint : pool.getEndpoints()) {
+                models.forEach((model, type) -> probe(endpoint, model, type));
+            }
+        } catch (Exception e) {
+            log.warn("Ollama warm-up cycle failed: {}", e.getMessage());
+        } finally {
+            if (!warmedUp && isReady()) {
+                warmedUp = true;
+                log.info("Ollama models warm on {} endpoint(s), startup warm-up complete", readyEndpoints());
+            }
+            boolean allWarm = readyEndpoints() == pool.size();
+            if (!scheduler.isShutdown()) {
+                scheduler.schedule(this::cycle, (allWarm ? keepAliveInterval : retryInterval).toMillis(),
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void probe(OllamaEndpoint endpoint, String model, ModelType type) {
+        Map<String, ModelState> endpointStates = states.get(endpoint);
+        ModelState previous = endpointStates.get(model);
+        long start = System.nanoTime();
+        ModelState state;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint.getBaseUrl() + path(type)))
+                    .timeout(loadTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body(model, type))))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            long latencyMs = (System.nanoTime() - start) / 1_000_000;
+            if (response.statusCode() != 200) {
+                state = new ModelState(false, latencyMs, Instant.now(), "HTTP " + response.statusCode());
+            } else {
+                boolean fast = latencyMs <= latencyThreshold.toMillis();
+                state = new ModelState(fast || (previous != null && previous.warm()), latencyMs, Instant.now(), null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            state = new ModelState(false, (System.nanoTime() - start) / 1_000_000, Instant.now(),
+                    e.getClass().getSimpleName());
+        }
+        Timer.builder("kyc.llm.model.probe")
+                .description("Ollama warm-up and keep-alive probe latency")
+                .tag("model", model)
+                .tag("outcome", state.error() == null ? "success" : "failure")
+                .register(meterRegistry)
+                .record(Duration.ofMillis(state.latencyMs()));
+        endpointStates.put(model, state);
+        if (previous == null || previous.warm() != state.warm()) {
+            log.info("Ollama model {} on {} is {} ({} ms{})", model, endpoint.getBaseUrl(),
+                    state.warm() ? "warm" : "cold", state.latencyMs(),
+                    state.error() != null ? ", " + state.error() : "");
+        }
+    }
+
+    private static String path(ModelType type) {
+        return type == ModelType.CHAT ? "/api/chat" : "/api/embeddings";
+    }
+
+    private Map<String, Object> body(String model, ModelType type) {
+        if (type == ModelType.CHAT) {
+            return Map.of(
+                    "model", model,
+                    "messages", List.of(Map.of("role", "user", "content", "ping")),
+                    "stream", false,
+                    "keep_alive", keepAlive,
+                    "options", Map.of("num_predict", 1));
+        }
+        return Map.of("model", model, "prompt", "ping", "keep_alive", keepAlive);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,36 @@
+package com.kyc.ai.llm;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health contributor "ollamaModels": DOWN until the {@link OllamaModelWarmer}
+ * has had every model warm on enough endpoints once. Part of the readiness
+ * group, so a new pod only receives traffic once its models are resident;
+ * models going cold later don't flip it back (see the warmer's gauges), the
+ * "ready" detail shows the current state. Always UP when warm-up is disabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class OllamaModelsHealthIndicator implements HealthIndicator {
+
+    private final ObjectProvider<OllamaModelWarmer> warmer;
+
+    @Override
+    public Health health() {
+        OllamaModelWarmer modelWarmer = warmer.getIfAvailable();
+        if (modelWarmer == null) {
+            return Health.up().withDetail("warmup", "disabled").build();
+        }
+        Health.Builder builder = modelWarmer.hasWarmedUp() ? Health.up() : Health.down();
+        return builder
+                .withDetail("ready", modelWarmer.isReady())
+                .withDetail("readyEndpoints", modelWarmer.readyEndpoints())
+                .withDetail("minReadyEndpoints", modelWarmer.getMinReadyEndpoints())
+                .withDetail("models", modelWarmer.states())
+                .build();
+    }
+}
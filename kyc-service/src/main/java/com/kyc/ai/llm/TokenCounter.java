@@ -0,0 +1,87 @@
+package com.kyc.ai.llm;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.Tokenizer;
+import dev.langchain4j.model.chat.listener.ChatModelListener;
+import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
+import dev.langchain4j.model.embedding.onnx.HuggingFaceTokenizer;
+import dev.langchain4j.model.output.TokenUsage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Token counts for the configured chat model.
+ * With {@code kyc.llm.tokenizer.path} pointing at the model's tokenizer.json
+ * counts are exact. Otherwise they are estimated from the text length, using a
+ * characters-per-token ratio that is calibrated against the prompt token
+ * counts Ollama reports for every completed call.
+ */
+@Slf4j
+@Component
+public class TokenCounter implements ChatModelListener {
+
+    private static final double CALIBRATION_WEIGHT = 0.1;
+
+    private final Tokenizer tokenizer;
+    private volatile double charsPerToken;
+
+    public TokenCounter(@Value("${kyc.llm.tokenizer.path:}") String tokenizerPath,
+            @Value("${kyc.llm.tokenizer.chars-per-token:4.0}") double charsPerToken) {
+        this.tokenizer = tokenizerPath.isBlank() ? null : new HuggingFaceTokenizer(Path.of(tokenizerPath));
+        this.charsPerToken = charsPerToken;
+        log.info("Token counting: {}", tokenizer != null
+                ? "tokenizer " + tokenizerPath
+                : "estimated, " + charsPerToken + " chars/token (calibrated from Ollama responses)");
+    }
+
+    public int count(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        if (tokenizer != null) {
+            return tokenizer.estimateTokenCountInText(text);
+        }
+        return (int) Math.ceil(text.length() / charsPerToken);
+    }
+
+    public double getCharsPerToken() {
+        return charsPerToken;
+    }
+
+    @Override
+    public void onResponse(ChatModelResponseContext context) {
+        TokenUsage usage = context.response().tokenUsage();
+        if (tokenizer != null || usage == null || usage.inputTokenCount() == null || usage.inputTokenCount() <= 0) {
+            return;
+        }
+        long chars = 0;
+        for (ChatMessage message : context.request().messages()) {
+            chars += text(message).length();
+        }
+        if (chars == 0) {
+            return;
+        }
+        // Template tokens make short prompts look denser than they are; clamp to a plausible range
+        double observed = Math.max(1.5, Math.min(8.0, (double) chars / usage.inputTokenCount()));
+        charsPerToken = (1 - CALIBRATION_WEIGHT) * charsPerToken + CALIBRATION_WEIGHT * observed;
+    }
+
+    private static String text(ChatMessage message) {
+        if (message instanceof SystemMessage system) {
+            return system.text();
+        }
+        if (message instanceof UserMessage user && user.hasSingleText()) {
+            return user.singleText();
+        }
+        if (message instanceof AiMessage ai && ai.text() != null) {
+            return ai.text();
+        }
+        return "";
+    }
+}
@@ -0,0 +1,106 @@
+package com.kyc.ai.messaging;
+
+import com.kyc.ai.config.RabbitMqConfig;
+import com.kyc.ai.entity.KycDocument;
+import com.kyc.ai.exception.ServiceUnavailableException;
+import com.kyc.ai.service.DocumentAnalysisService;
+import com.kyc.ai.service.KycOrchestrationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Queue consumers for the asynchronous KYC pipeline.
+ * OCR -> analysis (Supervisor + Document Agent) -> risk (Risk Agent), each
+ * stage running on its own listener container with independent concurrency.
+ * A stage turned away by a transient overload (bulkhead, open circuit, OCR or
+ * stage executor capacity) leaves the document PENDING and is retried after a
+ * delay, up to kyc.pipeline.retry.max-attempts times; any other failure, or
+ * running out of retries, sends the document to review and the message to the
+ * dead-letter queue.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "kyc.pipeline", name = "async-enabled", havingValue = "true")
+public class KycPipelineListener {
+
+    private final DocumentAnalysisService documentService;
+    private final KycOrchestrationService orchestrationService;
+    private final KycPipelinePublisher publisher;
+
+    @Value("${kyc.pipeline.retry.max-attempts:5}")
+    private int maxRetryAttempts;
+
+    @RabbitListener(queues = RabbitMqConfig.OCR_QUEUE, containerFactory = "ocrListenerContainerFactory")
+    public void onOcr(KycPipelineMessage message) {
+        log.info("OCR stage started for document: {}", message.documentId());
+        boolean processed;
+        try {
+            processed = documentService.runOcrStage(message.documentId());
+        } catch (Exception e) {
+            stageFailed("OCR", RabbitMqConfig.OCR_QUEUE, message, e);
+            return;
+        }
+        if (processed) {
+            publisher.publishAnalysis(message);
+        }
+    }
+
+    @RabbitListener(queues = RabbitMqConfig.ANALYSIS_QUEUE, containerFactory = "analysisListenerContainerFactory")
+    public void onAnalysis(KycPipelineMessage message) {
+        log.info("Analysis stage started for document: {}", message.documentId());
+        KycDocument document;
+        try {
+            document = orchestrationService.runAnalysisStage(message);
+        } catch (Exception e) {
+            stageFailed("ANALYSIS", RabbitMqConfig.ANALYSIS_QUEUE, message, e);
+            return;
+        }
+        if (document.getVerificationStatus() == KycDocument.VerificationStatus.VERIFIED) {
+            publisher.publishRisk(message);
+        }
+    }
+
+    @RabbitListener(queues = RabbitMqConfig.RISK_QUEUE, containerFactory = "riskListenerContainerFactory")
+    public void onRisk(KycPipelineMessage message) {
+        log.info("Risk stage started for document: {}", message.documentId());
+        try {
+            orchestrationService.runRiskStage(message);
+        } catch (Exception e) {
+            stageFailed("RISK", RabbitMqConfig.RISK_QUEUE, message, e);
+        }
+    }
+
+    /**
+     * Schedule a delayed retry for a transient failure, otherwise fail the document and reject the message
+     */
+    private void stageFailed(String stage, String queue, KycPipelineMessage message, Exception e) {
+        if (isTransient(e) && message.attempt() < maxRetryAttempts) {
+            log.warn("{} stage for document {} turned away ({}), retry {} of {} scheduled",
+                    stage, message.documentId(), e.getMessage(), message.attempt() + 1, maxRetryAttempts);
+            documentService.returnToQueue(message.documentId());
+            publisher.publishRetry(queue, message);
+            return;
+        }
+        log.error("{} stage failed for document: {}", stage, message.documentId(), e);
+        documentService.markStageFailed(message.documentId(), stage, e);
+        throw new AmqpRejectAndDontRequeueException(stage + " stage failed for document " + message.documentId(), e);
+    }
+
+    /**
+     * Whether the failure is an overload rejection, possibly wrapped by the stage
+     */
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ServiceUnavailableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
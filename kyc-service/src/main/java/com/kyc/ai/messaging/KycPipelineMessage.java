@@ -0,0 +1,33 @@
+package com.kyc.ai.messaging;
+
+import com.kyc.ai.entity.KycDocument;
+
+import java.util.UUID;
+
+/**
+ * Message passed between the asynchronous KYC pipeline stages.
+ * Carries only references - the document itself stays in PostgreSQL/MinIO.
+ * {@code attempt} counts the delayed retries of the current stage after a
+ * transient overload; it is 0 on the first delivery to every stage.
+ */
+public record KycPipelineMessage(
+        UUID documentId,
+        String customerId,
+        KycDocument.DocumentType docType,
+        KycDocument.LegalBasis legalBasis,
+        int attempt) {
+
+    /**
+     * This message for the first delivery to the next stage
+     */
+    public KycPipelineMessage nextStage() {
+        return new KycPipelineMessage(documentId, customerId, docType, legalBasis, 0);
+    }
+
+    /**
+     * This message for another delivery to the same stage
+     */
+    public KycPipelineMessage retry() {
+        return new KycPipelineMessage(documentId, customerId, docType, legalBasis, attempt + 1);
+    }
+}
@@ -0,0 +1,44 @@
+package com.kyc.ai.messaging;
+
+import com.kyc.ai.config.RabbitMqConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes documents to the next stage of the asynchronous KYC pipeline
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "kyc.pipeline", name = "async-enabled", havingValue = "true")
+public class KycPipelinePublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public void publishOcr(KycPipelineMessage message) {
+        publish(RabbitMqConfig.OCR_QUEUE, message);
+    }
+
+    public void publishAnalysis(KycPipelineMessage message) {
+        publish(RabbitMqConfig.ANALYSIS_QUEUE, message.nextStage());
+    }
+
+    public void publishRisk(KycPipelineMessage message) {
+        publish(RabbitMqConfig.RISK_QUEUE, message.nextStage());
+    }
+
+    /**
+     * Deliver the message to the same stage again after kyc.pipeline.retry.delay
+     */
+    public void publishRetry(String stageQueue, KycPipelineMessage message) {
+        publish(stageQueue + RabbitMqConfig.RETRY_SUFFIX, message.retry());
+    }
+
+    private void publish(String routingKey, KycPipelineMessage message) {
+        log.debug("Publishing document {} to {}", message.documentId(), routingKey);
+        rabbitTemplate.convertAndSend(RabbitMqConfig.EXCHANGE, routingKey, message);
+    }
+}
@@ -0,0 +1,141 @@
+package com.kyc.ai.ocr;
+
+import com.recognition.software.jdeskew.ImageDeskew;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.util.ImageHelper;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataFormatImpl;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Decodes uploaded images into an OCR-ready raster.
+ * The source is never fully decoded: the reader subsamples rows and columns
+ * while decoding so the raster stays near the target DPI and below the pixel
+ * cap, which bounds heap per submission regardless of the camera resolution.
+ * The result is grayscale and optionally binarized and deskewed.
+ */
+@Slf4j
+public class ImagePreprocessor {
+
+    private static final double MM_PER_INCH = 25.4;
+
+    private final int targetDpi;
+    private final long maxPixels;
+    private final boolean binarize;
+    private final boolean deskew;
+    private final double minDeskewAngle;
+    private final Timer timer;
+
+    public ImagePreprocessor(int targetDpi, long maxPixels, boolean binarize, boolean deskew,
+            double minDeskewAngle, MeterRegistry meterRegistry) {
+        this.targetDpi = targetDpi;
+        this.maxPixels = maxPixels;
+        this.binarize = binarize;
+        this.deskew = deskew;
+        this.minDeskewAngle = minDeskewAngle;
+        this.timer = Timer.builder("kyc.ocr.preprocess")
+                .description("Time spent decoding and preparing images for OCR")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decode and prepare an image, or return null if no reader understands the stream
+     */
+    public BufferedImage load(InputStream source) throws IOException {
+        Timer.Sample sample = Timer.start();
+        try (ImageInputStream iis = ImageIO.createImageInputStream(source)) {
+            if (iis == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, false);
+                BufferedImage image = reader.read(0, readParam(reader));
+                return prepare(image);
+            } finally {
+                reader.dispose();
+            }
+        } finally {
+            sample.stop(timer);
+        }
+    }
+
+    private ImageReadParam readParam(ImageReader reader) throws IOException {
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+
+        int step = 1;
+        Double sourceDpi = sourceDpi(reader.getImageMetadata(0));
+        if (sourceDpi != null && sourceDpi > targetDpi) {
+            step = (int) Math.floor(sourceDpi / targetDpi);
+        }
+        // Phone photos rarely carry a meaningful DPI, so the pixel cap is the real guard
+        long pixels = (long) width * height;
+        if (maxPixels > 0 && pixels > maxPixels) {
+            step = Math.max(step, (int) Math.ceil(Math.sqrt((double) pixels / maxPixels)));
+        }
+
+        ImageReadParam param = reader.getDefaultReadParam();
+        if (step > 1) {
+            param.setSourceSubsampling(step, step, 0, 0);
+            log.debug("Subsampling {}x{} image by {} (source dpi: {})", width, height, step, sourceDpi);
+        }
+        return param;
+    }
+
+    private BufferedImage prepare(BufferedImage image) {
+        BufferedImage result = image.getType() == BufferedImage.TYPE_BYTE_GRAY
+                ? image
+                : ImageHelper.convertImageToGrayscale(image);
+
+        if (deskew) {
+            double angle = new ImageDeskew(result).getSkewAngle();
+            if (Math.abs(angle) >= minDeskewAngle) {
+                log.debug("Deskewing image by {} degrees", angle);
+                result = ImageHelper.rotateImage(result, -angle);
+            }
+        }
+        if (binarize) {
+            result = ImageHelper.convertImageToBinary(result);
+        }
+        return result;
+    }
+
+    /**
+     * Horizontal resolution from the standard metadata tree, if the format records one
+     */
+    private static Double sourceDpi(IIOMetadata metadata) {
+        if (metadata == null || !metadata.isStandardMetadataFormatSupported()) {
+            return null;
+        }
+        Node root = metadata.getAsTree(IIOMetadataFormatImpl.standardMetadataFormatName);
+        NodeList nodes = ((Element) root).getElementsByTagName("HorizontalPixelSize");
+        if (nodes.getLength() == 0) {
+            return null;
+        }
+        try {
+            double mmPerPixel = Double.parseDouble(((Element) nodes.item(0)).getAttribute("value"));
+            return mmPerPixel > 0 ? MM_PER_INCH / mmPerPixel : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
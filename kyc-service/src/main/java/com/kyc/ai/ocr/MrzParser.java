@@ -0,0 +1,215 @@
+package com.kyc.ai.ocr;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Detects and parses ICAO 9303 machine-readable zones in OCR output.
+ * Supports TD3 (passport, 2 x 44) and TD1 (ID card, 3 x 30) layouts. A zone
+ * is only returned when every check digit, including the composite one,
+ * validates, so callers can trust the fields without further review.
+ */
+public final class MrzParser {
+
+    private static final int TD3_LENGTH = 44;
+    private static final int TD1_LENGTH = 30;
+    private static final int[] WEIGHTS = { 7, 3, 1 };
+
+    private MrzParser() {
+    }
+
+    public enum Format {
+        TD1, TD3
+    }
+
+    public record MrzRecord(
+            Format format,
+            String documentCode,
+            String issuingState,
+            String documentNumber,
+            String nationality,
+            LocalDate dateOfBirth,
+            String sex,
+            LocalDate expiryDate,
+            String surname,
+            String givenNames) {
+
+        public String fullName() {
+            return givenNames.isEmpty() ? surname : givenNames + " " + surname;
+        }
+    }
+
+    /**
+     * Find a zone in the OCR text and return it if all check digits validate
+     */
+    public static Optional<MrzRecord> parse(String ocrText) {
+        if (ocrText == null || ocrText.isBlank()) {
+            return Optional.empty();
+        }
+        List<String> lines = candidateLines(ocrText);
+        for (int i = 0; i + 1 < lines.size(); i++) {
+            String first = lines.get(i);
+            String second = lines.get(i + 1);
+            if (first.length() == TD3_LENGTH && second.length() == TD3_LENGTH && first.charAt(0) == 'P') {
+                Optional<MrzRecord> record = parseTd3(first, second);
+                if (record.isPresent()) {
+                    return record;
+                }
+            }
+            if (i + 2 < lines.size() && first.length() == TD1_LENGTH && second.length() == TD1_LENGTH
+                    && lines.get(i + 2).length() == TD1_LENGTH) {
+                Optional<MrzRecord> record = parseTd1(first, second, lines.get(i + 2));
+                if (record.isPresent()) {
+                    return record;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<String> candidateLines(String ocrText) {
+        List<String> lines = new ArrayList<>();
+        for (String raw : ocrText.split("\\R")) {
+            String line = raw.replaceAll("\\s", "")
+                    .replace('«', '<')
+                    .toUpperCase();
+            if (line.length() >= TD1_LENGTH && line.matches("[A-Z0-9<]+")) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static Optional<MrzRecord> parseTd3(String line1, String line2) {
+        String documentNumber = line2.substring(0, 9);
+        String dob = digits(line2.substring(13, 19));
+        String expiry = digits(line2.substring(21, 27));
+        String personal = line2.substring(28, 42);
+
+        boolean valid = check(documentNumber, line2.charAt(9))
+                && check(dob, line2.charAt(19))
+                && check(expiry, line2.charAt(27))
+                && (check(personal, line2.charAt(42)) || personal.replace("<", "").isEmpty()
+                        && line2.charAt(42) == '<')
+                && check(line2.substring(0, 10) + dob + line2.charAt(19) + expiry + line2.substring(27, 43),
+                        line2.charAt(43));
+        if (!valid) {
+            return Optional.empty();
+        }
+
+        String[] names = names(line1.substring(5));
+        return toRecord(Format.TD3, line1.substring(0, 2), line1.substring(2, 5), documentNumber,
+                line2.substring(10, 13), dob, line2.charAt(20), expiry, names);
+    }
+
+    private static Optional<MrzRecord> parseTd1(String line1, String line2, String line3) {
+        String documentNumber = line1.substring(5, 14);
+        boolean numberValid;
+        if (line1.charAt(14) == '<') {
+            // Long document numbers continue in the optional field, check digit last
+            String overflow = line1.substring(15).replaceAll("<+$", "");
+            if (overflow.isEmpty()) {
+                return Optional.empty();
+            }
+            documentNumber += overflow.substring(0, overflow.length() - 1);
+            numberValid = check(documentNumber, overflow.charAt(overflow.length() - 1));
+        } else {
+            numberValid = check(documentNumber, line1.charAt(14));
+        }
+
+        String dob = digits(line2.substring(0, 6));
+        String expiry = digits(line2.substring(8, 14));
+        boolean valid = numberValid
+                && check(dob, line2.charAt(6))
+                && check(expiry, line2.charAt(14))
+                && check(line1.substring(5, 30) + dob + line2.charAt(6) + expiry + line2.charAt(14)
+                        + line2.substring(18, 29), line2.charAt(29));
+        if (!valid) {
+            return Optional.empty();
+        }
+
+        return toRecord(Format.TD1, line1.substring(0, 2), line1.substring(2, 5), documentNumber,
+                line2.substring(15, 18), dob, line2.charAt(7), expiry, names(line3));
+    }
+
+    private static Optional<MrzRecord> toRecord(Format format, String documentCode, String issuingState,
+            String documentNumber, String nationality, String dob, char sex, String expiry, String[] names) {
+        try {
+            return Optional.of(new MrzRecord(
+                    format,
+                    strip(documentCode),
+                    strip(issuingState),
+                    strip(documentNumber),
+                    strip(nationality),
+                    date(dob, false),
+                    sex == 'M' || sex == 'F' ? String.valueOf(sex) : null,
+                    date(expiry, true),
+                    names[0],
+                    names[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            // Includes dates filled with '<' when unknown, which validate with check digit 0
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Split the name field into surname and given names
+     */
+    private static String[] names(String field) {
+        String trimmed = field.replaceAll("<+$", "");
+        int separator = trimmed.indexOf("<<");
+        String surname = separator < 0 ? trimmed : trimmed.substring(0, separator);
+        String given = separator < 0 ? "" : trimmed.substring(separator + 2);
+        return new String[] { surname.replace('<', ' ').trim(), given.replace('<', ' ').trim() };
+    }
+
+    /**
+     * MRZ dates are YYMMDD; expiry dates are in this century, birth dates never in the future
+     */
+    private static LocalDate date(String yymmdd, boolean expiry) {
+        int yy = Integer.parseInt(yymmdd.substring(0, 2));
+        int currentYy = LocalDate.now().getYear() % 100;
+        int century = expiry || yy <= currentYy ? 2000 : 1900;
+        return LocalDate.parse(String.format("%04d-%s-%s",
+                century + yy, yymmdd.substring(2, 4), yymmdd.substring(4, 6)));
+    }
+
+    /**
+     * Numeric fields: undo the usual OCR letter/digit confusions
+     */
+    private static String digits(String field) {
+        return field.replace('O', '0').replace('Q', '0').replace('D', '0')
+                .replace('I', '1').replace('L', '1')
+                .replace('Z', '2').replace('S', '5').replace('B', '8');
+    }
+
+    private static String strip(String field) {
+        return field.replace("<", "");
+    }
+
+    private static boolean check(String field, char checkDigit) {
+        char expected = checkDigit == 'O' ? '0' : checkDigit;
+        return Character.isDigit(expected) && checkDigit(field) == expected - '0';
+    }
+
+    static int checkDigit(String field) {
+        int sum = 0;
+        for (int i = 0; i < field.length(); i++) {
+            sum += value(field.charAt(i)) * WEIGHTS[i % 3];
+        }
+        return sum % 10;
+    }
+
+    private static int value(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,156 @@
+package com.kyc.ai.ocr;
+
+import com.kyc.ai.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.Tesseract;
+import net.sourceforge.tess4j.TesseractException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of Tesseract engines.
+ * A Tesseract instance wraps a native TessBaseAPI handle and must not be used
+ * by two threads at once, so each OCR call checks out a dedicated instance and
+ * returns it when done. Callers wait at most the checkout timeout before the
+ * request is rejected with 503.
+ */
+@Slf4j
+public class TesseractPool {
+
+    private final BlockingQueue<Tesseract> idle;
+    private final int size;
+    private final Duration checkoutTimeout;
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final ExecutorService nativeThreads;
+
+    private final Timer waitTimer;
+    private final Timer ocrTimer;
+    private final Counter timeouts;
+
+    public TesseractPool(int size, Duration checkoutTimeout, Supplier<Tesseract> factory,
+            MeterRegistry meterRegistry) {
+        this.size = size;
+        this.checkoutTimeout = checkoutTimeout;
+        this.idle = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            idle.add(factory.get());
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.nativeThreads = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "tesseract-native-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("kyc.ocr.pool.size", () -> this.size)
+                .description("Configured number of Tesseract engines")
+                .register(meterRegistry);
+        Gauge.builder("kyc.ocr.pool.in_use", inUse, AtomicInteger::get)
+                .description("Tesseract engines currently checked out")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("kyc.ocr.pool.wait")
+                .description("Time spent waiting to check out a Tesseract engine")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.ocrTimer = Timer.builder("kyc.ocr.duration")
+                .description("Time spent inside Tesseract per document")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("kyc.ocr.pool.timeouts")
+                .description("Checkouts that gave up after the checkout timeout")
+                .register(meterRegistry);
+
+        log.info("Initialized Tesseract pool with {} engines (checkout timeout {})", size, checkoutTimeout);
+    }
+
+    /**
+     * Run an OCR task on a pooled engine
+     */
+    public <T> T execute(OcrTask<T> task) throws TesseractException {
+        Tesseract tesseract = checkout();
+        try {
+            Timer.Sample sample = Timer.start();
+            try {
+                return Thread.currentThread().isVirtual()
+                        ? applyOnPlatformThread(task, tesseract)
+                        : task.apply(tesseract);
+            } finally {
+                sample.stop(ocrTimer);
+            }
+        } finally {
+            inUse.decrementAndGet();
+            idle.offer(tesseract);
+        }
+    }
+
+    /**
+     * The native call would pin a virtual thread to its carrier for the whole
+     * OCR run; hand it to a platform thread so the virtual thread can unmount.
+     * One platform thread per engine, so submissions never queue here.
+     */
+    private <T> T applyOnPlatformThread(OcrTask<T> task, Tesseract tesseract) throws TesseractException {
+        Future<T> future = nativeThreads.submit(() -> task.apply(tesseract));
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    // The engine is in use until the native call returns; never hand it back early
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TesseractException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new TesseractException(e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private Tesseract checkout() {
+        long start = System.nanoTime();
+        try {
+            Tesseract tesseract = idle.poll(checkoutTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (tesseract == null) {
+                timeouts.increment();
+                throw new ServiceUnavailableException("OCR capacity exhausted, please retry shortly");
+            }
+            inUse.incrementAndGet();
+            return tesseract;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for an OCR engine");
+        }
+    }
+
+    @FunctionalInterface
+    public interface OcrTask<T> {
+        T apply(Tesseract tesseract) throws TesseractException;
+    }
+}
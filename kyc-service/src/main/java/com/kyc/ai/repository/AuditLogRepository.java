@@ -12,34 +12,59 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * kyc_audit_log is range-partitioned by month on performed_at (V8).
+ * Queries bounded on performedAt only touch the matching partitions
+ * (AuditLogPartitionPruningTest checks the plans). The customer queries are
+ * deliberately unbounded: GDPR access and export requests need every retained
+ * month, so they probe idx_audit_customer_id in each partition. The inherited
+ * findById does the same with the primary key, which leads with id; callers
+ * that know roughly when an entry was written should use a bounded query.
+ */
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
 
+    /** Every partition, see above */
     Page<AuditLog> findByCustomerIdOrderByPerformedAtDesc(String customerId, Pageable pageable);
 
-    Page<AuditLog> findByPerformedByOrderByPerformedAtDesc(String performedBy, Pageable pageable);
+    /** Prunes to the partitions between start and end */
+    Page<AuditLog> findByPerformedByAndPerformedAtBetweenOrderByPerformedAtDesc(String performedBy,
+            LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    /** Prunes to the partitions between start and end */
     @Query("SELECT a FROM AuditLog a WHERE a.performedAt BETWEEN :start AND :end ORDER BY a.performedAt DESC")
     Page<AuditLog> findByDateRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end, Pageable pageable);
 
-    @Query("SELECT a FROM AuditLog a WHERE a.action = :action ORDER BY a.performedAt DESC")
-    Page<AuditLog> findByAction(@Param("action") AuditLog.AuditAction action, Pageable pageable);
+    /** Prunes to the partitions between start and end */
+    @Query("SELECT a FROM AuditLog a WHERE a.action = :action AND a.performedAt BETWEEN :start AND :end "
+            + "ORDER BY a.performedAt DESC")
+    Page<AuditLog> findByActionAndDateRange(@Param("action") AuditLog.AuditAction action,
+                                            @Param("start") LocalDateTime start,
+                                            @Param("end") LocalDateTime end,
+                                            Pageable pageable);
 
+    /** Prunes to the partitions between start and end */
     @Query("SELECT COUNT(a) FROM AuditLog a WHERE a.action = :action AND a.performedAt BETWEEN :start AND :end")
     long countByActionAndDateRange(@Param("action") AuditLog.AuditAction action, 
                                    @Param("start") LocalDateTime start, 
                                    @Param("end") LocalDateTime end);
 
+    /** Every partition, see above */
     @Query("SELECT a FROM AuditLog a WHERE a.customerId = :customerId AND a.action IN :actions ORDER BY a.performedAt DESC")
     List<AuditLog> findByCustomerIdAndActions(@Param("customerId") String customerId, 
                                               @Param("actions") List<AuditLog.AuditAction> actions);
 
-    @Query("SELECT a FROM AuditLog a WHERE a.success = false ORDER BY a.performedAt DESC")
-    Page<AuditLog> findFailedActions(Pageable pageable);
+    /** Prunes to the partitions between start and end */
+    @Query("SELECT a FROM AuditLog a WHERE a.success = false AND a.performedAt BETWEEN :start AND :end "
+            + "ORDER BY a.performedAt DESC")
+    Page<AuditLog> findFailedActions(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                     Pageable pageable);
 
+    /** Prunes to the partitions between start and end */
     @Query("SELECT a.dataCategories, COUNT(a) FROM AuditLog a WHERE a.performedAt BETWEEN :start AND :end GROUP BY a.dataCategories")
     List<Object[]> countAccessByDataCategory(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
+    /** Every partition, see above */
     @Query("SELECT a FROM AuditLog a WHERE a.customerId = :customerId AND a.action = 'DATA_EXPORT' ORDER BY a.performedAt DESC")
     List<AuditLog> findDataExportsByCustomer(@Param("customerId") String customerId);
 }
@@ -36,13 +36,47 @@ public interface KycDocumentRepository extends JpaRepository<KycDocument, UUID>
        long countByVerificationStatus(@Param("status") KycDocument.VerificationStatus status);
 
        @Modifying
-       @Query("UPDATE KycDocument d SET d.anonymized = true, d.text = '[ANONYMIZED]', " +
-                     "d.extractedData = null WHERE d.id = :id")
-       void anonymizeDocument(@Param("id") UUID id);
+       @Query("UPDATE KycDocument d SET d.riskLevel = :riskLevel, d.updatedAt = :now WHERE d.customerId = :customerId")
+       int updateRiskLevelByCustomerId(@Param("customerId") String customerId,
+                     @Param("riskLevel") KycDocument.RiskLevel riskLevel,
+                     @Param("now") LocalDateTime now);
 
        @Modifying
-       @Query("DELETE FROM KycDocument d WHERE d.dataRetentionUntil < :now")
-       int deleteExpiredDocuments(@Param("now") LocalDateTime now);
+       @Query("UPDATE KycDocument d SET d.metadata = :metadata, d.riskLevel = :riskLevel, d.updatedAt = :now "
+                     + "WHERE d.id = :id AND d.anonymized = false")
+       int updateRiskFindings(@Param("id") UUID id,
+                     @Param("metadata") String metadata,
+                     @Param("riskLevel") KycDocument.RiskLevel riskLevel,
+                     @Param("now") LocalDateTime now);
+
+       @Modifying
+       @Query("UPDATE KycDocument d SET d.verificationStatus = :to, d.updatedAt = :now "
+                     + "WHERE d.id = :id AND d.verificationStatus = :from")
+       int updateStatusIfCurrent(@Param("id") UUID id,
+                     @Param("from") KycDocument.VerificationStatus from,
+                     @Param("to") KycDocument.VerificationStatus to,
+                     @Param("now") LocalDateTime now);
+
+       @Modifying
+       @Query("UPDATE KycDocument d SET d.text = :text, d.verificationStatus = 'PENDING', d.updatedAt = :now "
+                     + "WHERE d.id = :id AND d.verificationStatus = 'IN_PROGRESS' AND d.anonymized = false")
+       int updateOcrTextIfInProgress(@Param("id") UUID id,
+                     @Param("text") String text,
+                     @Param("now") LocalDateTime now);
+
+       @Modifying
+       @Query("UPDATE KycDocument d SET d.text = :text, d.confidenceScore = :confidenceScore, "
+                     + "d.extractedData = :extractedData, d.metadata = :metadata, d.verificationStatus = :status, "
+                     + "d.processedAt = :now, d.processedBy = :processedBy, d.updatedAt = :now "
+                     + "WHERE d.id = :id AND d.verificationStatus = 'IN_PROGRESS' AND d.anonymized = false")
+       int updateAnalysisIfInProgress(@Param("id") UUID id,
+                     @Param("text") String text,
+                     @Param("confidenceScore") Double confidenceScore,
+                     @Param("extractedData") String extractedData,
+                     @Param("metadata") String metadata,
+                     @Param("status") KycDocument.VerificationStatus status,
+                     @Param("processedBy") String processedBy,
+                     @Param("now") LocalDateTime now);
 
        @Query("SELECT d FROM KycDocument d WHERE d.confidenceScore < :threshold AND d.verificationStatus = 'PENDING'")
        List<KycDocument> findLowConfidenceDocuments(@Param("threshold") Double threshold);
@@ -0,0 +1,91 @@
+package com.kyc.ai.service;
+
+import com.kyc.ai.entity.AuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of kyc_audit_log in shape: the current month
+ * and months-ahead future months always exist, and months that ended more
+ * than gdpr.audit-log-retention-years ago are detached and dropped as a whole.
+ * Both steps are SQL functions from V8 that take an advisory lock, so every
+ * replica can run this safely.
+ */
+@Slf4j
+@Component
+public class AuditLogPartitionMaintenance {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditLogWriter auditLogWriter;
+    private final int monthsAhead;
+    private final int retentionYears;
+    private final Counter droppedPartitions;
+
+    public AuditLogPartitionMaintenance(JdbcTemplate jdbcTemplate, AuditLogWriter auditLogWriter,
+            @Value("${kyc.audit.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${gdpr.audit-log-retention-years:7}") int retentionYears,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditLogWriter = auditLogWriter;
+        this.monthsAhead = monthsAhead;
+        this.retentionYears = retentionYears;
+        this.droppedPartitions = Counter.builder("kyc.audit.partitions.dropped")
+                .description("Audit log partitions dropped by retention")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${kyc.audit.partitions.cron:0 30 1 * * ?}")
+    public void maintain() {
+        try {
+            createFuturePartitions();
+            enforceRetention();
+        } catch (Exception e) {
+            // Rows for a missing month land in the default partition until the next run
+            log.error("Audit log partition maintenance failed", e);
+        }
+    }
+
+    private void createFuturePartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= monthsAhead; i++) {
+            jdbcTemplate.queryForObject("SELECT kyc_audit_log_create_partition(?)", String.class,
+                    Date.valueOf(month.plusMonths(i)));
+        }
+    }
+
+    private void enforceRetention() {
+        LocalDate cutoff = LocalDate.now().minusYears(retentionYears);
+        List<String> dropped = jdbcTemplate.queryForList("SELECT kyc_audit_log_drop_partitions_before(?)",
+                String.class, Timestamp.valueOf(cutoff.atStartOfDay()));
+        if (dropped.isEmpty()) {
+            return;
+        }
+        droppedPartitions.increment(dropped.size());
+        log.info("Dropped audit log partitions older than {}: {}", cutoff, dropped);
+        auditLogWriter.write(AuditLog.builder()
+                .action(AuditLog.AuditAction.AUTO_PURGE)
+                .performedBy("SYSTEM")
+                .legalBasis(AuditLog.LegalBasis.LEGAL_OBLIGATION)
+                .dataCategories(new String[] { "AUDIT_LOG" })
+                .details("{\"droppedPartitions\": " + dropped.size() + ", \"cutoff\": \"" + cutoff + "\"}")
+                .success(true)
+                .build());
+    }
+}
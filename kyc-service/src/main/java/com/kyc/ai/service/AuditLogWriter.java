@@ -0,0 +1,292 @@
+package com.kyc.ai.service;
+
+import com.kyc.ai.entity.AuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes audit entries to kyc_audit_log.
+ * Entries are queued in a bounded buffer and inserted by a background thread
+ * as multi-row INSERTs of up to batch-size rows, flushed at least every
+ * flush-interval. Actions listed in kyc.audit.sync-actions are inserted on
+ * the caller's thread, inside the caller's transaction, before write()
+ * returns; so is any entry that finds the buffer full.
+ * Callers build the complete entry, including IP address and User-Agent,
+ * before handing it over; the writer thread never looks at request state.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter implements DisposableBean {
+
+    private static final String INSERT = """
+            INSERT INTO kyc_audit_log (id, customer_id, action, performed_by, performed_at, ip_address,
+                user_agent, legal_basis, data_categories, request_id, details, success, error_message)
+            VALUES """;
+    private static final String ROW = "(?, ?, ?, ?, ?, CAST(? AS inet), ?, ?, ?, ?, CAST(? AS jsonb), ?, ?)";
+    private static final int COLUMNS = 13;
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean asyncEnabled;
+    private final Set<AuditLog.AuditAction> syncActions;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final BlockingQueue<AuditLog> buffer;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter asyncEvents;
+    private final Counter syncEvents;
+    private final Counter overflowEvents;
+    private final Counter lostEvents;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+            @Value("${kyc.audit.async-enabled:true}") boolean asyncEnabled,
+            @Value("${kyc.audit.sync-actions:DATA_DELETION,DATA_EXPORT}") Set<AuditLog.AuditAction> syncActions,
+            @Value("${kyc.audit.buffer-capacity:10000}") int bufferCapacity,
+            @Value("${kyc.audit.batch-size:500}") int batchSize,
+            @Value("${kyc.audit.flush-interval:PT1S}") Duration flushInterval,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.asyncEnabled = asyncEnabled;
+        this.syncActions = syncActions.isEmpty() ? EnumSet.noneOf(AuditLog.AuditAction.class)
+                : EnumSet.copyOf(syncActions);
+        // PostgreSQL accepts at most 65535 bind parameters per statement
+        this.batchSize = Math.max(1, Math.min(batchSize, 65535 / COLUMNS));
+        this.flushInterval = flushInterval;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+
+        Gauge.builder("kyc.audit.buffer.size", buffer, BlockingQueue::size)
+                .description("Audit entries waiting for the background writer")
+                .register(meterRegistry);
+        this.asyncEvents = events(meterRegistry, "async");
+        this.syncEvents = events(meterRegistry, "sync");
+        this.overflowEvents = events(meterRegistry, "overflow");
+        this.lostEvents = Counter.builder("kyc.audit.lost")
+                .description("Audit entries that could not be written and were only logged")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("kyc.audit.flush")
+                .description("Time to insert one batch of audit entries")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("kyc.audit.batch.size")
+                .description("Audit entries per insert")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::run, "kyc-audit-writer");
+        this.writer.setDaemon(true);
+        if (asyncEnabled) {
+            this.writer.start();
+        }
+        log.info("Audit log writer: async {}, batch size {}, flush interval {}, synchronous for {}",
+                asyncEnabled, this.batchSize, flushInterval, this.syncActions);
+    }
+
+    /**
+     * Record an audit entry. Synchronous entries are committed with the
+     * caller's transaction and a failure is thrown to the caller.
+     */
+    public void write(AuditLog entry) {
+        writeAll(List.of(entry));
+    }
+
+    /**
+     * Record several entries. Those that are written synchronously go in
+     * multi-row INSERTs of up to batch-size rows on the caller's thread.
+     */
+    public void writeAll(List<AuditLog> entries) {
+        List<AuditLog> synchronous = new ArrayList<>();
+        for (AuditLog entry : entries) {
+            if (entry.getId() == null) {
+                entry.setId(UUID.randomUUID());
+            }
+            if (entry.getPerformedAt() == null) {
+                entry.setPerformedAt(LocalDateTime.now());
+            }
+
+            if (!asyncEnabled || !running || isSynchronous(entry.getAction())) {
+                synchronous.add(entry);
+                syncEvents.increment();
+            } else if (buffer.offer(entry)) {
+                asyncEvents.increment();
+            } else {
+                // Back-pressure instead of dropping: the caller pays for its own insert
+                synchronous.add(entry);
+                overflowEvents.increment();
+            }
+        }
+        for (int from = 0; from < synchronous.size(); from += batchSize) {
+            insert(synchronous.subList(from, Math.min(from + batchSize, synchronous.size())));
+        }
+    }
+
+    /**
+     * Whether entries for this action are written before write() returns
+     */
+    public boolean isSynchronous(AuditLog.AuditAction action) {
+        return syncActions.contains(action);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.join(Math.max(flushInterval.toMillis() * 2, 5000) + MAX_RETRY_DELAY.toMillis());
+        List<AuditLog> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        remaining.forEach(this::lost);
+    }
+
+    private void run() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                AuditLog first = buffer.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Let a batch fill for up to flush-interval after its first entry
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    if (buffer.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    AuditLog next = buffer.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(this::lost);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Audit writer failed", e);
+                batch.forEach(this::lost);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Insert a batch, retrying while the database is unreachable. A batch
+     * rejected for its content is retried row by row so one bad entry does
+     * not take the others with it.
+     */
+    private void flush(List<AuditLog> batch) throws InterruptedException {
+        long delay = flushInterval.toMillis();
+        while (true) {
+            try {
+                flushTimer.record(() -> insert(batch));
+                batchSizes.record(batch.size());
+                return;
+            } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+                if (!running) {
+                    log.error("Database unavailable while shutting down, {} audit entries not written",
+                            batch.size(), e);
+                    batch.forEach(this::lost);
+                    return;
+                }
+                log.warn("Audit batch of {} entries failed, retrying in {} ms: {}", batch.size(), delay,
+                        e.getMessage());
+                Thread.sleep(delay);
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY.toMillis());
+            } catch (DataAccessException e) {
+                log.warn("Audit batch of {} entries rejected, writing row by row: {}", batch.size(),
+                        e.getMessage());
+                for (AuditLog entry : batch) {
+                    try {
+                        insert(List.of(entry));
+                    } catch (DataAccessException rowFailure) {
+                        log.error("Audit entry rejected by the database", rowFailure);
+                        lost(entry);
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    private void insert(List<AuditLog> entries) {
+        String sql = INSERT + String.join(", ", Collections.nCopies(entries.size(), ROW));
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            int index = 1;
+            for (AuditLog entry : entries) {
+                index = bind(statement, index, entry);
+            }
+            return statement;
+        });
+    }
+
+    private static int bind(PreparedStatement statement, int index, AuditLog entry) throws SQLException {
+        statement.setObject(index++, entry.getId());
+        statement.setString(index++, entry.getCustomerId());
+        statement.setString(index++, entry.getAction().name());
+        statement.setString(index++, entry.getPerformedBy());
+        statement.setTimestamp(index++, Timestamp.valueOf(entry.getPerformedAt()));
+        statement.setString(index++, entry.getIpAddress() != null ? entry.getIpAddress().getHostAddress() : null);
+        statement.setString(index++, entry.getUserAgent());
+        statement.setString(index++, entry.getLegalBasis() != null ? entry.getLegalBasis().name() : null);
+        if (entry.getDataCategories() != null) {
+            statement.setArray(index++, statement.getConnection().createArrayOf("text", entry.getDataCategories()));
+        } else {
+            statement.setNull(index++, Types.ARRAY);
+        }
+        statement.setString(index++, entry.getRequestId());
+        statement.setString(index++, entry.getDetails());
+        if (entry.getSuccess() != null) {
+            statement.setBoolean(index++, entry.getSuccess());
+        } else {
+            statement.setNull(index++, Types.BOOLEAN);
+        }
+        statement.setString(index++, entry.getErrorMessage());
+        return index;
+    }
+
+    /**
+     * Last resort for an entry that cannot be stored: keep it in the application log
+     */
+    private void lost(AuditLog entry) {
+        lostEvents.increment();
+        log.error("AUDIT ENTRY NOT PERSISTED: {}", entry);
+    }
+
+    private static Counter events(MeterRegistry meterRegistry, String mode) {
+        return Counter.builder("kyc.audit.events")
+                .description("Audit entries by how they were written")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+}
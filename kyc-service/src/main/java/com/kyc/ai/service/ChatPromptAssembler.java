@@ -0,0 +1,214 @@
+package com.kyc.ai.service;
+
+import com.kyc.ai.agent.ChatbotAgent;
+import com.kyc.ai.agent.ChatbotStreamingAgent;
+import com.kyc.ai.conversation.Conversation;
+import com.kyc.ai.conversation.ConversationChatMemory;
+import com.kyc.ai.conversation.ConversationMessage;
+import com.kyc.ai.conversation.ConversationStore;
+import com.kyc.ai.llm.TokenCounter;
+import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.UserMessage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the chatbot's message and knowledge-base context within a token budget.
+ *
+ * The budget covers the whole prompt; the system prompt and templates are
+ * counted once and the rest is filled by priority: the customer's message,
+ * the session's running summary and most recent conversation turns (up to
+ * history-tokens, sent through the agent's chat memory), then knowledge-base
+ * chunks by relevance. A chunk that
+ * no longer fits is cut down when enough room is left; history is dropped
+ * oldest first.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatPromptAssembler {
+
+    private static final String TRUNCATED = " …";
+
+    private final RagService ragService;
+    private final ConversationStore conversationStore;
+    private final TokenCounter tokenCounter;
+    private final MeterRegistry meterRegistry;
+
+    /** Whole prompt, including system prompt and template; keep below the model's num_ctx minus the reply. */
+    @Value("${kyc.chat.prompt-budget.max-prompt-tokens:1536}")
+    private int maxPromptTokens;
+
+    /** The customer's message is cut beyond this share of the budget left after the template. */
+    @Value("${kyc.chat.prompt-budget.max-message-share:0.25}")
+    private double maxMessageShare;
+
+    /** Prior conversation turns sent with each message, newest first. */
+    @Value("${kyc.chat.prompt-budget.history-tokens:400}")
+    private int historyTokens;
+
+    @Value("${kyc.chat.prompt-budget.max-context-chunks:3}")
+    private int maxContextChunks;
+
+    /** Below this many tokens of room a chunk is dropped rather than cut. */
+    @Value("${kyc.chat.prompt-budget.min-chunk-tokens:64}")
+    private int minChunkTokens;
+
+    /** Prompt parts passed to the chatbot agents. */
+    public record ChatPrompt(String message, String context, int tokens) {
+    }
+
+    /**
+     * Retrieve knowledge-base context for the message and fit it, the message and the session history into the budget
+     */
+    public ChatPrompt assemble(String sessionId, String message) {
+        int fixed = Math.max(templateTokens(ChatbotAgent.class), templateTokens(ChatbotStreamingAgent.class));
+        int available = Math.max(0, maxPromptTokens - fixed);
+
+        String fittedMessage = message;
+        int messageLimit = (int) (available * maxMessageShare);
+        if (tokenCounter.count(message) > messageLimit) {
+            fittedMessage = truncate(message, messageLimit);
+            truncated("message", 1);
+        }
+        int messageTokens = tokenCounter.count(fittedMessage);
+
+        Conversation conversation = conversationStore.find(sessionId).orElse(null);
+        List<ConversationMessage> stored = conversation != null ? conversation.messages() : List.of();
+        List<ConversationMessage> history = historyWindow(stored);
+        int summaryTokens = conversation != null && conversation.summary() != null
+                ? tokenCounter.count(ConversationChatMemory.SUMMARY_HEADER + conversation.summary())
+                : 0;
+        int historyUsed = history.stream().mapToInt(turn -> tokenCounter.count(turn.text())).sum();
+        if (history.size() < stored.size()) {
+            truncated("history", stored.size() - history.size());
+        }
+
+        int remaining = available - messageTokens - summaryTokens - historyUsed;
+        List<RagService.RetrievedContext> chunks = ragService.retrieveRelevantContextWithScores(message, maxContextChunks);
+        List<String> contextParts = new ArrayList<>();
+        for (RagService.RetrievedContext chunk : chunks) {
+            remaining -= addChunk(remaining, contextParts, chunk, contextParts.size() + 1);
+        }
+        int droppedChunks = chunks.size() - contextParts.size();
+        if (droppedChunks > 0) {
+            truncated("context", droppedChunks);
+        }
+
+        String context = contextParts.isEmpty()
+                ? "No specific regulatory information found for this query."
+                : String.join("\n\n", contextParts);
+        int contextTokens = tokenCounter.count(context);
+        int total = fixed + messageTokens + summaryTokens + historyUsed + contextTokens;
+        record("fixed", fixed);
+        record("message", messageTokens);
+        record("summary", summaryTokens);
+        record("history", historyUsed);
+        record("context", contextTokens);
+        record("total", total);
+        log.debug("Chat prompt ~{} tokens (history {}, context {}, {} turns and {} chunks dropped)",
+                total, historyUsed, contextTokens, stored.size() - history.size(), droppedChunks);
+
+        return new ChatPrompt(fittedMessage, context, total);
+    }
+
+    /**
+     * Newest prior turns that fit in the history budget, oldest first
+     */
+    public List<ConversationMessage> historyWindow(List<ConversationMessage> turns) {
+        int budget = historyTokens;
+        int start = turns.size();
+        while (start > 0) {
+            int tokens = tokenCounter.count(turns.get(start - 1).text());
+            if (tokens > budget) {
+                break;
+            }
+            budget -= tokens;
+            start--;
+        }
+        return turns.subList(start, turns.size());
+    }
+
+    /**
+     * Add the chunk, cut down if needed; returns the tokens used
+     */
+    private int addChunk(int remaining, List<String> parts, RagService.RetrievedContext chunk, int number) {
+        // Title and category only; the relevance score is noise to the model
+        String header = "[" + number + "] " + chunk.title() + " (" + chunk.category() + ")\n";
+        int headerTokens = tokenCounter.count(header) + 2;
+        int contentTokens = tokenCounter.count(chunk.content());
+        if (headerTokens + contentTokens <= remaining) {
+            parts.add(header + chunk.content());
+            return headerTokens + contentTokens;
+        }
+        int room = remaining - headerTokens;
+        if (room < minChunkTokens) {
+            return 0;
+        }
+        String cut = truncate(chunk.content(), room);
+        parts.add(header + cut);
+        truncated("context", 1);
+        return headerTokens + tokenCounter.count(cut);
+    }
+
+    /**
+     * Longest prefix that fits in {@code maxTokens}, cut at a word boundary
+     */
+    private String truncate(String text, int maxTokens) {
+        int limit = maxTokens - tokenCounter.count(TRUNCATED);
+        if (limit <= 0) {
+            return "";
+        }
+        int low = 0;
+        int high = text.length();
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (tokenCounter.count(text.substring(0, mid)) <= limit) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int end = low;
+        int space = text.lastIndexOf(' ', end);
+        if (space > end / 2) {
+            end = space;
+        }
+        return text.substring(0, end).stripTrailing() + TRUNCATED;
+    }
+
+    private int templateTokens(Class<?> agent) {
+        int tokens = 0;
+        for (Method method : agent.getMethods()) {
+            SystemMessage system = method.getAnnotation(SystemMessage.class);
+            UserMessage user = method.getAnnotation(UserMessage.class);
+            if (system != null || user != null) {
+                tokens = Math.max(tokens,
+                        (system != null ? tokenCounter.count(String.join("\n", system.value())) : 0)
+                                + (user != null ? tokenCounter.count(String.join("\n", user.value())) : 0));
+            }
+        }
+        return tokens;
+    }
+
+    private void record(String part, int tokens) {
+        DistributionSummary.builder("kyc.chat.prompt.tokens")
+                .description("Estimated chatbot prompt tokens per part")
+                .baseUnit("tokens")
+                .tag("part", part)
+                .register(meterRegistry)
+                .record(tokens);
+    }
+
+    private void truncated(String part, int count) {
+        meterRegistry.counter("kyc.chat.prompt.truncated", "part", part).increment(count);
+    }
+}
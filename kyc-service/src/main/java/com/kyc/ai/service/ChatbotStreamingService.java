@@ -0,0 +1,230 @@
+package com.kyc.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyc.ai.agent.ChatbotStreamingAgent;
+import com.kyc.ai.conversation.ChatbotMemoryProvider;
+import com.kyc.ai.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams Chatbot Agent answers to the client over Server-Sent Events.
+ *
+ * Events, in order: {@code session} with the session id, {@code token} with
+ * each chunk of the answer as {@code {"text": ...}}, then {@code complete} carrying the full answer and
+ * the structured fields (suggested actions, escalation, disclaimer). Failures
+ * end the stream with an {@code error} event instead.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatbotStreamingService {
+
+    private final ChatbotStreamingAgent chatbotStreamingAgent;
+    private final ChatbotMemoryProvider chatbotMemory;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${kyc.chat.stream.timeout:PT3M}")
+    private Duration streamTimeout;
+
+    /** Chat input, already sanitized and fitted to the prompt budget. */
+    public record StreamRequest(
+            String sessionId,
+            String message,
+            String context,
+            boolean hasActiveApplication,
+            String currentStatus,
+            List<String> documentsSubmitted) {
+    }
+
+    /** Final event payload; matches the blocking chat response. */
+    public record StreamResult(
+            String sessionId,
+            String response,
+            List<String> suggestedActions,
+            boolean escalationNeeded,
+            String escalationReason,
+            String disclaimer,
+            List<String> relatedTopics) {
+    }
+
+    /**
+     * Start streaming an answer; the answer is recorded in the conversation once the stream completes
+     */
+    public SseEmitter stream(StreamRequest request) {
+        long requestStart = System.nanoTime();
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        AtomicBoolean clientGone = new AtomicBoolean();
+        emitter.onTimeout(() -> clientGone.set(true));
+        emitter.onError(e -> clientGone.set(true));
+
+        MetadataSplitter splitter = new MetadataSplitter();
+        AtomicBoolean firstToken = new AtomicBoolean(true);
+
+        send(emitter, clientGone, "session", Map.of("sessionId", request.sessionId()));
+        try {
+            chatbotMemory.inSession(request.sessionId(), () -> chatbotStreamingAgent.chat(
+                    request.message(),
+                    request.context(),
+                    request.hasActiveApplication(),
+                    request.currentStatus(),
+                    request.documentsSubmitted()))
+                    .onNext(token -> {
+                        if (firstToken.compareAndSet(true, false)) {
+                            Timer.builder("kyc.chat.stream.first_token")
+                                    .description("Time from request to the first streamed token")
+                                    .publishPercentileHistogram()
+                                    .register(meterRegistry)
+                                    .record(System.nanoTime() - requestStart, TimeUnit.NANOSECONDS);
+                        }
+                        String text = splitter.accept(token);
+                        if (!text.isEmpty()) {
+                            send(emitter, clientGone, "token", Map.of("text", text));
+                        }
+                    })
+                    .onComplete(response -> {
+                        String tail = splitter.finish();
+                        if (!tail.isEmpty()) {
+                            send(emitter, clientGone, "token", Map.of("text", tail));
+                        }
+                        StreamResult result = result(request.sessionId(), splitter);
+                        chatbotMemory.recordAnswer(request.sessionId(), result.response());
+                        send(emitter, clientGone, "complete", result);
+                        emitter.complete();
+                        count(clientGone.get() ? "client_gone" : "completed");
+                    })
+                    .onError(error -> {
+                        log.warn("Chat stream {} failed: {}", request.sessionId(), error.getMessage());
+                        fail(emitter, clientGone, "The assistant is unavailable right now, please retry", false);
+                    })
+                    .start();
+        } catch (ServiceUnavailableException e) {
+            fail(emitter, clientGone, e.getMessage(), true);
+        }
+        return emitter;
+    }
+
+    private StreamResult result(String sessionId, MetadataSplitter splitter) {
+        ChatbotStreamingAgent.Metadata metadata = null;
+        String json = splitter.metadata();
+        if (json != null) {
+            try {
+                int start = json.indexOf('{');
+                int end = json.lastIndexOf('}');
+                if (start >= 0 && end > start) {
+                    metadata = objectMapper.readValue(json.substring(start, end + 1),
+                            ChatbotStreamingAgent.Metadata.class);
+                }
+            } catch (IOException e) {
+                log.debug("Unparseable chat stream metadata: {}", e.getMessage());
+            }
+        }
+        if (metadata == null) {
+            meterRegistry.counter("kyc.chat.stream.metadata_missing").increment();
+            metadata = new ChatbotStreamingAgent.Metadata(List.of(), false, null, null, List.of());
+        }
+        return new StreamResult(sessionId, splitter.answer(), metadata.suggestedActions(),
+                metadata.escalationNeeded(), metadata.escalationReason(), metadata.disclaimer(),
+                metadata.relatedTopics());
+    }
+
+    private void fail(SseEmitter emitter, AtomicBoolean clientGone, String message, boolean retryable) {
+        send(emitter, clientGone, "error", Map.of("message", message, "retryable", retryable));
+        emitter.complete();
+        count(retryable ? "rejected" : "failed");
+    }
+
+    private void send(SseEmitter emitter, AtomicBoolean clientGone, String event, Object data) {
+        if (clientGone.get()) {
+            return;
+        }
+        try {
+            // JSON payloads keep newlines in the answer from breaking SSE framing
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // Client disconnected; the model keeps generating but nothing more is sent
+            clientGone.set(true);
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("kyc.chat.stream", "outcome", outcome).increment();
+    }
+
+    /**
+     * Splits the streamed text into the customer-facing answer and the trailing metadata.
+     * Text that could be the start of the marker is held back until the next token decides it.
+     */
+    static final class MetadataSplitter {
+
+        private static final String MARKER = ChatbotStreamingAgent.METADATA_MARKER;
+
+        private final StringBuilder text = new StringBuilder();
+        private int emitted;
+        private int markerAt = -1;
+
+        /**
+         * Append a token and return the part of the answer that is now safe to forward
+         */
+        synchronized String accept(String token) {
+            text.append(token);
+            if (markerAt >= 0) {
+                return "";
+            }
+            int found = text.indexOf(MARKER, Math.max(0, emitted - MARKER.length()));
+            int safeEnd;
+            if (found >= 0) {
+                markerAt = found;
+                safeEnd = found;
+            } else {
+                safeEnd = text.length() - partialMarkerLength();
+            }
+            String out = safeEnd > emitted ? text.substring(emitted, safeEnd) : "";
+            emitted = Math.max(emitted, safeEnd);
+            return out;
+        }
+
+        /**
+         * Return answer text still held back when the stream ends without a marker
+         */
+        synchronized String finish() {
+            if (markerAt >= 0 || emitted >= text.length()) {
+                return "";
+            }
+            String out = text.substring(emitted);
+            emitted = text.length();
+            return out;
+        }
+
+        synchronized String answer() {
+            return (markerAt >= 0 ? text.substring(0, markerAt) : text.toString()).strip();
+        }
+
+        synchronized String metadata() {
+            return markerAt >= 0 ? text.substring(markerAt + MARKER.length()) : null;
+        }
+
+        private int partialMarkerLength() {
+            for (int length = Math.min(MARKER.length() - 1, text.length()); length > 0; length--) {
+                if (MARKER.startsWith(text.substring(text.length() - length))) {
+                    return length;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.kyc.ai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kyc.ai.entity.KycDocument;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Content-addressed cache of OCR text and Document Agent results.
+ * Keyed by the SHA-256 of the uploaded bytes and the document type so a
+ * re-upload of the same file skips both OCR and the LLM call. Only VERIFIED
+ * results are cached, so a rejected or low-confidence upload is analysed
+ * again instead of replaying its outcome for the whole TTL. Entries are
+ * scoped to the uploading customer, hold only encrypted payloads, expire with
+ * the GDPR retention period and are evicted on erasure.
+ */
+@Slf4j
+@Component
+public class DocumentAnalysisCache {
+
+    private final Cache<Key, Entry> cache;
+    private final boolean enabled;
+
+    public DocumentAnalysisCache(
+            @Value("${kyc.analysis-cache.enabled:true}") boolean enabled,
+            @Value("${kyc.analysis-cache.max-entries:10000}") long maxEntries,
+            @Value("${gdpr.data-retention-days}") int retentionDays,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofDays(retentionDays))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "documentAnalysis");
+        log.info("Document analysis cache {} (max {} entries, TTL {} days)",
+                enabled ? "enabled" : "disabled", maxEntries, retentionDays);
+    }
+
+    public Optional<Entry> get(String contentHash, KycDocument.DocumentType docType, String customerId) {
+        if (!enabled || contentHash == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(new Key(contentHash, docType, customerId)));
+    }
+
+    public void put(String contentHash, KycDocument.DocumentType docType, String customerId, Entry entry) {
+        if (!enabled || contentHash == null) {
+            return;
+        }
+        cache.put(new Key(contentHash, docType, customerId), entry);
+    }
+
+    /**
+     * Drop every cached analysis for these customers (GDPR Article 17), in one pass over the cache
+     */
+    public void evictCustomers(Set<String> customerIds) {
+        cache.asMap().keySet().removeIf(key -> customerIds.contains(key.customerId()));
+    }
+
+    public record Key(
+            String contentHash,
+            KycDocument.DocumentType docType,
+            String customerId) {
+    }
+
+    /**
+     * Encrypted OCR text and encrypted JSON of the DocumentAnalysisResult
+     */
+    public record Entry(
+            String encryptedOcrText,
+            String encryptedAnalysis) {
+    }
+}
@@ -3,30 +3,39 @@ package com.kyc.ai.service;
 import com.kyc.ai.agent.DocumentAgent;
 import com.kyc.ai.entity.AuditLog;
 import com.kyc.ai.entity.KycDocument;
+import com.kyc.ai.exception.ServiceUnavailableException;
+import com.kyc.ai.ocr.ImagePreprocessor;
+import com.kyc.ai.ocr.TesseractPool;
 import com.kyc.ai.repository.KycDocumentRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import io.minio.GetObjectArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.sourceforge.tess4j.Tesseract;
 import net.sourceforge.tess4j.TesseractException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Future;
 
 @Slf4j
 @Service
@@ -37,68 +46,311 @@ public class DocumentAnalysisService {
     private final GdprService gdprService;
     private final KycDocumentRepository documentRepository;
     private final MinioClient minioClient;
-    private final Tesseract tesseract;
+    private final TesseractPool tesseractPool;
+    private final ImagePreprocessor imagePreprocessor;
     private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final DocumentAnalysisCache analysisCache;
+    private final MrzAnalysisService mrzAnalysisService;
+    private final StageExecutor stageExecutor;
 
     @Value("${minio.bucket-name}")
     private String bucketName;
 
     /**
-     * Process KYC document submission
+     * Process KYC document submission.
+     * Not transactional: the IN_PROGRESS insert and the result update each run in
+     * their own short transaction so no connection is held across OCR and the LLM call.
      */
-    @Transactional
     public KycDocument processDocument(String customerId, MultipartFile file,
             KycDocument.DocumentType docType,
             KycDocument.LegalBasis legalBasis) {
         log.info("Processing document for customer: {}, type: {}", customerId, docType);
 
+        KycDocument document = null;
+        String storagePath = null;
+        Future<String> ocr = null;
         try {
-            // 1. Store document in MinIO
-            String storagePath = storeDocument(file, customerId);
+            // Re-upload of a file we already analysed: skip OCR and the LLM call
+            String contentHash = hashContent(file);
+            Optional<CachedAnalysis> cached = cachedAnalysis(contentHash, docType, customerId);
+
+            // 1. Extract text using OCR on the stage executor while the original is stored in MinIO
+            if (cached.isEmpty()) {
+                ocr = stageExecutor.submit(() -> extractText(file));
+            }
+            storagePath = storeDocument(file, customerId);
+
+            // 2. Create document record (committed immediately as IN_PROGRESS)
+            document = documentRepository.save(newDocument(customerId, docType, legalBasis,
+                    storagePath, contentHash, KycDocument.VerificationStatus.IN_PROGRESS));
 
-            // 2. Create document record
-            KycDocument document = KycDocument.builder()
-                    .customerId(customerId)
-                    .documentType(docType)
-                    .storagePath(storagePath)
-                    .verificationStatus(KycDocument.VerificationStatus.IN_PROGRESS)
-                    .processingLegalBasis(legalBasis)
-                    .consentTimestamp(LocalDateTime.now())
-                    .dataRetentionUntil(gdprService.calculateRetentionExpiry())
-                    .build();
-
-            document = documentRepository.save(document);
-
-            // 3. Extract text using OCR
-            String ocrText = extractText(file);
+            if (cached.isPresent()) {
+                document.setText(cached.get().encryptedOcrText());
+                return recordAnalysis(document, cached.get().analysis(), "CACHE");
+            }
+
+            // 3. Join OCR
+            String ocrText = stageExecutor.await(ocr);
             document.setText(gdprService.encrypt(ocrText));
 
-            // 4. Analyze with AI agent
-            DocumentAgent.DocumentAnalysisResult analysis = documentAgent.analyzeDocument(
-                    docType.name(),
-                    "UNKNOWN", // Country could be detected or provided
-                    ocrText,
-                    gdprService.hashIdentifier(customerId),
-                    legalBasis.name());
-            log.info("this is the extrated data from document ",analysis.toString());
-
-            // 5. Update document with analysis results
-            document.setConfidenceScore(analysis.confidenceScores().overall());
-            document.setExtractedData(convertToJson(analysis.extractedData()));
-            document.setVerificationStatus(determineVerificationStatus(analysis));
-            document.setProcessedAt(LocalDateTime.now());
-            document.setProcessedBy("AI_AGENT");
-
-            // Store findings in metadata
-            List<String> findings = new java.util.ArrayList<>();
-            if (analysis.validationWarnings() != null)
-                findings.addAll(analysis.validationWarnings());
-            if (analysis.validationResults().suspiciousPatterns() != null)
-                findings.addAll(analysis.validationResults().suspiciousPatterns());
-            document.setMetadata(safeSerialize(Map.of("findings", findings)));
+            // 4. Analyze with AI agent and record the results
+            return analyzeAndRecord(document, ocrText);
+
+        } catch (Exception e) {
+            log.error("Document processing failed", e);
+            stageExecutor.cancel(ocr);
+            if (e instanceof ServiceUnavailableException unavailable) {
+                // The client is told to retry, so drop this attempt instead of leaving an orphan behind
+                discardAttempt(document, storagePath);
+                logProcessingFailure(customerId, legalBasis, e);
+                throw unavailable;
+            }
+            if (document != null) {
+                markForReview(document.getId(), "AI_AGENT", "Automated processing failed", e);
+            } else {
+                logProcessingFailure(customerId, legalBasis, e);
+            }
+            throw new RuntimeException("Document processing failed", e);
+        }
+    }
+
+    /**
+     * Remove the record and stored original of a submission rejected with 503
+     */
+    private void discardAttempt(KycDocument document, String storagePath) {
+        if (document != null) {
+            try {
+                documentRepository.deleteById(document.getId());
+            } catch (RuntimeException e) {
+                log.error("Failed to delete document {} of a rejected submission", document.getId(), e);
+            }
+        }
+        if (storagePath != null) {
+            deleteDocument(storagePath);
+        }
+    }
+
+    /**
+     * Persist an upload for asynchronous processing (pipeline stage 0).
+     * Stores the original in MinIO and creates a PENDING record that the
+     * OCR stage picks up by id.
+     */
+    public KycDocument registerUpload(String customerId, MultipartFile file,
+            KycDocument.DocumentType docType,
+            KycDocument.LegalBasis legalBasis) {
+        log.info("Registering upload for customer: {}, type: {}", customerId, docType);
+
+        try {
+            String contentHash = hashContent(file);
+            String storagePath = storeDocument(file, customerId);
+            return documentRepository.save(newDocument(customerId, docType, legalBasis,
+                    storagePath, contentHash, KycDocument.VerificationStatus.PENDING));
+        } catch (Exception e) {
+            log.error("Failed to register upload", e);
+            logProcessingFailure(customerId, legalBasis, e);
+            throw new RuntimeException("Failed to register upload", e);
+        }
+    }
+
+    /**
+     * Remove the record and stored original of an upload that could not be queued
+     */
+    public void discardUpload(KycDocument registered, Exception cause) {
+        discardAttempt(registered, registered.getStoragePath());
+        logProcessingFailure(registered.getCustomerId(), registered.getProcessingLegalBasis(), cause);
+    }
+
+    /**
+     * OCR pipeline stage: read the stored original back from MinIO and
+     * persist the encrypted OCR text on the document. The document goes back
+     * to PENDING while it waits for the analysis stage. False if the document
+     * was no longer queued, in which case nothing is done.
+     */
+    public boolean runOcrStage(UUID documentId) throws IOException {
+        if (!startQueuedStage(documentId)) {
+            log.warn("Document {} is no longer queued for OCR, skipping", documentId);
+            return false;
+        }
+        KycDocument document = getDocument(documentId);
+
+        Optional<CachedAnalysis> cached = cachedAnalysis(document);
+        if (cached.isPresent()) {
+            return storeOcrText(documentId, cached.get().encryptedOcrText());
+        }
+
+        String encryptedText;
+        try (InputStream is = minioClient.getObject(
+                GetObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(document.getStoragePath())
+                        .build())) {
+            String ocrText = extractText(is, document.getStoragePath());
+            encryptedText = gdprService.encrypt(ocrText);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Could not read stored document: " + document.getStoragePath(), e);
+        }
+
+        return storeOcrText(documentId, encryptedText);
+    }
+
+    /**
+     * Store the OCR text and put the document back in the queue, unless it
+     * was flagged for review or erased while OCR ran
+     */
+    private boolean storeOcrText(UUID documentId, String encryptedText) {
+        Integer updated = transactionTemplate.execute(status -> documentRepository.updateOcrTextIfInProgress(
+                documentId, encryptedText, LocalDateTime.now()));
+        if (updated == null || updated == 0) {
+            log.warn("Document {} left the OCR stage while it ran, discarding the OCR text", documentId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Claim a queued (PENDING) document for a pipeline stage. The move to
+     * IN_PROGRESS refreshes updated_at, so the reconciler only measures the
+     * stage itself, not the time spent in the queue. False if the document
+     * left the queue in the meantime, e.g. it was flagged for review.
+     */
+    public boolean startQueuedStage(UUID documentId) {
+        Integer claimed = transactionTemplate.execute(status -> documentRepository.updateStatusIfCurrent(
+                documentId, KycDocument.VerificationStatus.PENDING, KycDocument.VerificationStatus.IN_PROGRESS,
+                LocalDateTime.now()));
+        return claimed != null && claimed > 0;
+    }
+
+    /**
+     * Put a document whose stage was turned away by a transient overload back
+     * in the queue, undoing {@link #startQueuedStage}
+     */
+    public void returnToQueue(UUID documentId) {
+        transactionTemplate.execute(status -> documentRepository.updateStatusIfCurrent(
+                documentId, KycDocument.VerificationStatus.IN_PROGRESS, KycDocument.VerificationStatus.PENDING,
+                LocalDateTime.now()));
+    }
+
+    /**
+     * Analysis pipeline stage: run the Document Agent on the OCR text produced
+     * by the OCR stage and record the verification outcome.
+     */
+    public KycDocument runAnalysisStage(UUID documentId) {
+        KycDocument document = getDocument(documentId);
+
+        Optional<CachedAnalysis> cached = cachedAnalysis(document);
+        if (cached.isPresent()) {
+            return recordAnalysis(document, cached.get().analysis(), "CACHE");
+        }
+
+        String ocrText = gdprService.decrypt(document.getText());
+        return analyzeAndRecord(document, ocrText != null ? ocrText : "");
+    }
+
+    /**
+     * Mark a document whose pipeline stage failed so it surfaces for human review
+     */
+    public void markStageFailed(UUID documentId, String stage, Exception cause) {
+        markForReview(documentId, "PIPELINE_" + stage, "Automated processing failed at stage " + stage, cause);
+    }
+
+    /**
+     * Move a document to NEEDS_REVIEW with a single finding and audit the failure
+     */
+    public void markForReview(UUID documentId, String processedBy, String finding, Exception cause) {
+        transactionTemplate.executeWithoutResult(status ->
+                documentRepository.findById(documentId).ifPresent(document -> {
+                    document.setVerificationStatus(KycDocument.VerificationStatus.NEEDS_REVIEW);
+                    document.setProcessedAt(LocalDateTime.now());
+                    document.setProcessedBy(processedBy);
+                    document.setMetadata(safeSerialize(Map.of("findings", List.of(finding))));
+                    documentRepository.save(document);
+                    logProcessingFailure(document.getCustomerId(), document.getProcessingLegalBasis(), cause);
+                }));
+    }
+
+    /**
+     * Mark a document rejected before analysis (e.g. failed privacy routing)
+     */
+    @Transactional
+    public KycDocument markRejected(UUID documentId, String finding) {
+        KycDocument document = getDocument(documentId);
+        document.setVerificationStatus(KycDocument.VerificationStatus.REJECTED);
+        document.setProcessedAt(LocalDateTime.now());
+        document.setProcessedBy("SUPERVISOR_AGENT");
+        document.setMetadata(safeSerialize(Map.of("findings", List.of(finding))));
+        return documentRepository.save(document);
+    }
 
+    private KycDocument analyzeAndRecord(KycDocument document, String ocrText) {
+        // Passports and ID cards with a valid MRZ don't need the LLM
+        Optional<DocumentAgent.DocumentAnalysisResult> mrzAnalysis = mrzAnalysisService.analyze(
+                document.getDocumentType(), document.getProcessingLegalBasis(), ocrText);
+        String method = mrzAnalysis.isPresent() ? "MRZ" : "LLM";
+
+        // Long-running LLM call - deliberately outside any transaction
+        DocumentAgent.DocumentAnalysisResult analysis = mrzAnalysis.orElseGet(() -> documentAgent.analyzeDocument(
+                document.getDocumentType().name(),
+                "UNKNOWN", // Country could be detected or provided
+                ocrText,
+                gdprService.hashIdentifier(document.getCustomerId()),
+                document.getProcessingLegalBasis().name()));
+        log.debug("Document analysis ({}) completed for document: {}", method, document.getId());
+
+        if (!storeAnalysis(document, analysis, method)) {
+            return currentState(document);
+        }
+
+        // Only clean verifications are reused; a rejected or doubtful result gets a fresh look on re-upload
+        if (document.getVerificationStatus() == KycDocument.VerificationStatus.VERIFIED) {
+            analysisCache.put(document.getContentHash(), document.getDocumentType(), document.getCustomerId(),
+                    new DocumentAnalysisCache.Entry(document.getText(), gdprService.encrypt(safeSerialize(analysis))));
+        }
+        return document;
+    }
+
+    private KycDocument recordAnalysis(KycDocument document, DocumentAgent.DocumentAnalysisResult analysis,
+            String method) {
+        return storeAnalysis(document, analysis, method) ? document : currentState(document);
+    }
+
+    /**
+     * Write the analysis outcome to the document. Only a document still
+     * IN_PROGRESS and not anonymized is updated, so a GDPR erasure or a
+     * reconciler flag that landed during the analysis is not overwritten.
+     * False if the outcome was discarded for that reason.
+     */
+    private boolean storeAnalysis(KycDocument document, DocumentAgent.DocumentAnalysisResult analysis,
+            String method) {
+        KycDocument.DocumentType docType = document.getDocumentType();
+        KycDocument.LegalBasis legalBasis = document.getProcessingLegalBasis();
+
+        // Update document with analysis results
+        document.setConfidenceScore(analysis.confidenceScores().overall());
+        document.setExtractedData(convertToJson(analysis.extractedData()));
+        document.setVerificationStatus(determineVerificationStatus(analysis));
+        document.setProcessedAt(LocalDateTime.now());
+        document.setProcessedBy("MRZ".equals(method) ? "MRZ_PARSER" : "AI_AGENT");
+
+        // Store findings in metadata
+        List<String> findings = new java.util.ArrayList<>();
+        if (analysis.validationWarnings() != null)
+            findings.addAll(analysis.validationWarnings());
+        if (analysis.validationResults().suspiciousPatterns() != null)
+            findings.addAll(analysis.validationResults().suspiciousPatterns());
+        document.setMetadata(safeSerialize(Map.of("findings", findings)));
+
+        Boolean stored = transactionTemplate.execute(status -> {
+            int updated = documentRepository.updateAnalysisIfInProgress(document.getId(), document.getText(),
+                    document.getConfidenceScore(), document.getExtractedData(), document.getMetadata(),
+                    document.getVerificationStatus(), document.getProcessedBy(), document.getProcessedAt());
+            if (updated == 0) {
+                return false;
+            }
             gdprService.logDataAccess(
-                    customerId,
+                    document.getCustomerId(),
                     AuditLog.AuditAction.PROCESS,
                     AuditLog.LegalBasis.valueOf(legalBasis.name()),
                     "AI_AGENT",
@@ -107,40 +359,113 @@ public class DocumentAnalysisService {
                     safeSerialize(Map.of(
                             "docType", docType,
                             "confidence", analysis.confidenceScores().overall(),
-                            "findings", findings)));
+                            "findings", findings,
+                            "method", method)));
+            return true;
+        });
+        if (!Boolean.TRUE.equals(stored)) {
+            log.warn("Document {} left IN_PROGRESS during analysis, discarding the {} result",
+                    document.getId(), method);
+            return false;
+        }
+        return true;
+    }
 
-            return documentRepository.save(document);
+    /**
+     * The stored state of a document whose analysis outcome was discarded
+     */
+    private KycDocument currentState(KycDocument document) {
+        return documentRepository.findById(document.getId()).orElse(document);
+    }
 
-        } catch (Exception e) {
-            log.error("Document processing failed", e);
-            gdprService.logDataAccess(
-                    customerId,
-                    AuditLog.AuditAction.PROCESS,
-                    AuditLog.LegalBasis.valueOf(legalBasis.name()),
-                    "AI_AGENT",
-                    new String[] { "DOCUMENT" },
-                    false,
-                    safeSerialize(Map.of("error", e.getMessage() != null ? e.getMessage() : "Unknown error")));
-            throw new RuntimeException("Document processing failed", e);
+    /**
+     * Look up a previous analysis of the same bytes for this customer
+     */
+    private Optional<CachedAnalysis> cachedAnalysis(KycDocument document) {
+        return cachedAnalysis(document.getContentHash(), document.getDocumentType(), document.getCustomerId());
+    }
+
+    private Optional<CachedAnalysis> cachedAnalysis(String contentHash, KycDocument.DocumentType docType,
+            String customerId) {
+        return analysisCache.get(contentHash, docType, customerId)
+                .flatMap(entry -> {
+                    try {
+                        DocumentAgent.DocumentAnalysisResult analysis = objectMapper.readValue(
+                                gdprService.decrypt(entry.encryptedAnalysis()),
+                                DocumentAgent.DocumentAnalysisResult.class);
+                        log.info("Analysis cache hit for content hash: {}", contentHash);
+                        return Optional.of(new CachedAnalysis(entry.encryptedOcrText(), analysis));
+                    } catch (Exception e) {
+                        log.warn("Ignoring unreadable cached analysis for content hash: {}", contentHash);
+                        return Optional.empty();
+                    }
+                });
+    }
+
+    /**
+     * SHA-256 of the uploaded bytes, streamed so the file is not buffered twice
+     */
+    private String hashContent(MultipartFile file) throws IOException {
+        try (DigestInputStream in = new DigestInputStream(file.getInputStream(),
+                MessageDigest.getInstance("SHA-256"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
+    private KycDocument newDocument(String customerId, KycDocument.DocumentType docType,
+            KycDocument.LegalBasis legalBasis, String storagePath, String contentHash,
+            KycDocument.VerificationStatus status) {
+        return KycDocument.builder()
+                .customerId(customerId)
+                .documentType(docType)
+                .storagePath(storagePath)
+                .contentHash(contentHash)
+                .verificationStatus(status)
+                .processingLegalBasis(legalBasis)
+                .consentTimestamp(LocalDateTime.now())
+                .dataRetentionUntil(gdprService.calculateRetentionExpiry())
+                .build();
+    }
+
+    void logProcessingFailure(String customerId, KycDocument.LegalBasis legalBasis, Exception e) {
+        gdprService.logDataAccess(
+                customerId,
+                AuditLog.AuditAction.PROCESS,
+                AuditLog.LegalBasis.valueOf(legalBasis.name()),
+                "AI_AGENT",
+                new String[] { "DOCUMENT" },
+                false,
+                safeSerialize(Map.of("error", e.getMessage() != null ? e.getMessage() : "Unknown error")));
+    }
+
     /**
      * Extract text from document using OCR
      */
     public String extractText(MultipartFile file) throws IOException {
         log.info("Starting OCR extraction for file: {}, size: {} bytes",
                 file.getOriginalFilename(), file.getSize());
-        try (InputStream is = new ByteArrayInputStream(file.getBytes())) {
-            BufferedImage image = ImageIO.read(is);
+        try (InputStream is = file.getInputStream()) {
+            return extractText(is, file.getOriginalFilename());
+        }
+    }
+
+    /**
+     * Extract text from an image stream using OCR
+     */
+    public String extractText(InputStream is, String name) throws IOException {
+        try {
+            BufferedImage image = imagePreprocessor.load(is);
             if (image == null) {
-                log.error("Could not read image from file: {}", file.getOriginalFilename());
+                log.error("Could not read image from file: {}", name);
                 throw new IOException("Could not read image from file");
             }
 
             log.debug("Image read successfully ({}x{}). Calling Tesseract...",
                     image.getWidth(), image.getHeight());
-            String result = tesseract.doOCR(image);
+            String result = tesseractPool.execute(tesseract -> tesseract.doOCR(image));
 
             if (result == null) {
                 log.warn("Tesseract returned null result");
@@ -151,11 +476,12 @@ public class DocumentAnalysisService {
                     result.length());
             return result;
         } catch (TesseractException e) {
-            log.error("OCR failed for file: {}", file.getOriginalFilename(), e);
+            log.error("OCR failed for file: {}", name, e);
             throw new IOException("OCR processing failed", e);
+        } catch (IOException | ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("Unexpected error during OCR processing for file: {}",
-                    file.getOriginalFilename(), e);
+            log.error("Unexpected error during OCR processing for file: {}", name, e);
             throw new IOException("Unexpected OCR error", e);
         }
     }
@@ -224,6 +550,9 @@ public class DocumentAnalysisService {
         return KycDocument.VerificationStatus.VERIFIED;
     }
 
+    private record CachedAnalysis(String encryptedOcrText, DocumentAgent.DocumentAnalysisResult analysis) {
+    }
+
     private String convertToJson(DocumentAgent.ExtractedData data) {
         return safeSerialize(data);
     }
@@ -249,6 +578,14 @@ public class DocumentAnalysisService {
                 .orElseThrow(() -> new RuntimeException("Document not found: " + id));
     }
 
+    /**
+     * Find document by ID
+     */
+    @Transactional(readOnly = true)
+    public java.util.Optional<KycDocument> findDocument(UUID id) {
+        return documentRepository.findById(id);
+    }
+
     /**
      * Get documents by customer ID
      */
@@ -0,0 +1,83 @@
+package com.kyc.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyc.ai.entity.KycDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reconciles documents left IN_PROGRESS by a crashed or killed worker.
+ * Since document stages now commit separately, a failure between the
+ * IN_PROGRESS insert and the result update leaves the row behind; these are
+ * moved to NEEDS_REVIEW once they exceed the stale threshold. Documents
+ * waiting in a pipeline queue are PENDING and each stage refreshes
+ * updated_at when it claims one, so only running stages are measured.
+ * PENDING documents whose queue message was lost (a crash between upload and
+ * publish, or a failed retry publish) are flagged the same way after the
+ * longer pending-stale-after, which has to cover the worst queue backlog. The
+ * transition is a single conditional UPDATE, so a document that finished in
+ * the meantime keeps its outcome.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentReconciliationService {
+
+    record StuckDocument(UUID id, String customerId, KycDocument.LegalBasis legalBasis) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DocumentAnalysisService documentService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${kyc.reconciler.stale-after:PT15M}")
+    private Duration staleAfter;
+
+    @Value("${kyc.reconciler.pending-stale-after:PT2H}")
+    private Duration pendingStaleAfter;
+
+    @Scheduled(fixedDelayString = "${kyc.reconciler.interval:PT5M}")
+    public void reconcileStuckDocuments() {
+        flagStuck(KycDocument.VerificationStatus.IN_PROGRESS, staleAfter,
+                "Processing did not complete within " + staleAfter.toMinutes() + " minutes");
+        flagStuck(KycDocument.VerificationStatus.PENDING, pendingStaleAfter,
+                "Processing did not start within " + pendingStaleAfter.toMinutes() + " minutes");
+    }
+
+    private void flagStuck(KycDocument.VerificationStatus status, Duration threshold, String finding) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime before = now.minus(threshold);
+        String findings = objectMapper.valueToTree(Map.of("findings", List.of(finding))).toString();
+
+        List<StuckDocument> stuck = jdbcTemplate.query("""
+                UPDATE kyc_documents
+                SET verification_status = 'NEEDS_REVIEW', processed_at = ?, processed_by = 'RECONCILER',
+                    metadata = CAST(? AS jsonb), updated_at = ?
+                WHERE verification_status = ? AND updated_at < ?
+                RETURNING embedding_id, customer_id, processing_legal_basis
+                """, (rs, rowNum) -> new StuckDocument(rs.getObject("embedding_id", UUID.class),
+                rs.getString("customer_id"), KycDocument.LegalBasis.valueOf(rs.getString("processing_legal_basis"))),
+                Timestamp.valueOf(now), findings, Timestamp.valueOf(now), status.name(), Timestamp.valueOf(before));
+
+        if (stuck.isEmpty()) {
+            return;
+        }
+
+        log.warn("Moved {} documents stuck {} since before {} to NEEDS_REVIEW", stuck.size(), status, before);
+        IllegalStateException cause = new IllegalStateException("Document stuck " + status);
+        for (StuckDocument document : stuck) {
+            documentService.logProcessingFailure(document.customerId(), document.legalBasis(), cause);
+        }
+    }
+}
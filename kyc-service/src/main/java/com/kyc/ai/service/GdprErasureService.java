@@ -0,0 +1,276 @@
+package com.kyc.ai.service;
+
+import com.kyc.ai.conversation.ConversationStore;
+import com.kyc.ai.entity.AuditLog;
+import com.kyc.ai.exception.BadRequestException;
+import com.kyc.ai.llm.LlmResponseCacheInterceptor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Right to Erasure (GDPR Article 17) for one customer or a DPO batch.
+ * Each table is erased with a single statement over all customers of the
+ * request, in one transaction that also records an erasure request per
+ * customer, queues the customers' uploads for removal and writes their
+ * DATA_DELETION audit entries. The uploads are removed afterwards by
+ * {@link StorageDeletionWorker}; a request is COMPLETED once its objects are
+ * gone, which callers follow through {@link #find(UUID)}.
+ * With gdpr.anonymization-enabled, documents are anonymized and transactions
+ * are kept for AML record keeping under a pseudonymous customer id without
+ * the counterparty name; otherwise both are deleted.
+ */
+@Slf4j
+@Service
+public class GdprErasureService {
+
+    public enum Status { STORAGE_PENDING, COMPLETED, STORAGE_FAILED }
+
+    public record Erasure(
+            UUID id,
+            String customerId,
+            UUID batchId,
+            String requestedBy,
+            Status status,
+            int documentsErased,
+            int transactionsErased,
+            int conversationsErased,
+            int objectsTotal,
+            int objectsRemoved,
+            int objectsFailed,
+            LocalDateTime requestedAt,
+            LocalDateTime completedAt) {
+    }
+
+    private static final String[] DATA_CATEGORIES = { "PERSONAL_DATA", "DOCUMENTS", "TRANSACTIONS", "CHAT_HISTORY" };
+
+    private static final String SELECT = """
+            SELECT id, customer_id, batch_id, requested_by, status, documents_erased, transactions_erased,
+                   conversations_erased, objects_total, objects_removed, objects_failed, requested_at, completed_at
+            FROM gdpr_erasure_requests
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GdprService gdprService;
+    private final AuditLogWriter auditLogWriter;
+    private final ConversationStore conversationStore;
+    private final DocumentAnalysisCache analysisCache;
+    private final LlmResponseCacheInterceptor llmResponseCache;
+    private final boolean anonymizationEnabled;
+    private final int maxBatchSize;
+
+    private final Timer erasureTimer;
+    private final DistributionSummary customersPerRequest;
+
+    public GdprErasureService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            GdprService gdprService, AuditLogWriter auditLogWriter, ConversationStore conversationStore,
+            DocumentAnalysisCache analysisCache, LlmResponseCacheInterceptor llmResponseCache,
+            @Value("${gdpr.anonymization-enabled}") boolean anonymizationEnabled,
+            @Value("${kyc.gdpr.erasure.max-batch-size:1000}") int maxBatchSize,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.gdprService = gdprService;
+        this.auditLogWriter = auditLogWriter;
+        this.conversationStore = conversationStore;
+        this.analysisCache = analysisCache;
+        this.llmResponseCache = llmResponseCache;
+        this.anonymizationEnabled = anonymizationEnabled;
+        this.maxBatchSize = maxBatchSize;
+
+        this.erasureTimer = Timer.builder("kyc.gdpr.erasure")
+                .description("Time to erase the database records of one erasure request")
+                .register(meterRegistry);
+        this.customersPerRequest = DistributionSummary.builder("kyc.gdpr.erasure.customers")
+                .description("Customers per erasure request")
+                .register(meterRegistry);
+    }
+
+    public Erasure erase(String customerId, String requestedBy, String reason) {
+        return eraseAll(List.of(customerId), null, requestedBy, reason).get(0);
+    }
+
+    /**
+     * Erase a DPO batch; every customer gets its own erasure request under a shared batch id
+     */
+    public List<Erasure> eraseBatch(Collection<String> customerIds, String requestedBy, String reason) {
+        if (customerIds.isEmpty() || customerIds.size() > maxBatchSize) {
+            throw new BadRequestException("A batch must list 1 to " + maxBatchSize + " customers");
+        }
+        return eraseAll(customerIds, UUID.randomUUID(), requestedBy, reason);
+    }
+
+    public Optional<Erasure> find(UUID erasureId) {
+        return jdbcTemplate.query(SELECT + " WHERE id = ?", this::mapErasure, erasureId).stream().findFirst();
+    }
+
+    public List<Erasure> findByCustomer(String customerId) {
+        return jdbcTemplate.query(SELECT + " WHERE customer_id = ? ORDER BY requested_at DESC", this::mapErasure,
+                customerId);
+    }
+
+    public List<Erasure> findByBatch(UUID batchId) {
+        return jdbcTemplate.query(SELECT + " WHERE batch_id = ? ORDER BY customer_id", this::mapErasure, batchId);
+    }
+
+    private List<Erasure> eraseAll(Collection<String> customerIds, UUID batchId, String requestedBy,
+            String reason) {
+        List<String> customers = List.copyOf(new LinkedHashSet<>(customerIds));
+        log.info("Erasing data for {} customers requested by {}", customers.size(), requestedBy);
+
+        List<Erasure> erasures = erasureTimer.record(() -> transactionTemplate.execute(status -> {
+            Map<String, Integer> documents = new HashMap<>();
+            Map<String, List<String>> objects = new HashMap<>();
+            jdbcTemplate.query(anonymizationEnabled ? """
+                    UPDATE kyc_documents d
+                    SET anonymized = true, text = '[ANONYMIZED]', extracted_data = NULL, embedding = NULL,
+                        storage_path = NULL, content_hash = NULL, updated_at = CURRENT_TIMESTAMP
+                    FROM (SELECT embedding_id, customer_id, storage_path FROM kyc_documents
+                          WHERE customer_id = ANY(?) FOR UPDATE) erased
+                    WHERE d.embedding_id = erased.embedding_id
+                    RETURNING erased.customer_id, erased.storage_path
+                    """ : """
+                    DELETE FROM kyc_documents WHERE customer_id = ANY(?) RETURNING customer_id, storage_path
+                    """, customerArray(customers), (RowCallbackHandler) rs -> {
+                String customerId = rs.getString("customer_id");
+                documents.merge(customerId, 1, Integer::sum);
+                String storagePath = rs.getString("storage_path");
+                if (storagePath != null && !storagePath.isBlank()) {
+                    objects.computeIfAbsent(customerId, id -> new ArrayList<>()).add(storagePath);
+                }
+            });
+
+            Map<String, Integer> transactions = new HashMap<>();
+            jdbcTemplate.query(anonymizationEnabled ? """
+                    UPDATE financial_transactions t
+                    SET customer_id = 'ERASED:' || encode(digest(erased.customer_id, 'sha256'), 'base64'),
+                        counterparty_name = NULL
+                    FROM (SELECT id, customer_id FROM financial_transactions
+                          WHERE customer_id = ANY(?) FOR UPDATE) erased
+                    WHERE t.id = erased.id
+                    RETURNING erased.customer_id
+                    """ : """
+                    DELETE FROM financial_transactions WHERE customer_id = ANY(?) RETURNING customer_id
+                    """, customerArray(customers),
+                    (RowCallbackHandler) rs -> transactions.merge(rs.getString("customer_id"), 1, Integer::sum));
+
+            // Chat sessions are owned by the customer's login, which is the customer id
+            Map<String, Integer> conversations = conversationStore.deleteByOwners(customers);
+
+            LocalDateTime now = LocalDateTime.now();
+            List<Erasure> created = customers.stream()
+                    .map(customerId -> {
+                        int objectCount = objects.getOrDefault(customerId, List.of()).size();
+                        return new Erasure(UUID.randomUUID(), customerId, batchId, requestedBy,
+                                objectCount > 0 ? Status.STORAGE_PENDING : Status.COMPLETED,
+                                documents.getOrDefault(customerId, 0), transactions.getOrDefault(customerId, 0),
+                                conversations.getOrDefault(customerId, 0), objectCount, 0, 0, now,
+                                objectCount > 0 ? null : now);
+                    })
+                    .toList();
+            record(created, reason);
+            queueObjects(created, objects);
+            auditLogWriter.writeAll(created.stream()
+                    .map(erasure -> gdprService.auditEntry(erasure.customerId(),
+                            AuditLog.AuditAction.DATA_DELETION, AuditLog.LegalBasis.GDPR_ARTICLE_17,
+                            requestedBy, DATA_CATEGORIES, true, details(erasure)))
+                    .toList());
+            return created;
+        }));
+
+        // Cached OCR text, analyses and agent responses are personal data too
+        analysisCache.evictCustomers(Set.copyOf(customers));
+        llmResponseCache.evictSubjects(customers.stream().map(gdprService::hashIdentifier)
+                .collect(Collectors.toSet()));
+        customersPerRequest.record(customers.size());
+        return erasures;
+    }
+
+    private void record(List<Erasure> erasures, String reason) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO gdpr_erasure_requests (id, customer_id, batch_id, requested_by, reason, status,
+                    documents_erased, transactions_erased, conversations_erased, objects_total,
+                    requested_at, completed_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, erasures, erasures.size(), (statement, erasure) -> {
+            statement.setObject(1, erasure.id());
+            statement.setString(2, erasure.customerId());
+            statement.setObject(3, erasure.batchId());
+            statement.setString(4, erasure.requestedBy());
+            statement.setString(5, reason);
+            statement.setString(6, erasure.status().name());
+            statement.setInt(7, erasure.documentsErased());
+            statement.setInt(8, erasure.transactionsErased());
+            statement.setInt(9, erasure.conversationsErased());
+            statement.setInt(10, erasure.objectsTotal());
+            statement.setTimestamp(11, Timestamp.valueOf(erasure.requestedAt()));
+            statement.setTimestamp(12, erasure.completedAt() != null ? Timestamp.valueOf(erasure.completedAt()) : null);
+        });
+    }
+
+    private void queueObjects(List<Erasure> erasures, Map<String, List<String>> objects) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Erasure erasure : erasures) {
+            for (String objectName : objects.getOrDefault(erasure.customerId(), List.of())) {
+                rows.add(new Object[] { erasure.id(), objectName });
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO gdpr_storage_deletions (erasure_id, object_name) VALUES (?, ?)",
+                    rows);
+        }
+    }
+
+    private String details(Erasure erasure) {
+        return "{\"erasureId\": \"" + erasure.id() + "\", \"documents\": " + erasure.documentsErased()
+                + ", \"transactions\": " + erasure.transactionsErased()
+                + ", \"conversations\": " + erasure.conversationsErased()
+                + ", \"objectsQueued\": " + erasure.objectsTotal() + "}";
+    }
+
+    private static PreparedStatementSetter customerArray(List<String> customers) {
+        return statement -> statement.setArray(1,
+                statement.getConnection().createArrayOf("varchar", customers.toArray()));
+    }
+
+    private Erasure mapErasure(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp completedAt = rs.getTimestamp("completed_at");
+        return new Erasure(
+                rs.getObject("id", UUID.class),
+                rs.getString("customer_id"),
+                rs.getObject("batch_id", UUID.class),
+                rs.getString("requested_by"),
+                Status.valueOf(rs.getString("status")),
+                rs.getInt("documents_erased"),
+                rs.getInt("transactions_erased"),
+                rs.getInt("conversations_erased"),
+                rs.getInt("objects_total"),
+                rs.getInt("objects_removed"),
+                rs.getInt("objects_failed"),
+                rs.getTimestamp("requested_at").toLocalDateTime(),
+                completedAt != null ? completedAt.toLocalDateTime() : null);
+    }
+}
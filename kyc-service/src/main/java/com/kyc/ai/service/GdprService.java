@@ -4,14 +4,14 @@ import com.kyc.ai.entity.AuditLog;
 import com.kyc.ai.entity.KycDocument;
 import com.kyc.ai.repository.AuditLogRepository;
 import com.kyc.ai.repository.KycDocumentRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.GCMParameterSpec;
@@ -36,13 +36,9 @@ public class GdprService {
     @Value("${gdpr.data-retention-days}")
     private int retentionDays;
 
-    @Value("${gdpr.anonymization-enabled}")
-    private boolean anonymizationEnabled;
-
     private final KycDocumentRepository documentRepository;
     private final AuditLogRepository auditLogRepository;
-    private final HttpServletRequest request;
-    private final ObjectMapper objectMapper;
+    private final AuditLogWriter auditLogWriter;
 
     private static final Pattern PII_PATTERNS = Pattern.compile(
             "\\b\\d{3}-\\d{2}-\\d{4}\\b|" + // SSN-like
@@ -171,37 +167,54 @@ public class GdprService {
     }
 
     /**
-     * Log data access for audit trail (GDPR Article 30)
+     * Log data access for audit trail (GDPR Article 30).
+     * The client address and User-Agent are read here, on the caller's thread;
+     * the entry is then handed to the {@link AuditLogWriter}. Failures are
+     * logged, except for actions the writer persists synchronously, which
+     * must not succeed without their audit entry.
      */
-    @Transactional
     public void logDataAccess(String customerId, AuditLog.AuditAction action,
             AuditLog.LegalBasis legalBasis, String performedBy,
             String[] dataCategories, boolean success, String details) {
         try {
-            AuditLog auditLog = AuditLog.builder()
-                    .customerId(customerId)
-                    .action(action)
-                    .performedBy(performedBy)
-                    .ipAddress(getClientIpAddress())
-                    .userAgent(request.getHeader("User-Agent"))
-                    .legalBasis(legalBasis)
-                    .dataCategories(dataCategories)
-                    .requestId(UUID.randomUUID().toString())
-                    .details(details)
-                    .success(success)
-                    .build();
-
-            auditLogRepository.save(auditLog);
-            log.debug("Audit log created: {}", auditLog.getId());
-        } catch (Exception e) {
+            AuditLog auditLog = auditEntry(customerId, action, legalBasis, performedBy, dataCategories, success,
+                    details);
+            auditLogWriter.write(auditLog);
+            log.debug("Audit log recorded: {}", auditLog.getId());
+        } catch (RuntimeException e) {
+            if (auditLogWriter.isSynchronous(action)) {
+                throw e;
+            }
             log.error("Failed to create audit log", e);
         }
     }
 
+    /**
+     * Audit entry carrying the current request's client address and
+     * User-Agent, for callers that hand several entries to the writer at once
+     */
+    public AuditLog auditEntry(String customerId, AuditLog.AuditAction action,
+            AuditLog.LegalBasis legalBasis, String performedBy,
+            String[] dataCategories, boolean success, String details) {
+        HttpServletRequest request = currentRequest();
+        return AuditLog.builder()
+                .customerId(customerId)
+                .action(action)
+                .performedBy(performedBy)
+                .ipAddress(getClientIpAddress(request))
+                .userAgent(request != null ? request.getHeader("User-Agent") : null)
+                .legalBasis(legalBasis)
+                .dataCategories(dataCategories)
+                .requestId(UUID.randomUUID().toString())
+                .details(details)
+                .success(success)
+                .build();
+    }
+
     /**
      * Export customer data (Right to Portability - GDPR Article 20)
      */
-    @Transactional(readOnly = true)
+    @Transactional
     public Map<String, Object> exportCustomerData(String customerId) {
         log.info("Exporting data for customer: {}", customerId);
 
@@ -226,66 +239,22 @@ public class GdprService {
     }
 
     /**
-     * Delete customer data (Right to Erasure - GDPR Article 17)
-     */
-    @Transactional
-    public boolean deleteCustomerData(String customerId) {
-        log.info("Deleting data for customer: {}", customerId);
-
-        try {
-            List<KycDocument> documents = documentRepository.findByCustomerId(customerId);
-
-            // Anonymize or delete documents
-            for (KycDocument doc : documents) {
-                if (anonymizationEnabled) {
-                    documentRepository.anonymizeDocument(doc.getId());
-                } else {
-                    documentRepository.delete(doc);
-                }
-            }
-
-            // Log the deletion
-            logDataAccess(customerId, AuditLog.AuditAction.DATA_DELETION,
-                    AuditLog.LegalBasis.GDPR_ARTICLE_17, "CUSTOMER",
-                    new String[] { "PERSONAL_DATA", "DOCUMENTS" }, true, null);
-
-            return true;
-        } catch (Exception e) {
-            log.error("Failed to delete customer data", e);
-            return false;
-        }
-    }
-
-    /**
-     * Scheduled task to purge expired data
+     * Current HTTP request, or null when called from a queue consumer or scheduler
      */
-    @Scheduled(cron = "0 0 2 * * ?") // Run at 2 AM daily
-    @Transactional
-    public void purgeExpiredData() {
-        log.info("Running scheduled data purge");
-
-        LocalDateTime now = LocalDateTime.now();
-        int deletedCount = documentRepository.deleteExpiredDocuments(now);
-
-        if (deletedCount > 0) {
-            log.info("Purged {} expired documents", deletedCount);
-
-            // Log the purge
-            AuditLog auditLog = AuditLog.builder()
-                    .action(AuditLog.AuditAction.AUTO_PURGE)
-                    .performedBy("SYSTEM")
-                    .legalBasis(AuditLog.LegalBasis.GDPR_ARTICLE_17)
-                    .details(safeSerialize(Map.of("deletedCount", deletedCount)))
-                    .success(true)
-                    .build();
-            auditLogRepository.save(auditLog);
+    private HttpServletRequest currentRequest() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest();
         }
+        return null;
     }
 
     /**
      * Get client IP address from request
      */
-    private InetAddress getClientIpAddress() {
+    private InetAddress getClientIpAddress(HttpServletRequest request) {
+        if (request == null) {
+            return null;
+        }
         try {
             String ip = request.getHeader("X-Forwarded-For");
             if (ip == null || ip.isEmpty()) {
@@ -323,13 +292,4 @@ public class GdprService {
         sanitized.put("dataCategories", log.getDataCategories());
         return sanitized;
     }
-
-    private String safeSerialize(Object data) {
-        try {
-            return objectMapper.writeValueAsString(data);
-        } catch (Exception e) {
-            log.error("Failed to serialize audit details", e);
-            return "{\"error\": \"Serialization failed\"}";
-        }
-    }
 }
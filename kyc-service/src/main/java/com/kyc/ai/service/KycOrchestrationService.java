@@ -1,20 +1,27 @@
 package com.kyc.ai.service;
 
+import com.kyc.ai.agent.RiskAgent;
 import com.kyc.ai.agent.SupervisorAgent;
 import com.kyc.ai.entity.AuditLog;
 import com.kyc.ai.entity.KycDocument;
+import com.kyc.ai.exception.ServiceUnavailableException;
+import com.kyc.ai.messaging.KycPipelineMessage;
+import com.kyc.ai.messaging.KycPipelinePublisher;
 import com.kyc.ai.repository.KycDocumentRepository;
 import com.kyc.ai.service.RiskScoringService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.kyc.ai.agent.DocumentAgent;
 import com.kyc.ai.util.CountryRiskUtil;
 import com.fasterxml.jackson.core.type.TypeReference;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -24,24 +31,29 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class KycOrchestrationService {
 
-        private final SupervisorAgent supervisorAgent;
+        private final SupervisorRoutingService supervisorRouter;
         private final DocumentAnalysisService documentService;
         private final RiskAssessmentService riskService;
         private final RiskScoringService riskScoringService;
         private final GdprService gdprService;
         private final KycDocumentRepository documentRepository;
         private final ObjectMapper objectMapper;
+        private final ObjectProvider<KycPipelinePublisher> pipelinePublisher;
+        private final StageExecutor stageExecutor;
+        private final TransactionTemplate transactionTemplate;
 
         /**
-         * Submit KYC document and orchestrate the verification workflow
+         * Submit KYC document and orchestrate the verification workflow.
+         * Not transactional: each stage commits its own short transaction so no
+         * pooled connection is held across OCR and the agent calls.
          */
-        @Transactional
         public KycSubmissionResult submitKyc(String customerId, MultipartFile document,
                         KycDocument.DocumentType docType,
                         KycDocument.LegalBasis legalBasis) {
@@ -50,34 +62,11 @@ public class KycOrchestrationService {
 
                 // 1. Verify consent (GDPR)
                 if (!gdprService.hasValidConsent(customerId, "KYC_VERIFICATION")) {
-                        gdprService.logDataAccess(
-                                        customerId,
-                                        AuditLog.AuditAction.CREATE,
-                                        AuditLog.LegalBasis.valueOf(legalBasis.name()),
-                                        customerId,
-                                        new String[] { "DOCUMENT" },
-                                        false,
-                                        "{\"error\": \"Consent not provided\"}");
-                        return new KycSubmissionResult(
-                                        "REJECTED",
-                                        "Consent required for KYC processing",
-                                        null,
-                                        null);
+                        return rejectWithoutConsent(customerId, legalBasis);
                 }
 
                 // 2. Route via Supervisor Agent
-                SupervisorAgent.RoutingDecision routing = supervisorAgent.routeTask(
-                                "DOCUMENT_ANALYSIS",
-                                gdprService.hashIdentifier(customerId),
-                                "Analyze " + docType + " for KYC verification",
-                                legalBasis.name(),
-                                0.7, // confidence threshold
-                                getPreviousSubmissionCount(customerId),
-                                getCurrentStatus(customerId),
-                                List.of() // risk indicators
-                );
-
-                if (!routing.privacyChecksPassed()) {
+                if (!routeDocumentAnalysis(customerId, docType, legalBasis).privacyChecksPassed()) {
                         return new KycSubmissionResult(
                                         "REJECTED",
                                         "Privacy check failed - unable to process",
@@ -90,9 +79,10 @@ public class KycOrchestrationService {
                                 customerId, document, docType, legalBasis);
 
                 // 4. If document verified, trigger risk assessment
-                RiskAssessmentService.RiskSummary riskSummary = null;
                 if (processedDoc.getVerificationStatus() == KycDocument.VerificationStatus.VERIFIED) {
-                        riskSummary = performRiskAssessment(customerId, processedDoc);
+                        assessRiskOrFallBack(customerId, processedDoc);
+                        // The risk level and findings are written to the row, not to this copy
+                        processedDoc = documentRepository.findById(processedDoc.getId()).orElse(processedDoc);
                 }
 
                 // 5. Determine overall KYC status
@@ -111,6 +101,74 @@ public class KycOrchestrationService {
                                                 extractFindings(processedDoc)));
         }
 
+        /**
+         * Whether submissions are handed to the asynchronous RabbitMQ pipeline
+         */
+        public boolean isAsyncPipelineEnabled() {
+                return pipelinePublisher.getIfAvailable() != null;
+        }
+
+        /**
+         * Accept a KYC document for asynchronous processing.
+         * Only consent is checked and the upload persisted on the request thread;
+         * OCR, agent analysis and risk assessment run on the pipeline consumers.
+         */
+        public KycSubmissionResult submitKycAsync(String customerId, MultipartFile document,
+                        KycDocument.DocumentType docType,
+                        KycDocument.LegalBasis legalBasis) {
+                log.info("Async KYC submission received for customer: {}, document type: {}",
+                                customerId, docType);
+
+                if (!gdprService.hasValidConsent(customerId, "KYC_VERIFICATION")) {
+                        return rejectWithoutConsent(customerId, legalBasis);
+                }
+
+                KycDocument registered = documentService.registerUpload(customerId, document, docType, legalBasis);
+                try {
+                        pipelinePublisher.getObject().publishOcr(
+                                        new KycPipelineMessage(registered.getId(), customerId, docType, legalBasis, 0));
+                } catch (RuntimeException e) {
+                        // Nothing would ever pick the PENDING record up - drop it and have the client retry
+                        log.error("Failed to queue document {} for processing", registered.getId(), e);
+                        documentService.discardUpload(registered, e);
+                        throw new ServiceUnavailableException("Processing queue unavailable, please retry later");
+                }
+
+                return new KycSubmissionResult(
+                                "ACCEPTED",
+                                "Document queued for processing",
+                                registered.getId(),
+                                null);
+        }
+
+        /**
+         * Analysis pipeline stage: Supervisor routing followed by Document Agent analysis
+         */
+        public KycDocument runAnalysisStage(KycPipelineMessage message) {
+                if (!documentService.startQueuedStage(message.documentId())) {
+                        log.warn("Document {} is no longer queued for analysis, skipping", message.documentId());
+                        return documentService.getDocument(message.documentId());
+                }
+
+                SupervisorAgent.RoutingDecision routing = routeDocumentAnalysis(
+                                message.customerId(), message.docType(), message.legalBasis());
+
+                if (!routing.privacyChecksPassed()) {
+                        return documentService.markRejected(message.documentId(),
+                                        "Privacy check failed - unable to process");
+                }
+                return documentService.runAnalysisStage(message.documentId());
+        }
+
+        /**
+         * Risk pipeline stage: risk assessment for a verified document.
+         * Failures propagate so the listener can retry an overload or send the
+         * document to review.
+         */
+        public void runRiskStage(KycPipelineMessage message) throws Exception {
+                performRiskAssessment(message.customerId(), documentService.getDocument(message.documentId()));
+        }
+
         /**
          * Get KYC status for customer
          */
@@ -143,7 +201,9 @@ public class KycOrchestrationService {
 
                 // Calculate average confidence
                 double avgConfidence = documents.stream()
-                                .mapToDouble(KycDocument::getConfidenceScore)
+                                .map(KycDocument::getConfidenceScore)
+                                .filter(Objects::nonNull)
+                                .mapToDouble(Double::doubleValue)
                                 .filter(score -> score != -1.0)
                                 .average()
                                 .orElse(0.0);
@@ -175,98 +235,113 @@ public class KycOrchestrationService {
                 return List.of();
         }
 
+        /**
+         * Risk assessment for the synchronous submission, falling back to the
+         * stored summary if the assessment fails
+         */
+        private RiskAssessmentService.RiskSummary assessRiskOrFallBack(String customerId, KycDocument document) {
+                try {
+                        return performRiskAssessment(customerId, document);
+                } catch (Exception e) {
+                        log.error("Expert risk assessment failed for customer: {}", customerId, e);
+                        // Fallback to basic summary if refactored logic fails
+                        return riskService.getRiskSummary(customerId);
+                }
+        }
+
         /**
          * Perform risk assessment based on verified document
          */
         private RiskAssessmentService.RiskSummary performRiskAssessment(String customerId,
-                        KycDocument document) {
+                        KycDocument document) throws Exception {
                 log.info("Performing expert risk assessment for customer: {} based on document: {}",
                                 customerId, document.getId());
 
-                try {
-                        // 1. Extract and parse data from document
-                        String extractedDataJson = document.getExtractedData();
-                        if (extractedDataJson == null || extractedDataJson.isEmpty()) {
-                                log.warn("No extracted data found for document: {}", document.getId());
-                                return riskService.getRiskSummary(customerId);
-                        }
+                // 1. Extract and parse data from document
+                String extractedDataJson = document.getExtractedData();
+                if (extractedDataJson == null || extractedDataJson.isEmpty()) {
+                        log.warn("No extracted data found for document: {}", document.getId());
+                        return riskService.getRiskSummary(customerId);
+                }
 
-                        // Use a Map for flexible parsing of ExtractedData
-                        Map<String, Object> data = objectMapper.readValue(extractedDataJson,
-                                        new TypeReference<Map<String, Object>>() {
-                                        });
-
-                        // Parse address if present
-                        Map<String, String> address = (Map<String, String>) data.getOrDefault("address",
-                                        Collections.emptyMap());
-
-                        // 2. Identify Geographic Risks using expert utility
-                        String nationality = (String) data.get("nationality");
-                        String residenceCountry = address.get("country");
-
-                        String nationalityRisk = CountryRiskUtil.getNationalityRisk(nationality);
-                        String residenceRisk = CountryRiskUtil.getResidenceRisk(residenceCountry);
-                        String fatfStatus = CountryRiskUtil.getFatfStatus(residenceCountry);
-
-                        // 3. Extract unusual patterns from the document metadata
-                        List<String> findings = extractFindings(document);
-                        List<String> unusualPatterns = new ArrayList<>(findings);
-
-                        // Add country risk reasons to findings if applicable
-                        String natReason = CountryRiskUtil.getCountryRiskReason(nationality);
-                        if (natReason != null)
-                                unusualPatterns.add("Nationality Risk: " + natReason);
-
-                        String resReason = CountryRiskUtil.getCountryRiskReason(residenceCountry);
-                        if (resReason != null)
-                                unusualPatterns.add("Residence Risk: " + resReason);
-
-                        // 4. Build expert risk data
-                        RiskAssessmentService.CustomerRiskData riskData = new RiskAssessmentService.CustomerRiskData(
-                                        nationality != null ? nationality : "UNKNOWN",
-                                        residenceCountry != null ? residenceCountry : "UNKNOWN",
-                                        "NOT_SPECIFIED", // occupation
-                                        "NOT_SPECIFIED", // industry
-                                        "NOT_SPECIFIED", // income
-                                        "NOT_SPECIFIED", // source of wealth
-                                        false, // PEP (Requires external check)
-                                        null, // PEP level
-                                        0, // adverse media
-                                        "CRITICAL".equals(nationalityRisk), // sanctions indicator
-                                        false, // previous SAR
-                                        nationalityRisk,
-                                        residenceRisk,
-                                        fatfStatus,
-                                        null, // business type
-                                        null, // years
-                                        false, // complex ownership
-                                        false, // cash intensive
-                                        0, // account age
-                                        "0", // volume
-                                        unusualPatterns);
-
-                        // 5. Trigger AI Risk assessment
-                        var riskResult = riskService.assessCustomerRisk(customerId, riskData);
-
-                        // 6. Calculate Advanced Risk Score (Quantitative 4-Factor Model)
-                        var advancedRisk = riskScoringService.calculateRiskScore(
+                // Use a Map for flexible parsing of ExtractedData
+                Map<String, Object> data = objectMapper.readValue(extractedDataJson,
+                                new TypeReference<Map<String, Object>>() {
+                                });
+
+                // Parse address if present
+                Map<String, String> address = (Map<String, String>) data.getOrDefault("address",
+                                Collections.emptyMap());
+
+                // 2. Identify Geographic Risks using expert utility
+                String nationality = (String) data.get("nationality");
+                String residenceCountry = address.get("country");
+
+                String nationalityRisk = CountryRiskUtil.getNationalityRisk(nationality);
+                String residenceRisk = CountryRiskUtil.getResidenceRisk(residenceCountry);
+                String fatfStatus = CountryRiskUtil.getFatfStatus(residenceCountry);
+
+                // 3. Extract unusual patterns from the document metadata
+                List<String> findings = extractFindings(document);
+                List<String> unusualPatterns = new ArrayList<>(findings);
+
+                // Add country risk reasons to findings if applicable
+                String natReason = CountryRiskUtil.getCountryRiskReason(nationality);
+                if (natReason != null)
+                        unusualPatterns.add("Nationality Risk: " + natReason);
+
+                String resReason = CountryRiskUtil.getCountryRiskReason(residenceCountry);
+                if (resReason != null)
+                        unusualPatterns.add("Residence Risk: " + resReason);
+
+                // 4. Build expert risk data
+                RiskAssessmentService.CustomerRiskData riskData = new RiskAssessmentService.CustomerRiskData(
+                                nationality != null ? nationality : "UNKNOWN",
+                                residenceCountry != null ? residenceCountry : "UNKNOWN",
+                                "NOT_SPECIFIED", // occupation
+                                "NOT_SPECIFIED", // industry
+                                "NOT_SPECIFIED", // income
+                                "NOT_SPECIFIED", // source of wealth
+                                false, // PEP (Requires external check)
+                                null, // PEP level
+                                0, // adverse media
+                                "CRITICAL".equals(nationalityRisk), // sanctions indicator
+                                false, // previous SAR
+                                nationalityRisk,
+                                residenceRisk,
+                                fatfStatus,
+                                null, // business type
+                                null, // years
+                                false, // complex ownership
+                                false, // cash intensive
+                                0, // account age
+                                "0", // volume
+                                unusualPatterns);
+
+                // 5. Trigger AI Risk assessment on the stage executor
+                Future<RiskAgent.RiskAssessmentResult> riskAgentStage = stageExecutor.submit(
+                                () -> riskService.assessCustomerRisk(customerId, riskData));
+
+                // 6. Calculate Advanced Risk Score (Quantitative 4-Factor Model) meanwhile
+                RiskScoringService.RiskScoreResult advancedRisk;
+                try {
+                        advancedRisk = riskScoringService.calculateRiskScore(
                                         customerId,
                                         nationality,
                                         residenceCountry,
                                         riskData.pepStatus(),
                                         List.of() // Products would be fetched here
                         );
+                } catch (RuntimeException e) {
+                        stageExecutor.cancel(riskAgentStage);
+                        throw e;
+                }
+                var riskResult = stageExecutor.await(riskAgentStage);
 
-                        // 7. Persist findings to document metadata
-                        updateDocumentWithRiskFindings(document, riskResult, unusualPatterns, advancedRisk);
-
-                        return riskService.getRiskSummary(customerId);
+                // 7. Persist findings to document metadata
+                updateDocumentWithRiskFindings(document, riskResult, unusualPatterns, advancedRisk);
 
-                } catch (Exception e) {
-                        log.error("Expert risk assessment failed for customer: {}", customerId, e);
-                        // Fallback to basic summary if refactored logic fails
-                        return riskService.getRiskSummary(customerId);
-                }
+                return riskService.getRiskSummary(customerId);
         }
 
         /**
@@ -332,6 +407,37 @@ public class KycOrchestrationService {
                                                 d.getVerificationStatus() == KycDocument.VerificationStatus.VERIFIED);
         }
 
+        private SupervisorAgent.RoutingDecision routeDocumentAnalysis(String customerId,
+                        KycDocument.DocumentType docType,
+                        KycDocument.LegalBasis legalBasis) {
+                return supervisorRouter.route(new SupervisorRoutingService.RoutingRequest(
+                                "DOCUMENT_ANALYSIS",
+                                customerId,
+                                "Analyze " + docType + " for KYC verification",
+                                legalBasis,
+                                0.7, // confidence threshold
+                                getPreviousSubmissionCount(customerId),
+                                getCurrentStatus(customerId),
+                                List.of() // risk indicators
+                ));
+        }
+
+        private KycSubmissionResult rejectWithoutConsent(String customerId, KycDocument.LegalBasis legalBasis) {
+                gdprService.logDataAccess(
+                                customerId,
+                                AuditLog.AuditAction.CREATE,
+                                AuditLog.LegalBasis.valueOf(legalBasis.name()),
+                                customerId,
+                                new String[] { "DOCUMENT" },
+                                false,
+                                "{\"error\": \"Consent not provided\"}");
+                return new KycSubmissionResult(
+                                "REJECTED",
+                                "Consent required for KYC processing",
+                                null,
+                                null);
+        }
+
         private int getPreviousSubmissionCount(String customerId) {
                 return documentRepository.findByCustomerId(customerId).size();
         }
@@ -403,10 +509,18 @@ public class KycOrchestrationService {
                         }
 
                         metadata.put("findings", allFindings);
-                        document.setMetadata(objectMapper.writeValueAsString(metadata));
-
-                        // Re-save document to persist metadata
-                        documentRepository.save(document);
+                        String findingsJson = objectMapper.writeValueAsString(metadata);
+                        KycDocument.RiskLevel riskLevel = KycDocument.RiskLevel.valueOf(result.riskLevel().name());
+
+                        // Document is detached and was loaded before the risk call - only write
+                        // the findings, so a concurrent erasure or status change is not undone
+                        Integer updated = transactionTemplate.execute(status -> documentRepository
+                                        .updateRiskFindings(document.getId(), findingsJson, riskLevel,
+                                                        LocalDateTime.now()));
+                        if (updated == null || updated == 0) {
+                                log.info("Document {} was anonymized during risk assessment, findings not stored",
+                                                document.getId());
+                        }
 
                 } catch (Exception e) {
                         log.error("Failed to update document with risk findings", e);
@@ -192,32 +192,6 @@ public class RagService {
                 .collect(Collectors.toList());
     }
 
-    /**
-     * Retrieve context formatted for chatbot use
-     */
-    public String retrieveContextForChatbot(String query) {
-        // Use the version with scores for better context
-        List<RetrievedContext> contexts = retrieveRelevantContextWithScores(query, 3);
-
-        if (contexts.isEmpty()) {
-            return "No specific regulatory information found for this query.";
-        }
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("Relevant regulatory information:\n\n");
-
-        for (int i = 0; i < contexts.size(); i++) {
-            RetrievedContext ctx = contexts.get(i);
-            sb.append("[").append(i + 1).append("] ")
-                    .append(ctx.title()).append(" (").append(ctx.category()).append(")")
-                    .append(" - Relevance: ").append(String.format("%.2f%%", ctx.relevanceScore() * 100))
-                    .append("\n")
-                    .append(ctx.content()).append("\n\n");
-        }
-
-        return sb.toString();
-    }
-
     /**
      * Search knowledge base by category
      */
@@ -0,0 +1,344 @@
+package com.kyc.ai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyc.ai.entity.AuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Deletes documents past their data_retention_until together with their
+ * uploads in MinIO (GDPR Article 5(1)(e)).
+ * A run walks the expired rows in (data_retention_until, id) order in chunks
+ * of chunk-size, each in its own short transaction: the chunk's objects are
+ * removed with one multi-object delete, then the rows, and the cursor in
+ * kyc_retention_purge_runs is advanced in the same commit. Throughput is
+ * capped at max-documents-per-second and a run stops after max-run-time; an
+ * unfinished or crashed run is picked up again at the next trigger and at
+ * startup. A run that has failed max-failures times is ABANDONED and the
+ * next trigger starts a fresh run with a new cutoff. A document whose object
+ * could not be removed is kept, so it is retried by the next run instead of
+ * leaving an orphaned upload.
+ */
+@Slf4j
+@Service
+public class RetentionPurgeService implements DisposableBean {
+
+    enum Status { RUNNING, PAUSED, COMPLETED, FAILED, ABANDONED }
+
+    record Run(long id, LocalDateTime cutoff) {
+    }
+
+    record ExpiredDocument(UUID id, LocalDateTime retentionUntil, String storagePath) {
+    }
+
+    record Chunk(int documents, int objectsDeleted, int objectsFailed, boolean exhausted) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StorageObjectRemover objectRemover;
+    private final AuditLogWriter auditLogWriter;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final double maxDocumentsPerSecond;
+    private final Duration maxRunTime;
+    private final int maxFailures;
+    private final AtomicBoolean active = new AtomicBoolean();
+    private volatile boolean stopping;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter documentsDeleted;
+    private final Counter objectsDeleted;
+    private final Counter objectsFailed;
+    private final DistributionSummary runDocuments;
+
+    public RetentionPurgeService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            StorageObjectRemover objectRemover, AuditLogWriter auditLogWriter, ObjectMapper objectMapper,
+            @Value("${kyc.retention-purge.chunk-size:500}") int chunkSize,
+            @Value("${kyc.retention-purge.max-documents-per-second:200}") double maxDocumentsPerSecond,
+            @Value("${kyc.retention-purge.max-run-time:PT2H}") Duration maxRunTime,
+            @Value("${kyc.retention-purge.max-failures:3}") int maxFailures,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectRemover = objectRemover;
+        this.auditLogWriter = auditLogWriter;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxDocumentsPerSecond = maxDocumentsPerSecond;
+        this.maxRunTime = maxRunTime;
+        this.maxFailures = Math.max(1, maxFailures);
+
+        this.meterRegistry = meterRegistry;
+        this.documentsDeleted = Counter.builder("kyc.retention.purge.documents")
+                .description("Expired documents deleted by the retention purge")
+                .register(meterRegistry);
+        this.objectsDeleted = objects(meterRegistry, "deleted");
+        this.objectsFailed = objects(meterRegistry, "failed");
+        this.runDocuments = DistributionSummary.builder("kyc.retention.purge.run.documents")
+                .description("Documents deleted per purge run")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        if (openRun().isPresent()) {
+            log.info("Resuming unfinished retention purge run");
+            Thread.ofVirtual().name("kyc-retention-purge").start(this::purgeExpiredDocuments);
+        }
+    }
+
+    @Scheduled(cron = "${kyc.retention-purge.cron:0 0 2 * * ?}")
+    public void purgeExpiredDocuments() {
+        if (!active.compareAndSet(false, true)) {
+            log.debug("Retention purge already running in this instance");
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Status outcome = Status.FAILED;
+        Run run = null;
+        long documents = 0;
+        long deleted = 0;
+        long failed = 0;
+        try {
+            run = claimRun();
+            log.info("Retention purge run {} for documents expired before {}", run.id(), run.cutoff());
+            long deadline = System.nanoTime() + maxRunTime.toNanos();
+            outcome = Status.PAUSED;
+            while (!stopping && System.nanoTime() < deadline) {
+                long chunkStart = System.nanoTime();
+                long runId = run.id();
+                Optional<Chunk> next = transactionTemplate.execute(status -> purgeChunk(runId));
+                if (next.isEmpty()) {
+                    // Another replica holds the run; it carries on from the same cursor
+                    log.info("Retention purge run {} is being processed by another instance", runId);
+                    outcome = Status.RUNNING;
+                    return;
+                }
+                Chunk chunk = next.get();
+                documents += chunk.documents();
+                deleted += chunk.objectsDeleted();
+                failed += chunk.objectsFailed();
+                if (chunk.exhausted()) {
+                    outcome = Status.COMPLETED;
+                    break;
+                }
+                throttle(chunk.documents() + chunk.objectsFailed(), chunkStart);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = Status.PAUSED;
+        } catch (RuntimeException e) {
+            log.error("Retention purge failed; the run resumes from its last chunk next time until max-failures", e);
+        } finally {
+            if (run != null && outcome != Status.RUNNING) {
+                outcome = finish(run, outcome, documents, deleted, failed);
+            }
+            sample.stop(Timer.builder("kyc.retention.purge.run")
+                    .description("Duration of one retention purge run")
+                    .tag("outcome", outcome == Status.RUNNING ? "skipped" : outcome.name().toLowerCase())
+                    .register(meterRegistry));
+            runDocuments.record(documents);
+            active.set(false);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        stopping = true;
+    }
+
+    /**
+     * Continue the oldest unfinished run that has not been abandoned, or
+     * start one with the current time as cutoff. The advisory lock keeps replicas from opening two runs.
+     */
+    private Run claimRun() {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext('kyc_retention_purge'))",
+                    Object.class);
+            long id = openRun().map(Run::id).orElseGet(() -> jdbcTemplate.queryForObject("""
+                    INSERT INTO kyc_retention_purge_runs (cutoff, status) VALUES (?, ?) RETURNING id
+                    """, Long.class, Timestamp.valueOf(LocalDateTime.now()), Status.RUNNING.name()));
+            return jdbcTemplate.queryForObject("""
+                    UPDATE kyc_retention_purge_runs SET status = ?, updated_at = CURRENT_TIMESTAMP
+                    WHERE id = ? RETURNING id, cutoff
+                    """, (rs, rowNum) -> new Run(rs.getLong("id"), rs.getTimestamp("cutoff").toLocalDateTime()),
+                    Status.RUNNING.name(), id);
+        });
+    }
+
+    private Optional<Run> openRun() {
+        return jdbcTemplate.query("""
+                SELECT id, cutoff FROM kyc_retention_purge_runs
+                WHERE status NOT IN ('COMPLETED', 'ABANDONED') ORDER BY id LIMIT 1
+                """, (rs, rowNum) -> new Run(rs.getLong("id"), rs.getTimestamp("cutoff").toLocalDateTime()))
+                .stream().findFirst();
+    }
+
+    /**
+     * Purge the next chunk after the run's cursor. Empty when another
+     * instance holds the run row.
+     */
+    private Optional<Chunk> purgeChunk(long runId) {
+        List<Map<String, Object>> locked = jdbcTemplate.queryForList("""
+                SELECT cutoff, status, cursor_retention_until, cursor_document_id FROM kyc_retention_purge_runs
+                WHERE id = ? FOR UPDATE SKIP LOCKED
+                """, runId);
+        if (locked.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, Object> run = locked.get(0);
+        if (Status.COMPLETED.name().equals(run.get("status"))) {
+            return Optional.of(new Chunk(0, 0, 0, true));
+        }
+
+        List<ExpiredDocument> expired = nextExpired((Timestamp) run.get("cutoff"),
+                (Timestamp) run.get("cursor_retention_until"), (UUID) run.get("cursor_document_id"));
+        if (expired.isEmpty()) {
+            return Optional.of(new Chunk(0, 0, 0, true));
+        }
+
+        List<String> objectNames = expired.stream().map(ExpiredDocument::storagePath)
+                .filter(path -> path != null && !path.isBlank()).toList();
+        Set<String> notRemoved = objectNames.isEmpty() ? Set.of() : objectRemover.removeAll(objectNames);
+        List<UUID> ids = new ArrayList<>(expired.size());
+        for (ExpiredDocument document : expired) {
+            if (document.storagePath() == null || !notRemoved.contains(document.storagePath())) {
+                ids.add(document.id());
+            }
+        }
+
+        int documents = ids.isEmpty() ? 0 : jdbcTemplate.update(
+                "DELETE FROM kyc_documents WHERE embedding_id = ANY(?)",
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("uuid", ids.toArray())));
+        int removed = objectNames.size() - notRemoved.size();
+
+        ExpiredDocument last = expired.get(expired.size() - 1);
+        jdbcTemplate.update("""
+                UPDATE kyc_retention_purge_runs
+                SET cursor_retention_until = ?, cursor_document_id = ?,
+                    documents_deleted = documents_deleted + ?, objects_deleted = objects_deleted + ?,
+                    objects_failed = objects_failed + ?, updated_at = CURRENT_TIMESTAMP
+                WHERE id = ?
+                """, Timestamp.valueOf(last.retentionUntil()), last.id(), documents, removed, notRemoved.size(),
+                runId);
+
+        documentsDeleted.increment(documents);
+        objectsDeleted.increment(removed);
+        objectsFailed.increment(notRemoved.size());
+        return Optional.of(new Chunk(documents, removed, notRemoved.size(), expired.size() < chunkSize));
+    }
+
+    private List<ExpiredDocument> nextExpired(Timestamp cutoff, Timestamp afterRetentionUntil, UUID afterId) {
+        List<Object> args = new ArrayList<>(List.of(cutoff));
+        String keyset = "";
+        if (afterRetentionUntil != null) {
+            keyset = " AND (data_retention_until, embedding_id) > (?, ?)";
+            args.add(afterRetentionUntil);
+            args.add(afterId);
+        }
+        args.add(chunkSize);
+        String sql = "SELECT embedding_id, data_retention_until, storage_path FROM kyc_documents"
+                + " WHERE data_retention_until < ?" + keyset
+                + " ORDER BY data_retention_until, embedding_id LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new ExpiredDocument(rs.getObject("embedding_id", UUID.class),
+                rs.getTimestamp("data_retention_until").toLocalDateTime(), rs.getString("storage_path")),
+                args.toArray());
+    }
+
+    /**
+     * Sleep long enough to keep the run at max-documents-per-second
+     */
+    private void throttle(int documents, long chunkStart) throws InterruptedException {
+        if (maxDocumentsPerSecond <= 0) {
+            return;
+        }
+        long budget = (long) (documents / maxDocumentsPerSecond * TimeUnit.SECONDS.toNanos(1));
+        long remaining = budget - (System.nanoTime() - chunkStart);
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    /**
+     * Record the outcome of the run and return it; a failure that reaches
+     * max-failures is recorded as ABANDONED
+     */
+    private Status finish(Run run, Status outcome, long documents, long deleted, long failed) {
+        try {
+            outcome = Status.valueOf(jdbcTemplate.queryForObject("""
+                    UPDATE kyc_retention_purge_runs
+                    SET failures = failures + CASE WHEN ? THEN 1 ELSE 0 END,
+                        status = CASE WHEN ? AND failures + 1 >= ? THEN 'ABANDONED' ELSE ? END,
+                        updated_at = CURRENT_TIMESTAMP,
+                        finished_at = CASE WHEN ? THEN CURRENT_TIMESTAMP END
+                    WHERE id = ?
+                    RETURNING status
+                    """, String.class, outcome == Status.FAILED, outcome == Status.FAILED, maxFailures,
+                    outcome.name(), outcome == Status.COMPLETED, run.id()));
+        } catch (RuntimeException e) {
+            log.error("Could not record the outcome of retention purge run {}", run.id(), e);
+        }
+        if (outcome == Status.ABANDONED) {
+            log.error("Retention purge run {} abandoned after {} failures; the next trigger starts a new run",
+                    run.id(), maxFailures);
+        }
+        log.info("Retention purge run {} {}: {} documents deleted, {} objects removed, {} objects kept for retry",
+                run.id(), outcome.name().toLowerCase(), documents, deleted, failed);
+        if (documents == 0 && failed == 0 && outcome != Status.ABANDONED) {
+            return outcome;
+        }
+
+        auditLogWriter.write(AuditLog.builder()
+                .action(AuditLog.AuditAction.AUTO_PURGE)
+                .performedBy("SYSTEM")
+                .legalBasis(AuditLog.LegalBasis.GDPR_ARTICLE_17)
+                .dataCategories(new String[] { "PERSONAL_DATA", "DOCUMENTS" })
+                .details(safeSerialize(Map.of("runId", run.id(), "cutoff", run.cutoff().toString(),
+                        "status", outcome.name(), "deletedCount", documents,
+                        "objectsDeleted", deleted, "objectsFailed", failed)))
+                .success(outcome != Status.FAILED && outcome != Status.ABANDONED)
+                .build());
+        return outcome;
+    }
+
+    private String safeSerialize(Object data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize audit details", e);
+            return "{\"error\": \"Serialization failed\"}";
+        }
+    }
+
+    private static Counter objects(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("kyc.retention.purge.objects")
+                .description("Uploaded objects handled by the retention purge")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
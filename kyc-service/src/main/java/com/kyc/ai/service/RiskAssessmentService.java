@@ -3,11 +3,13 @@ package com.kyc.ai.service;
 import com.kyc.ai.agent.RiskAgent;
 import com.kyc.ai.entity.AuditLog;
 import com.kyc.ai.entity.KycDocument;
+import com.kyc.ai.exception.ServiceUnavailableException;
 import com.kyc.ai.repository.KycDocumentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,11 +22,13 @@ public class RiskAssessmentService {
     private final RiskAgent riskAgent;
     private final GdprService gdprService;
     private final KycDocumentRepository documentRepository;
+    private final TransactionTemplate transactionTemplate;
 
     /**
-     * Perform risk assessment for a customer
+     * Perform risk assessment for a customer.
+     * The Risk Agent call runs outside any transaction; only the risk level
+     * update and its audit entry share one short transaction.
      */
-    @Transactional
     public RiskAgent.RiskAssessmentResult assessCustomerRisk(String customerId,
                                                             CustomerRiskData riskData) {
         log.info("Performing risk assessment for customer: {}", customerId);
@@ -56,27 +60,29 @@ public class RiskAssessmentService {
                 riskData.unusualPatterns()
             );
 
-            // Update all customer documents with risk level
-            List<KycDocument> documents = documentRepository.findByCustomerId(customerId);
-            for (KycDocument doc : documents) {
-                doc.setRiskLevel(KycDocument.RiskLevel.valueOf(result.riskLevel().name()));
-            }
-            documentRepository.saveAll(documents);
-
-            // Log the assessment
-            gdprService.logDataAccess(
-                customerId,
-                AuditLog.AuditAction.PROCESS,
-                AuditLog.LegalBasis.LEGAL_OBLIGATION,
-                "RISK_AGENT",
-                new String[]{"RISK_SCORE", "AML_DATA"},
-                true,
-                String.format("{\"riskLevel\": \"%s\", \"riskScore\": %d}", 
-                    result.riskLevel(), result.riskScore())
-            );
+            transactionTemplate.executeWithoutResult(status -> {
+                // Update all customer documents with risk level
+                documentRepository.updateRiskLevelByCustomerId(customerId,
+                    KycDocument.RiskLevel.valueOf(result.riskLevel().name()), LocalDateTime.now());
+
+                // Log the assessment
+                gdprService.logDataAccess(
+                    customerId,
+                    AuditLog.AuditAction.PROCESS,
+                    AuditLog.LegalBasis.LEGAL_OBLIGATION,
+                    "RISK_AGENT",
+                    new String[]{"RISK_SCORE", "AML_DATA"},
+                    true,
+                    String.format("{\"riskLevel\": \"%s\", \"riskScore\": %d}", 
+                        result.riskLevel(), result.riskScore())
+                );
+            });
 
             return result;
 
+        } catch (ServiceUnavailableException e) {
+            // Overload rejection before the agent ran: left as is so callers can retry
+            throw e;
         } catch (Exception e) {
             log.error("Risk assessment failed", e);
             gdprService.logDataAccess(
@@ -0,0 +1,163 @@
+package com.kyc.ai.service;
+
+import com.kyc.ai.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated executor for independent stages of a single submission
+ * (e.g. MinIO upload alongside OCR, Risk Agent alongside scoring).
+ * The caller runs one branch itself, forks the other here and joins with
+ * {@link #await(Future)}, so latency is bounded by the slowest branch.
+ * Request attributes and MDC are carried over so audit entries written on
+ * the stage thread still see the caller's request.
+ * With spring.threads.virtual.enabled each stage gets its own virtual thread;
+ * in-flight stages are then bounded by threads + queue-capacity instead of a pool.
+ */
+@Slf4j
+@Component
+public class StageExecutor implements DisposableBean {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Duration timeout;
+
+    public StageExecutor(@Value("${kyc.stage-executor.threads:16}") int threads,
+            @Value("${kyc.stage-executor.queue-capacity:64}") int queueCapacity,
+            @Value("${kyc.stage-executor.timeout:PT3M}") Duration timeout,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            MeterRegistry meterRegistry) {
+        if (virtualThreads) {
+            this.executor = ExecutorServiceMetrics.monitor(meterRegistry,
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kyc-stage-", 1).factory()),
+                    "kycStageExecutor");
+            this.permits = new Semaphore(threads + queueCapacity);
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "kyc-stage-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "kycStageExecutor");
+            this.permits = null;
+        }
+        this.timeout = timeout;
+    }
+
+    /**
+     * Fork a stage. Fails fast with 503 when the executor is saturated.
+     */
+    public <T> Future<T> submit(Callable<T> stage) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        if (permits != null && !permits.tryAcquire()) {
+            throw new ServiceUnavailableException("Processing capacity exhausted, please retry later");
+        }
+        // Claimed by the stage when it starts, or by done() when it is cancelled before starting
+        AtomicBoolean started = new AtomicBoolean();
+        FutureTask<T> task = new FutureTask<>(() -> {
+            if (!started.compareAndSet(false, true)) {
+                return null;
+            }
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                return stage.call();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+                MDC.clear();
+                // Held until the stage actually exits, even if it was cancelled while running
+                releasePermit();
+            }
+        }) {
+            @Override
+            protected void done() {
+                if (started.compareAndSet(false, true)) {
+                    releasePermit();
+                }
+            }
+        };
+        try {
+            executor.execute(task);
+            return task;
+        } catch (RejectedExecutionException e) {
+            releasePermit();
+            throw new ServiceUnavailableException("Processing capacity exhausted, please retry later");
+        }
+    }
+
+    private void releasePermit() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * Join a forked stage, rethrowing its original exception.
+     * The stage is cancelled (interrupted) if the caller gives up waiting.
+     */
+    public <T> T await(Future<T> stage) throws Exception {
+        try {
+            return stage.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            stage.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (TimeoutException e) {
+            stage.cancel(true);
+            throw e;
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Stage was cancelled", e);
+        }
+    }
+
+    /**
+     * Cancel a forked stage after a sibling failed; interrupts it if already running
+     */
+    public void cancel(Future<?> stage) {
+        if (stage != null && stage.cancel(true)) {
+            log.debug("Cancelled sibling stage after failure");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
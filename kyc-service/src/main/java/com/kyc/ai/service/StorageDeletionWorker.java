@@ -0,0 +1,166 @@
+package com.kyc.ai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Removes the uploads queued by {@link GdprErasureService} from MinIO.
+ * Due rows of gdpr_storage_deletions are claimed with SKIP LOCKED, so
+ * replicas share the queue, and removed in multi-object deletes of up to
+ * batch-size keys. A failed object is retried with exponential backoff and
+ * marked FAILED after max-attempts. Once none of an erasure's objects is
+ * pending, the erasure becomes COMPLETED, or STORAGE_FAILED if any object
+ * could not be removed.
+ */
+@Slf4j
+@Component
+public class StorageDeletionWorker {
+
+    record Deletion(long id, UUID erasureId, String objectName, int attempts) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StorageObjectRemover objectRemover;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final Counter removed;
+    private final Counter retried;
+    private final Counter failed;
+
+    public StorageDeletionWorker(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            StorageObjectRemover objectRemover,
+            @Value("${kyc.gdpr.erasure.storage.batch-size:500}") int batchSize,
+            @Value("${kyc.gdpr.erasure.storage.max-attempts:8}") int maxAttempts,
+            @Value("${kyc.gdpr.erasure.storage.initial-backoff:PT30S}") Duration initialBackoff,
+            @Value("${kyc.gdpr.erasure.storage.max-backoff:PT1H}") Duration maxBackoff,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectRemover = objectRemover;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+
+        this.removed = deletions(meterRegistry, "removed");
+        this.retried = deletions(meterRegistry, "retry");
+        this.failed = deletions(meterRegistry, "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${kyc.gdpr.erasure.storage.poll-interval:PT5S}")
+    public void removeDueObjects() {
+        try {
+            Integer handled;
+            do {
+                handled = transactionTemplate.execute(status -> removeBatch());
+            } while (handled != null && handled == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Storage deletion batch failed; due objects are picked up on the next poll", e);
+        }
+    }
+
+    private int removeBatch() {
+        List<Deletion> due = jdbcTemplate.query("""
+                SELECT id, erasure_id, object_name, attempts FROM gdpr_storage_deletions
+                WHERE status = 'PENDING' AND next_attempt_at <= ?
+                ORDER BY next_attempt_at LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """, (rs, rowNum) -> new Deletion(rs.getLong("id"), rs.getObject("erasure_id", UUID.class),
+                rs.getString("object_name"), rs.getInt("attempts")),
+                Timestamp.valueOf(LocalDateTime.now()), batchSize);
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> notRemoved = objectRemover.removeAll(due.stream().map(Deletion::objectName).toList());
+        Map<UUID, int[]> progress = new HashMap<>();
+        List<Long> done = new ArrayList<>();
+        List<Object[]> retries = new ArrayList<>();
+        for (Deletion deletion : due) {
+            int[] counts = progress.computeIfAbsent(deletion.erasureId(), id -> new int[2]);
+            if (!notRemoved.contains(deletion.objectName())) {
+                done.add(deletion.id());
+                counts[0]++;
+                removed.increment();
+            } else if (deletion.attempts() + 1 >= maxAttempts) {
+                retries.add(new Object[] { "FAILED", Timestamp.valueOf(LocalDateTime.now()), deletion.id() });
+                counts[1]++;
+                failed.increment();
+                log.error("Giving up on removing an erased customer's object after {} attempts (erasure {})",
+                        maxAttempts, deletion.erasureId());
+            } else {
+                retries.add(new Object[] { "PENDING",
+                        Timestamp.valueOf(LocalDateTime.now().plus(backoff(deletion.attempts()))), deletion.id() });
+                retried.increment();
+            }
+        }
+
+        if (!done.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM gdpr_storage_deletions WHERE id = ANY(?)",
+                    statement -> statement.setArray(1, statement.getConnection().createArrayOf("bigint",
+                            done.toArray())));
+        }
+        if (!retries.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    UPDATE gdpr_storage_deletions
+                    SET attempts = attempts + 1, status = ?, next_attempt_at = ?,
+                        last_error = 'Object could not be removed from storage'
+                    WHERE id = ?
+                    """, retries);
+        }
+        updateErasures(progress);
+        return due.size();
+    }
+
+    private void updateErasures(Map<UUID, int[]> progress) {
+        List<Object[]> counts = progress.entrySet().stream()
+                .map(entry -> new Object[] { entry.getValue()[0], entry.getValue()[1], entry.getKey() })
+                .toList();
+        jdbcTemplate.batchUpdate("""
+                UPDATE gdpr_erasure_requests
+                SET objects_removed = objects_removed + ?, objects_failed = objects_failed + ?
+                WHERE id = ?
+                """, counts);
+        jdbcTemplate.update("""
+                UPDATE gdpr_erasure_requests e
+                SET status = CASE WHEN objects_failed > 0 THEN 'STORAGE_FAILED' ELSE 'COMPLETED' END,
+                    completed_at = CURRENT_TIMESTAMP
+                WHERE id = ANY(?) AND status = 'STORAGE_PENDING'
+                  AND NOT EXISTS (SELECT 1 FROM gdpr_storage_deletions s
+                                  WHERE s.erasure_id = e.id AND s.status = 'PENDING')
+                """, statement -> statement.setArray(1, statement.getConnection().createArrayOf("uuid",
+                progress.keySet().toArray())));
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static Counter deletions(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("kyc.gdpr.storage.deletions")
+                .description("Queued storage deletions of erased customers by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,63 @@
+package com.kyc.ai.service;
+
+import io.minio.MinioClient;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Removes uploaded documents from the bucket with MinIO's multi-object
+ * delete, up to 1000 keys per request. Objects that are already gone count
+ * as removed.
+ */
+@Slf4j
+@Component
+public class StorageObjectRemover {
+
+    /** S3 limit on keys per DeleteObjects request */
+    private static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    private final MinioClient minioClient;
+    private final String bucketName;
+
+    public StorageObjectRemover(MinioClient minioClient, @Value("${minio.bucket-name}") String bucketName) {
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+    }
+
+    /**
+     * Remove the objects and return the names that could not be removed
+     */
+    public Set<String> removeAll(Collection<String> objectNames) {
+        List<String> names = objectNames.stream().distinct().toList();
+        Set<String> failed = new HashSet<>();
+        for (int from = 0; from < names.size(); from += MAX_KEYS_PER_REQUEST) {
+            List<String> request = names.subList(from, Math.min(from + MAX_KEYS_PER_REQUEST, names.size()));
+            try {
+                // The result is lazy: the request is only sent while iterating
+                Iterable<Result<DeleteError>> errors = minioClient.removeObjects(RemoveObjectsArgs.builder()
+                        .bucket(bucketName)
+                        .objects(request.stream().map(DeleteObject::new).toList())
+                        .build());
+                for (Result<DeleteError> result : errors) {
+                    DeleteError error = result.get();
+                    log.warn("Could not remove {}: {} {}", error.objectName(), error.code(), error.message());
+                    failed.add(error.objectName());
+                }
+            } catch (Exception e) {
+                log.error("Multi-object delete of {} objects failed", request.size(), e);
+                failed.addAll(request);
+            }
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,113 @@
+package com.kyc.ai.service;
+
+import com.kyc.ai.agent.SupervisorAgent;
+import com.kyc.ai.entity.KycDocument;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Deterministic routing in front of the Supervisor Agent.
+ * The routing table and GDPR checks the agent is prompted with are applied as
+ * rules; the LLM is only consulted when the rules cannot decide (unknown
+ * request type, risk indicators present, unusual resubmission volume or a
+ * previously rejected customer).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SupervisorRoutingService {
+
+    private final SupervisorAgent supervisorAgent;
+    private final GdprService gdprService;
+    private final MeterRegistry meterRegistry;
+
+    /** Above this many earlier submissions the case is left to the agent. */
+    @Value("${kyc.supervisor.max-rule-submissions:10}")
+    private int maxRuleSubmissions;
+
+    @Value("${kyc.supervisor.rules-enabled:true}")
+    private boolean rulesEnabled;
+
+    public record RoutingRequest(
+            String requestType,
+            String customerId,
+            String taskDescription,
+            KycDocument.LegalBasis legalBasis,
+            double confidenceThreshold,
+            int previousSubmissions,
+            String currentStatus,
+            List<String> riskIndicators) {
+    }
+
+    /**
+     * Route a request, falling back to the Supervisor Agent for ambiguous cases
+     */
+    public SupervisorAgent.RoutingDecision route(RoutingRequest request) {
+        Optional<SupervisorAgent.RoutingDecision> decision = rulesEnabled ? decide(request) : Optional.empty();
+        if (decision.isPresent()) {
+            meterRegistry.counter("kyc.supervisor.routing", "path", "rule").increment();
+            log.debug("Rule-based routing for {}: {}", request.requestType(), decision.get().selectedAgent());
+            return decision.get();
+        }
+
+        meterRegistry.counter("kyc.supervisor.routing", "path", "llm").increment();
+        return supervisorAgent.routeTask(
+                request.requestType(),
+                gdprService.hashIdentifier(request.customerId()),
+                request.taskDescription(),
+                request.legalBasis() != null ? request.legalBasis().name() : "UNKNOWN",
+                request.confidenceThreshold(),
+                request.previousSubmissions(),
+                request.currentStatus(),
+                request.riskIndicators());
+    }
+
+    private Optional<SupervisorAgent.RoutingDecision> decide(RoutingRequest request) {
+        // GDPR: no legal basis, or consent-based processing without consent, never proceeds
+        if (request.legalBasis() == null) {
+            return Optional.of(escalate("Legal basis is missing"));
+        }
+        if (request.legalBasis() == KycDocument.LegalBasis.CONSENT
+                && !gdprService.hasValidConsent(request.customerId(), "KYC_VERIFICATION")) {
+            return Optional.of(escalate("Consent not recorded for KYC verification"));
+        }
+
+        // Cases that need judgement go to the agent
+        if ((request.riskIndicators() != null && !request.riskIndicators().isEmpty())
+                || request.previousSubmissions() > maxRuleSubmissions
+                || "REJECTED".equals(request.currentStatus())) {
+            return Optional.empty();
+        }
+
+        return switch (request.requestType()) {
+            case "DOCUMENT_ANALYSIS" -> Optional.of(decision(SupervisorAgent.AgentType.DOCUMENT,
+                    List.of(SupervisorAgent.AgentType.DOCUMENT, SupervisorAgent.AgentType.RISK),
+                    "Document analysis routed to DocumentAgent by rule"));
+            case "RISK_ASSESSMENT" -> Optional.of(decision(SupervisorAgent.AgentType.RISK,
+                    List.of(SupervisorAgent.AgentType.RISK),
+                    "Risk assessment routed to RiskAgent by rule"));
+            case "CUSTOMER_INQUIRY" -> Optional.of(decision(SupervisorAgent.AgentType.CHATBOT,
+                    List.of(SupervisorAgent.AgentType.CHATBOT),
+                    "Customer inquiry routed to ChatbotAgent by rule"));
+            default -> Optional.empty();
+        };
+    }
+
+    private static SupervisorAgent.RoutingDecision decision(SupervisorAgent.AgentType agent,
+            List<SupervisorAgent.AgentType> requiredAgents, String reasoning) {
+        return new SupervisorAgent.RoutingDecision(agent, reasoning, true, requiredAgents,
+                SupervisorAgent.ExecutionOrder.SEQUENTIAL, null, null);
+    }
+
+    private static SupervisorAgent.RoutingDecision escalate(String reason) {
+        return new SupervisorAgent.RoutingDecision(SupervisorAgent.AgentType.HUMAN_ESCALATION, reason, false,
+                List.of(SupervisorAgent.AgentType.HUMAN_ESCALATION), SupervisorAgent.ExecutionOrder.SEQUENTIAL,
+                null, reason);
+    }
+}
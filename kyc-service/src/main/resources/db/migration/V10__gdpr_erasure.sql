@@ -0,0 +1,40 @@
+-- GDPR erasure requests (Article 17), one row per customer, and the stored
+-- uploads they still have to remove. Database records are erased in the
+-- request's own transaction; object removal is queued in gdpr_storage_deletions
+-- in that same transaction and worked off by StorageDeletionWorker.
+CREATE TABLE IF NOT EXISTS gdpr_erasure_requests (
+    id UUID PRIMARY KEY,
+    customer_id VARCHAR(255) NOT NULL,
+    batch_id UUID,
+    requested_by VARCHAR(255) NOT NULL,
+    reason TEXT,
+    status VARCHAR(30) NOT NULL,
+    documents_erased INTEGER NOT NULL DEFAULT 0,
+    transactions_erased INTEGER NOT NULL DEFAULT 0,
+    conversations_erased INTEGER NOT NULL DEFAULT 0,
+    objects_total INTEGER NOT NULL DEFAULT 0,
+    objects_removed INTEGER NOT NULL DEFAULT 0,
+    objects_failed INTEGER NOT NULL DEFAULT 0,
+    requested_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_erasure_customer_id ON gdpr_erasure_requests(customer_id, requested_at DESC);
+CREATE INDEX IF NOT EXISTS idx_erasure_batch_id ON gdpr_erasure_requests(batch_id) WHERE batch_id IS NOT NULL;
+
+-- Rows are deleted once the object is gone; FAILED rows stay for the DPO
+CREATE TABLE IF NOT EXISTS gdpr_storage_deletions (
+    id BIGSERIAL PRIMARY KEY,
+    erasure_id UUID NOT NULL REFERENCES gdpr_erasure_requests(id) ON DELETE CASCADE,
+    object_name TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_storage_deletions_due ON gdpr_storage_deletions(next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_storage_deletions_erasure ON gdpr_storage_deletions(erasure_id);
+
+-- Erasure removes a customer's chat sessions by owner
+CREATE INDEX IF NOT EXISTS idx_chat_conversations_owner ON chat_conversations(owner_id);
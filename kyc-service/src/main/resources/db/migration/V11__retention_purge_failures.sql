@@ -0,0 +1,8 @@
+-- A retention purge run that keeps failing is ABANDONED after
+-- kyc.retention-purge.max-failures, so the next trigger starts a fresh run
+-- with a new cutoff instead of resuming it forever.
+ALTER TABLE kyc_retention_purge_runs ADD COLUMN IF NOT EXISTS failures INTEGER NOT NULL DEFAULT 0;
+
+DROP INDEX IF EXISTS idx_retention_purge_runs_open;
+CREATE INDEX IF NOT EXISTS idx_retention_purge_runs_open
+    ON kyc_retention_purge_runs(id) WHERE status NOT IN ('COMPLETED', 'ABANDONED');
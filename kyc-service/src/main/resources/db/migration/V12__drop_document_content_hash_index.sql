@@ -0,0 +1,3 @@
+-- content_hash is only read from a loaded document to key the analysis
+-- cache; nothing looks documents up by it, so the index only slowed inserts.
+DROP INDEX IF EXISTS idx_kyc_docs_content_hash;
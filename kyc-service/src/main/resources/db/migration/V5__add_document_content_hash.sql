@@ -0,0 +1,5 @@
+-- SHA-256 of the uploaded bytes, used to recognise re-uploads of the same file
+ALTER TABLE kyc_documents
+ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_kyc_docs_content_hash ON kyc_documents(content_hash);
@@ -0,0 +1,20 @@
+-- Chatbot conversations shared by all replicas (kyc.chat.conversation.store=jdbc)
+CREATE TABLE IF NOT EXISTS chat_conversations (
+    session_id VARCHAR(128) PRIMARY KEY,
+    owner_id VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_access_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_chat_conversations_last_access ON chat_conversations(last_access_at);
+
+-- Newest messages per session; content is AES-GCM encrypted
+CREATE TABLE IF NOT EXISTS chat_messages (
+    id BIGSERIAL PRIMARY KEY,
+    session_id VARCHAR(128) NOT NULL REFERENCES chat_conversations(session_id) ON DELETE CASCADE,
+    role VARCHAR(16) NOT NULL,
+    content TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_chat_messages_session ON chat_messages(session_id, id);
@@ -0,0 +1,2 @@
+-- Running summary of compacted chatbot turns (kyc.chat.conversation.summary); AES-GCM encrypted
+ALTER TABLE chat_conversations ADD COLUMN IF NOT EXISTS summary TEXT;
@@ -0,0 +1,102 @@
+-- Monthly range partitions for the audit log.
+-- Partitions are named kyc_audit_log_YYYY_MM and created ahead of time by
+-- kyc_audit_log_create_partition; retention detaches and drops whole months
+-- (kyc_audit_log_drop_partitions_before) instead of deleting rows.
+-- The default partition only catches rows for a month that has no partition
+-- yet; creating that month's partition moves them over.
+
+ALTER TABLE kyc_audit_log RENAME TO kyc_audit_log_legacy;
+ALTER TABLE kyc_audit_log_legacy RENAME CONSTRAINT kyc_audit_log_pkey TO kyc_audit_log_legacy_pkey;
+
+CREATE TABLE kyc_audit_log (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    customer_id VARCHAR(255),
+    action VARCHAR(100) NOT NULL,
+    performed_by VARCHAR(255) NOT NULL,
+    performed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ip_address INET,
+    user_agent TEXT,
+    legal_basis VARCHAR(50),
+    data_categories TEXT[],
+    request_id VARCHAR(100),
+    details JSONB,
+    success BOOLEAN,
+    error_message TEXT,
+    -- The partition key has to be part of every unique constraint
+    PRIMARY KEY (id, performed_at)
+) PARTITION BY RANGE (performed_at);
+
+CREATE TABLE kyc_audit_log_default PARTITION OF kyc_audit_log DEFAULT;
+
+CREATE OR REPLACE FUNCTION kyc_audit_log_create_partition(month_start DATE) RETURNS TEXT AS $$
+DECLARE
+    start_at TIMESTAMP := date_trunc('month', month_start);
+    end_at TIMESTAMP := date_trunc('month', month_start) + INTERVAL '1 month';
+    partition_name TEXT := 'kyc_audit_log_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    -- Serializes maintenance across replicas
+    PERFORM pg_advisory_xact_lock(hashtext('kyc_audit_log_partitions'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE kyc_audit_log INCLUDING DEFAULTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM kyc_audit_log_default '
+                   'WHERE performed_at >= %L AND performed_at < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved', start_at, end_at, partition_name);
+    -- Indexes of the parent are created on the partition as it is attached
+    EXECUTE format('ALTER TABLE kyc_audit_log ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, start_at, end_at);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION kyc_audit_log_drop_partitions_before(cutoff TIMESTAMP) RETURNS SETOF TEXT AS $$
+DECLARE
+    partition_name TEXT;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('kyc_audit_log_partitions'));
+    -- Only months that end on or before the cutoff; a partly expired month is kept whole
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'kyc_audit_log'::regclass
+          AND c.relname ~ '^kyc_audit_log_[0-9]{4}_[0-9]{2}$'
+          AND to_date(substring(c.relname FROM '[0-9]{4}_[0-9]{2}$'), 'YYYY_MM') + INTERVAL '1 month' <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE kyc_audit_log DETACH PARTITION %I', partition_name);
+        EXECUTE format('DROP TABLE %I', partition_name);
+        RETURN NEXT partition_name;
+    END LOOP;
+
+    DELETE FROM kyc_audit_log_default WHERE performed_at < cutoff;
+END;
+$$ LANGUAGE plpgsql;
+
+-- A partition for every month that has history, plus the current and next three
+SELECT kyc_audit_log_create_partition(months.month_start::DATE)
+FROM (
+    SELECT date_trunc('month', COALESCE(performed_at, LOCALTIMESTAMP)) AS month_start
+    FROM kyc_audit_log_legacy
+    UNION
+    SELECT generate_series(date_trunc('month', LOCALTIMESTAMP),
+                           date_trunc('month', LOCALTIMESTAMP) + INTERVAL '3 months',
+                           INTERVAL '1 month')
+) months
+ORDER BY months.month_start;
+
+INSERT INTO kyc_audit_log (id, customer_id, action, performed_by, performed_at, ip_address, user_agent,
+                           legal_basis, data_categories, request_id, details, success, error_message)
+SELECT id, customer_id, action, performed_by, COALESCE(performed_at, LOCALTIMESTAMP), ip_address, user_agent,
+       legal_basis, data_categories, request_id, details, success, error_message
+FROM kyc_audit_log_legacy;
+
+DROP TABLE kyc_audit_log_legacy;
+
+-- Created on the parent after the copy; cascades to every partition, current and future
+CREATE INDEX idx_audit_performed_at ON kyc_audit_log(performed_at);
+CREATE INDEX idx_audit_customer_id ON kyc_audit_log(customer_id, performed_at DESC);
+CREATE INDEX idx_audit_action ON kyc_audit_log(action, performed_at DESC);
+CREATE INDEX idx_audit_failed ON kyc_audit_log(performed_at DESC) WHERE success = false;
@@ -0,0 +1,24 @@
+-- Progress of the chunked retention purge (RetentionPurgeService).
+-- A run walks expired documents in (data_retention_until, embedding_id) order;
+-- the cursor is committed with every chunk, so a run interrupted by a crash
+-- or its time budget continues where it stopped.
+CREATE TABLE IF NOT EXISTS kyc_retention_purge_runs (
+    id BIGSERIAL PRIMARY KEY,
+    cutoff TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    cursor_retention_until TIMESTAMP,
+    cursor_document_id UUID,
+    documents_deleted BIGINT NOT NULL DEFAULT 0,
+    objects_deleted BIGINT NOT NULL DEFAULT 0,
+    objects_failed BIGINT NOT NULL DEFAULT 0,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_retention_purge_runs_open
+    ON kyc_retention_purge_runs(id) WHERE status <> 'COMPLETED';
+
+-- Keyset order of the purge; replaces the single-column retention index
+CREATE INDEX IF NOT EXISTS idx_kyc_docs_retention_keyset ON kyc_documents(data_retention_until, embedding_id);
+DROP INDEX IF EXISTS idx_kyc_docs_retention_date;
@@ -0,0 +1,65 @@
+package com.kyc.ai.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the GDPR export against PostgreSQL, where the synchronous DATA_EXPORT
+ * audit entry is inserted in the export's own transaction. Skipped when no
+ * Docker daemon is available.
+ */
+@SpringBootTest(properties = {
+        "kyc.llm.warmup.enabled=false",
+        "kyc.pipeline.async-enabled=false"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class GdprControllerTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(
+            DockerImageName.parse("ankane/pgvector:latest").asCompatibleSubstituteFor("postgres"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @WithMockUser(username = "CUST-EXPORT-1", roles = "CUSTOMER")
+    void exportWritesTheAuditEntryInItsOwnTransaction() throws Exception {
+        mockMvc.perform(get("/api/v1/gdpr/export-data").param("customerId", "CUST-EXPORT-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId").value("CUST-EXPORT-1"))
+                .andExpect(jsonPath("$.documents").isArray());
+
+        Integer exports = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM kyc_audit_log WHERE customer_id = ? AND action = 'DATA_EXPORT'",
+                Integer.class, "CUST-EXPORT-1");
+        assertThat(exports).isEqualTo(1);
+    }
+}
@@ -0,0 +1,100 @@
+package com.kyc.ai.conversation;
+
+import com.kyc.ai.agent.ChatbotAgent;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.service.AiServices;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConversationChatMemoryTest {
+
+    private final InMemoryConversationStore store = new InMemoryConversationStore(20, Duration.ofHours(1),
+            1_000_000, new SimpleMeterRegistry());
+
+    @Test
+    void blockingTurnIsStoredVerbatim() {
+        List<ChatMessage> sent = new ArrayList<>();
+        ConversationChatMemory memory = memory();
+        ChatbotAgent agent = agent(memory, sent);
+        store.open("s1", "alice");
+
+        ChatbotAgent.ChatResponse response = memory.inSession("s1",
+                () -> agent.chat("Which documents do I need?", "", false, "NONE", List.of()));
+        memory.recordAnswer("s1", response.response());
+
+        List<ConversationMessage> stored = store.messages("s1");
+        assertEquals(2, stored.size());
+        assertEquals("Which documents do I need?", stored.get(0).text());
+        assertEquals("Please upload your passport.", stored.get(1).text());
+        // The model still gets the output format instructions for the current turn
+        UserMessage current = (UserMessage) sent.get(sent.size() - 1);
+        assertTrue(current.singleText().startsWith("Which documents do I need?"
+                + ConversationChatMemory.FORMAT_INSTRUCTIONS));
+    }
+
+    @Test
+    void promptIsNotKeptAfterTheCall() {
+        List<ChatMessage> sent = new ArrayList<>();
+        ConversationChatMemory memory = memory();
+        ChatbotAgent agent = agent(memory, sent);
+        store.open("s1", "alice");
+        store.open("s2", "bob");
+
+        memory.inSession("s1", () -> agent.chat("hello", "secret context", false, "NONE", List.of()));
+        sent.clear();
+        memory.inSession("s2", () -> agent.chat("hi", "", false, "NONE", List.of()));
+
+        assertTrue(memory.messages().isEmpty());
+        assertFalse(sent.stream().anyMatch(message -> message instanceof SystemMessage system
+                && system.text().contains("secret context")));
+        assertEquals(List.of("hi"), store.messages("s2").stream().map(ConversationMessage::text).toList());
+    }
+
+    @Test
+    void agentCallsMustBindASession() {
+        ChatbotAgent agent = agent(memory(), new ArrayList<>());
+
+        assertThrows(IllegalStateException.class,
+                () -> agent.chat("hello", "", false, "NONE", List.of()));
+    }
+
+    @Test
+    void customerTextKeepsMessagesWithoutInstructions() {
+        assertEquals("hello", ConversationChatMemory.customerText("hello"));
+        assertEquals("hello", ConversationChatMemory.customerText(
+                "hello" + ConversationChatMemory.FORMAT_INSTRUCTIONS + "JSON format: {}"));
+    }
+
+    private ConversationChatMemory memory() {
+        return new ConversationChatMemory(store, UnaryOperator.identity(), sessionId -> { });
+    }
+
+    private static ChatbotAgent agent(ConversationChatMemory memory, List<ChatMessage> sent) {
+        ChatLanguageModel model = new ChatLanguageModel() {
+            @Override
+            public Response<AiMessage> generate(List<ChatMessage> messages) {
+                sent.addAll(messages);
+                return Response.from(AiMessage.from("{\"response\": \"Please upload your passport.\"}"));
+            }
+        };
+        return AiServices.builder(ChatbotAgent.class)
+                .chatLanguageModel(model)
+                .chatMemoryProvider(id -> memory)
+                .build();
+    }
+}
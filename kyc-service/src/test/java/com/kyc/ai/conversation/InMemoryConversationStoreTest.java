@@ -0,0 +1,41 @@
+package com.kyc.ai.conversation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryConversationStoreTest {
+
+    private final InMemoryConversationStore store = new InMemoryConversationStore(3, Duration.ofHours(1),
+            1_000_000, new SimpleMeterRegistry());
+
+    @Test
+    void appendDoesNotCreateMissingSession() {
+        store.append("evicted", ConversationMessage.user("hello"));
+
+        assertTrue(store.find("evicted").isEmpty());
+        // The next open claims the session for its caller instead of finding an ownerless one
+        assertEquals("alice", store.open("evicted", "alice"));
+    }
+
+    @Test
+    void openKeepsFirstOwner() {
+        assertEquals("alice", store.open("s1", "alice"));
+        assertEquals("alice", store.open("s1", "bob"));
+    }
+
+    @Test
+    void appendKeepsNewestMessages() {
+        store.open("s1", "alice");
+        for (int i = 1; i <= 4; i++) {
+            store.append("s1", ConversationMessage.user("m" + i));
+        }
+
+        assertEquals(3, store.messages("s1").size());
+        assertEquals("m2", store.messages("s1").get(0).text());
+    }
+}
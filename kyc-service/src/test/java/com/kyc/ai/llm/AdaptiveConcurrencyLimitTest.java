@@ -0,0 +1,94 @@
+package com.kyc.ai.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = Duration.ofMillis(100).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void rejectsCallsBeyondTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 16);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.onIgnore();
+        assertTrue(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    void growsWhileLatencyHoldsAndTheLimitIsUsed() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 16);
+
+        for (int round = 0; round < 20; round++) {
+            saturate(limit, FAST);
+        }
+
+        assertEquals(16, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void doesNotGrowALimitThatIsNotUsed() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 16);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.onSuccess(FAST);
+        }
+
+        assertEquals(8, limit.getLimit());
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAboveTheBaseline() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(16, 1, 16);
+        for (int round = 0; round < 10; round++) {
+            saturate(limit, FAST);
+        }
+
+        // The model server starts queueing: ten times the baseline latency
+        saturate(limit, SLOW);
+
+        assertTrue(limit.getLimit() < 12, "limit " + limit.getLimit());
+    }
+
+    @Test
+    void backsOffOnFailuresDownToTheMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 16);
+
+        assertTrue(limit.tryAcquire());
+        limit.onFailure();
+        assertEquals(9, limit.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.onFailure();
+        }
+        assertEquals(2, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    /**
+     * Fill every slot, then complete the calls with this latency
+     */
+    private static void saturate(AdaptiveConcurrencyLimit limit, long latencyNanos) {
+        int acquired = 0;
+        while (limit.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limit.onSuccess(latencyNanos);
+        }
+    }
+}
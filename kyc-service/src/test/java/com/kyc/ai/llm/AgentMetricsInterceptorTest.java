@@ -0,0 +1,65 @@
+package com.kyc.ai.llm;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.service.AiServices;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AgentMetricsInterceptorTest {
+
+    interface ScoringAgent {
+
+        Score score(String text);
+    }
+
+    record Score(int value, String reason) {
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void malformedReplyIsCountedAsParseError() {
+        ScoringAgent agent = agent("{\"value\": 3, \"reason\": ");
+
+        assertThrows(RuntimeException.class, () -> agent.score("text"));
+
+        assertEquals(1, latency("parse_error"));
+        assertEquals(0, latency("error"));
+    }
+
+    @Test
+    void wellFormedReplyIsCountedAsSuccess() {
+        ScoringAgent agent = agent("{\"value\": 3, \"reason\": \"ok\"}");
+
+        assertEquals(3, agent.score("text").value());
+
+        assertEquals(1, latency("success"));
+    }
+
+    private ScoringAgent agent(String reply) {
+        ChatLanguageModel model = new ChatLanguageModel() {
+            @Override
+            public Response<AiMessage> generate(List<ChatMessage> messages) {
+                return Response.from(AiMessage.from(reply));
+            }
+        };
+        ProxyFactory proxyFactory = new ProxyFactory(AiServices.create(ScoringAgent.class, model));
+        proxyFactory.addInterface(ScoringAgent.class);
+        proxyFactory.addAdvice(new AgentMetricsInterceptor(meterRegistry));
+        return (ScoringAgent) proxyFactory.getProxy();
+    }
+
+    private long latency(String outcome) {
+        var timer = meterRegistry.find("kyc.llm.agent.latency").tag("outcome", outcome).timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
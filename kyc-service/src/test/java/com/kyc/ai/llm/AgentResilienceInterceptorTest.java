@@ -0,0 +1,248 @@
+package com.kyc.ai.llm;
+
+import com.kyc.ai.exception.ServiceUnavailableException;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.service.TokenStream;
+import dev.langchain4j.service.tool.ToolExecution;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AgentResilienceInterceptorTest {
+
+    interface ScreeningAgent {
+
+        String screen(String text);
+    }
+
+    interface StreamingAgent {
+
+        TokenStream chat(String message);
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("kyc.llm.resilience.initial-limit", "1")
+            .withProperty("kyc.llm.resilience.max-limit", "1")
+            .withProperty("kyc.llm.resilience.circuit.window-size", "2")
+            .withProperty("kyc.llm.resilience.circuit.minimum-calls", "2")
+            .withProperty("kyc.llm.resilience.circuit.open-duration", "1m");
+
+    @BeforeEach
+    void setUp() {
+        // Durations are bound the way Spring Boot binds them in the running application
+        environment.setConversionService(new ApplicationConversionService());
+    }
+
+    @Test
+    void callsBeyondTheLimitAreRejected() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ScreeningAgent agent = agent(text -> {
+            entered.countDown();
+            await(release);
+            return "screened";
+        });
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> agent.screen("a"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        ServiceUnavailableException rejected =
+                assertThrows(ServiceUnavailableException.class, () -> agent.screen("b"));
+        release.countDown();
+
+        assertEquals("screened", first.get(5, TimeUnit.SECONDS));
+        assertTrue(rejected.getMessage().contains("concurrency limit"));
+        assertEquals(1, rejections("ScreeningAgent", "bulkhead"));
+        assertEquals(0, inFlight("ScreeningAgent"));
+    }
+
+    @Test
+    void openCircuitFailsFastWithoutCallingTheModel() {
+        AtomicInteger calls = new AtomicInteger();
+        ScreeningAgent agent = agent(text -> {
+            calls.incrementAndGet();
+            throw new UncheckedIOException(new IOException("Read timed out"));
+        });
+
+        assertThrows(UncheckedIOException.class, () -> agent.screen("a"));
+        assertThrows(UncheckedIOException.class, () -> agent.screen("a"));
+        ServiceUnavailableException rejected =
+                assertThrows(ServiceUnavailableException.class, () -> agent.screen("a"));
+
+        assertEquals(2, calls.get());
+        assertTrue(rejected.getMessage().contains("temporarily unavailable"));
+        assertEquals(1, rejections("ScreeningAgent", "circuit_open"));
+        assertEquals(0, inFlight("ScreeningAgent"));
+    }
+
+    @Test
+    void parseErrorsDoNotOpenTheCircuit() {
+        ScreeningAgent agent = agent(text -> {
+            throw new IllegalStateException("Unparseable model output");
+        });
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(IllegalStateException.class, () -> agent.screen("a"));
+        }
+
+        assertEquals(0, rejections("ScreeningAgent", "circuit_open"));
+    }
+
+    @Test
+    void streamHoldsItsPermitFromStartUntilCompletion() {
+        FakeTokenStream first = new FakeTokenStream();
+        StreamingAgent agent = streamingAgent(first);
+
+        TokenStream stream = agent.chat("hi");
+        assertEquals(0, inFlight("StreamingAgent"));
+
+        stream.start();
+        assertEquals(1, inFlight("StreamingAgent"));
+        assertThrows(ServiceUnavailableException.class, () -> agent.chat("hi").start());
+        assertEquals(1, inFlight("StreamingAgent"));
+
+        first.complete();
+        assertEquals(0, inFlight("StreamingAgent"));
+    }
+
+    @Test
+    void streamReleasesItsPermitExactlyOnce() {
+        // A stream that reports an error and then completes, as well as failing its start
+        FakeTokenStream misbehaving = new FakeTokenStream();
+        FakeTokenStream failingStart = new FakeTokenStream();
+        failingStart.startFailure = new IllegalStateException("no model");
+        StreamingAgent agent = streamingAgent(misbehaving, failingStart);
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger completions = new AtomicInteger();
+
+        agent.chat("hi")
+                .onError(error -> errors.incrementAndGet())
+                .onComplete(response -> completions.incrementAndGet())
+                .start();
+        misbehaving.fail(new IllegalStateException("broken stream"));
+        misbehaving.complete();
+        assertEquals(0, inFlight("StreamingAgent"));
+
+        assertThrows(IllegalStateException.class, () -> agent.chat("hi").start());
+        assertEquals(0, inFlight("StreamingAgent"));
+        assertEquals(1, errors.get());
+        assertEquals(1, completions.get());
+
+        // A single slot is free again: a double release would have let two streams in
+        agent.chat("hi").start();
+        assertThrows(ServiceUnavailableException.class, () -> agent.chat("hi").start());
+    }
+
+    private ScreeningAgent agent(ScreeningAgent target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(ScreeningAgent.class);
+        proxyFactory.addAdvice(new AgentResilienceInterceptor(environment, meterRegistry));
+        return (ScreeningAgent) proxyFactory.getProxy();
+    }
+
+    /**
+     * Agent returning the given streams in turn, then fresh ones
+     */
+    private StreamingAgent streamingAgent(FakeTokenStream... streams) {
+        AtomicInteger next = new AtomicInteger();
+        StreamingAgent target = message -> {
+            int index = next.getAndIncrement();
+            return index < streams.length ? streams[index] : new FakeTokenStream();
+        };
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(StreamingAgent.class);
+        proxyFactory.addAdvice(new AgentResilienceInterceptor(environment, meterRegistry));
+        return (StreamingAgent) proxyFactory.getProxy();
+    }
+
+    private double rejections(String agent, String reason) {
+        return meterRegistry.counter("kyc.llm.rejected", "agent", agent, "reason", reason).count();
+    }
+
+    private double inFlight(String agent) {
+        return meterRegistry.get("kyc.llm.concurrency.in_flight").tag("agent", agent).gauge().value();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Token stream driven by the test instead of a model. */
+    private static final class FakeTokenStream implements TokenStream {
+
+        private Consumer<Response<AiMessage>> completeHandler = response -> {
+        };
+        private Consumer<Throwable> errorHandler = error -> {
+        };
+        private RuntimeException startFailure;
+
+        void complete() {
+            completeHandler.accept(Response.from(AiMessage.from("answer")));
+        }
+
+        void fail(Throwable error) {
+            errorHandler.accept(error);
+        }
+
+        @Override
+        public TokenStream onNext(Consumer<String> tokenHandler) {
+            return this;
+        }
+
+        @Override
+        public TokenStream onRetrieved(Consumer<List<Content>> contentHandler) {
+            return this;
+        }
+
+        @Override
+        public TokenStream onToolExecuted(Consumer<ToolExecution> toolExecuteHandler) {
+            return this;
+        }
+
+        @Override
+        public TokenStream onComplete(Consumer<Response<AiMessage>> completionHandler) {
+            this.completeHandler = completionHandler;
+            return this;
+        }
+
+        @Override
+        public TokenStream onError(Consumer<Throwable> errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        @Override
+        public TokenStream ignoreErrors() {
+            return this;
+        }
+
+        @Override
+        public void start() {
+            if (startFailure != null) {
+                throw startFailure;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.kyc.ai.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LlmCircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(100).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    @Test
+    void opensOnceTheFailureRateIsReached() {
+        LlmCircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        call(breaker, false, FAST);
+        call(breaker, true, FAST);
+        call(breaker, false, FAST);
+        assertEquals(LlmCircuitBreaker.State.CLOSED, breaker.getState());
+
+        call(breaker, true, FAST);
+        assertEquals(LlmCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void slowCallsCountAsFailures() {
+        LlmCircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        call(breaker, false, FAST);
+        call(breaker, false, FAST);
+        call(breaker, false, SLOW);
+        call(breaker, false, SLOW);
+
+        assertEquals(LlmCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        LlmCircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        call(breaker, true, FAST);
+        for (int i = 0; i < 8; i++) {
+            call(breaker, false, FAST);
+        }
+        call(breaker, true, FAST);
+
+        assertEquals(LlmCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void halfOpenTrialsCloseTheCircuit() {
+        LlmCircuitBreaker breaker = breaker(Duration.ZERO);
+        trip(breaker);
+
+        // Open duration elapsed: exactly two trial calls are let through
+        assertTrue(breaker.tryAcquire());
+        assertEquals(LlmCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.record(false, FAST);
+        assertEquals(LlmCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.record(false, FAST);
+        assertEquals(LlmCircuitBreaker.State.CLOSED, breaker.getState());
+
+        // The window starts over: one failure does not reopen it
+        call(breaker, true, FAST);
+        assertEquals(LlmCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failedHalfOpenTrialReopensTheCircuit() {
+        LlmCircuitBreaker breaker = breaker(Duration.ZERO);
+        trip(breaker);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.record(false, SLOW);
+
+        assertEquals(LlmCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    /**
+     * Window of 4 calls, at least 4 recorded, opens at 50% failures, 1s slow-call threshold, 2 trial calls
+     */
+    private static LlmCircuitBreaker breaker(Duration openDuration) {
+        return new LlmCircuitBreaker(4, 4, 0.5, Duration.ofSeconds(1), openDuration, 2);
+    }
+
+    private static void trip(LlmCircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, FAST);
+        }
+        assertEquals(LlmCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static void call(LlmCircuitBreaker breaker, boolean error, long latencyNanos) {
+        assertTrue(breaker.tryAcquire());
+        breaker.record(error, latencyNanos);
+    }
+}
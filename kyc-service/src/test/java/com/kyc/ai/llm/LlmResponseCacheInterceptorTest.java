@@ -0,0 +1,150 @@
+package com.kyc.ai.llm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.service.V;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LlmResponseCacheInterceptorTest {
+
+    interface ScreeningAgent {
+
+        String screen(@V("customerId") String customerId, @V("text") String text);
+    }
+
+    private static final int CALLERS = 4;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockEnvironment environment = new MockEnvironment();
+    private final AtomicInteger modelCalls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    private RuntimeException failure;
+    private LlmResponseCacheInterceptor interceptor;
+    private ScreeningAgent agent;
+
+    @BeforeEach
+    void setUp() {
+        environment.setConversionService(new ApplicationConversionService());
+        interceptor = new LlmResponseCacheInterceptor(environment, new ObjectMapper(), meterRegistry);
+        ScreeningAgent target = (customerId, text) -> {
+            modelCalls.incrementAndGet();
+            await(release);
+            if (failure != null) {
+                throw failure;
+            }
+            return "screened " + text;
+        };
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(ScreeningAgent.class);
+        proxyFactory.addAdvice(interceptor);
+        agent = (ScreeningAgent) proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalCallsShareOneModelCall() throws Exception {
+        List<CompletableFuture<String>> calls = callConcurrently("Anna  Maria\n");
+        release.countDown();
+
+        for (CompletableFuture<String> call : calls) {
+            assertEquals("screened Anna  Maria\n", call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, modelCalls.get());
+        assertEquals(1, requests("miss"));
+        assertEquals(CALLERS - 1, requests("shared"));
+
+        // Whitespace differences still hit the completed entry
+        assertEquals("screened Anna  Maria\n", agent.screen("customer-1", " Anna Maria"));
+        assertEquals(1, modelCalls.get());
+        assertEquals(1, requests("hit"));
+    }
+
+    @Test
+    void failureIsSharedWithWaitersButNotCached() throws Exception {
+        failure = new IllegalStateException("Unparseable model output");
+        List<CompletableFuture<String>> calls = callConcurrently("Anna Maria");
+        release.countDown();
+
+        for (CompletableFuture<String> call : calls) {
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+            assertSame(failure, thrown.getCause());
+        }
+        assertEquals(1, modelCalls.get());
+
+        failure = null;
+        assertEquals("screened Anna Maria", agent.screen("customer-1", "Anna Maria"));
+        assertEquals(2, modelCalls.get());
+        assertEquals(2, requests("miss"));
+    }
+
+    @Test
+    void erasureEvictsTheCustomersResponses() {
+        release.countDown();
+        agent.screen("customer-1", "Anna Maria");
+        agent.screen("customer-2", "Anna Maria");
+
+        interceptor.evictSubjects(Set.of("customer-1"));
+        agent.screen("customer-1", "Anna Maria");
+        agent.screen("customer-2", "Anna Maria");
+
+        assertEquals(3, modelCalls.get());
+    }
+
+    /**
+     * Starts {@link #CALLERS} identical calls and returns once all but the leader wait on its result
+     */
+    private List<CompletableFuture<String>> callConcurrently(String text) throws InterruptedException {
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> agent.screen("customer-1", text), callers));
+        }
+        await(() -> requests("miss") + requests("shared") == CALLERS);
+        return calls;
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("kyc.llm.cache.requests", "agent", "ScreeningAgent", "result", result).count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 250 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
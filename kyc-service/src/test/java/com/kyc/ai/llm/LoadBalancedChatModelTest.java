@@ -0,0 +1,81 @@
+package com.kyc.ai.llm;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LoadBalancedChatModelTest {
+
+    private static final String DEAD = "http://dead:11434";
+    private static final String LIVE = "http://live:11434";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OllamaEndpointPool pool = new OllamaEndpointPool(List.of(DEAD, LIVE), Duration.ofSeconds(1),
+            3.0, 20, Duration.ofMinutes(1), meterRegistry);
+
+    @Test
+    void hedgedCallFailsOverOnEarlyConnectFailure() {
+        LoadBalancedChatModel model = new LoadBalancedChatModel(pool, LoadBalancedChatModelTest::model,
+                new LoadBalancedChatModel.Hedging(true, 0.95, Duration.ofSeconds(10), 1), meterRegistry);
+        OllamaEndpoint dead = endpoint(DEAD);
+        OllamaEndpoint live = endpoint(LIVE);
+        pool.recordChatLatency(live, "", Duration.ofMillis(100).toNanos());
+
+        // Keep the live endpoint busy so the dead one is picked first
+        live.begin();
+        String answer;
+        try {
+            answer = model.generate(List.of(UserMessage.from("hello"))).content().text();
+        } finally {
+            live.end();
+        }
+
+        assertEquals("answer from " + LIVE, answer);
+        assertEquals(0, dead.getInFlight());
+    }
+
+    @Test
+    void hedgeDelayIsKeptPerPromptClass() {
+        OllamaEndpoint live = endpoint(LIVE);
+        String chat = LoadBalancedChatModel.promptClass(
+                List.of(SystemMessage.from("You are a support assistant.\nContext: a"), UserMessage.from("hi")));
+        String document = LoadBalancedChatModel.promptClass(List.of(SystemMessage.from("You are a document agent.")));
+        for (int i = 0; i < 10; i++) {
+            pool.recordChatLatency(live, chat, Duration.ofSeconds(2).toNanos());
+            pool.recordChatLatency(live, document, Duration.ofSeconds(60).toNanos());
+        }
+
+        assertEquals("You are a support assistant.", chat);
+        assertEquals(Duration.ofSeconds(2), pool.chatLatencyPercentile(chat, 0.95, 10));
+        assertEquals(Duration.ofSeconds(60), pool.chatLatencyPercentile(document, 0.95, 10));
+        assertNull(pool.chatLatencyPercentile("unseen", 0.95, 0));
+    }
+
+    private OllamaEndpoint endpoint(String baseUrl) {
+        return pool.getEndpoints().stream().filter(e -> e.getBaseUrl().equals(baseUrl)).findFirst().orElseThrow();
+    }
+
+    private static ChatLanguageModel model(String baseUrl) {
+        return new ChatLanguageModel() {
+            @Override
+            public Response<AiMessage> generate(List<ChatMessage> messages) {
+                if (baseUrl.equals(DEAD)) {
+                    throw new RuntimeException(new ConnectException("Connection refused"));
+                }
+                return Response.from(AiMessage.from("answer from " + baseUrl));
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.kyc.ai.llm;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OllamaEndpointPoolTest {
+
+    private static final String CHAT = "You are a support assistant.";
+    private static final String DOCUMENT = "You are a document agent.";
+
+    private final OllamaEndpointPool pool = new OllamaEndpointPool(List.of("http://a:11434", "http://b:11434"),
+            Duration.ofSeconds(1), 3.0, 5, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    private final OllamaEndpoint a = pool.getEndpoints().get(0);
+    private final OllamaEndpoint b = pool.getEndpoints().get(1);
+
+    @Test
+    void longPromptClassDoesNotEjectAnEndpoint() {
+        // b happens to serve the document analyses, a only chat: a mixed average would make b look 10x slower
+        for (int i = 0; i < 5; i++) {
+            pool.recordChatLatency(a, CHAT, Duration.ofSeconds(2).toNanos());
+            pool.recordChatLatency(b, CHAT, Duration.ofMillis(2500).toNanos());
+            pool.recordChatLatency(b, DOCUMENT, Duration.ofSeconds(60).toNanos());
+        }
+
+        assertFalse(b.isEjected(System.nanoTime()));
+    }
+
+    @Test
+    void endpointSlowForAPromptClassIsEjected() {
+        for (int i = 0; i < 5; i++) {
+            pool.recordChatLatency(a, CHAT, Duration.ofSeconds(2).toNanos());
+            pool.recordChatLatency(b, CHAT, Duration.ofSeconds(10).toNanos());
+        }
+
+        assertTrue(b.isEjected(System.nanoTime()));
+        assertFalse(a.isEjected(System.nanoTime()));
+    }
+}
@@ -0,0 +1,89 @@
+package com.kyc.ai.llm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Status;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OllamaModelWarmerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private HttpServer ollama;
+    private OllamaModelWarmer warmer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ollama = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ollama.createContext("/", exchange -> {
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        ollama.start();
+        OllamaEndpointPool pool = new OllamaEndpointPool(
+                List.of("http://127.0.0.1:" + ollama.getAddress().getPort()), Duration.ofSeconds(1), 3.0, 20,
+                Duration.ofMinutes(1), meterRegistry);
+        warmer = new OllamaModelWarmer(pool, new ObjectMapper(), meterRegistry, List.of("chat-model"),
+                List.of("embedding-model"), false, "", "30m", Duration.ofSeconds(5), Duration.ofSeconds(5),
+                Duration.ofMillis(20), Duration.ofMillis(20), 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        warmer.destroy();
+        ollama.stop(0);
+    }
+
+    @Test
+    void readinessStaysUpWhenModelsGoColdAfterWarmUp() throws Exception {
+        OllamaModelsHealthIndicator health = new OllamaModelsHealthIndicator(provider(warmer));
+        status.set(503);
+        warmer.start();
+
+        await(() -> meterRegistry.find("kyc.llm.model.probe").tag("outcome", "failure").timer() != null);
+        assertEquals(Status.DOWN, health.health().getStatus());
+
+        status.set(200);
+        await(warmer::hasWarmedUp);
+        assertEquals(Status.UP, health.health().getStatus());
+
+        status.set(503);
+        await(() -> !warmer.isReady());
+        assertEquals(Status.UP, health.health().getStatus());
+        assertFalse((Boolean) health.health().getDetails().get("ready"));
+        assertEquals(0.0, meterRegistry.get("kyc.llm.model.ready_endpoints").gauge().value());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<OllamaModelWarmer> provider(OllamaModelWarmer warmer) {
+        ObjectProvider<OllamaModelWarmer> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(warmer);
+        return provider;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 250 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,91 @@
+package com.kyc.ai.messaging;
+
+import com.kyc.ai.config.RabbitMqConfig;
+import com.kyc.ai.entity.KycDocument;
+import com.kyc.ai.exception.ServiceUnavailableException;
+import com.kyc.ai.service.DocumentAnalysisService;
+import com.kyc.ai.service.KycOrchestrationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KycPipelineListenerTest {
+
+    private final DocumentAnalysisService documentService = mock(DocumentAnalysisService.class);
+    private final KycOrchestrationService orchestrationService = mock(KycOrchestrationService.class);
+    private final KycPipelinePublisher publisher = mock(KycPipelinePublisher.class);
+    private final KycPipelineListener listener =
+            new KycPipelineListener(documentService, orchestrationService, publisher);
+    private final UUID documentId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(listener, "maxRetryAttempts", 2);
+    }
+
+    @Test
+    void overloadReturnsDocumentToQueueAndRetries() throws Exception {
+        // The OCR stage wraps the pool's rejection in an IOException
+        when(documentService.runOcrStage(documentId)).thenThrow(
+                new IOException("Could not read stored document", new ServiceUnavailableException("busy")));
+        KycPipelineMessage message = message(0);
+
+        listener.onOcr(message);
+
+        verify(documentService).returnToQueue(documentId);
+        verify(publisher).publishRetry(RabbitMqConfig.OCR_QUEUE, message);
+        verify(documentService, never()).markStageFailed(any(), any(), any());
+    }
+
+    @Test
+    void overloadFailsOnceRetriesAreUsedUp() {
+        KycPipelineMessage message = message(2);
+        when(orchestrationService.runAnalysisStage(message)).thenThrow(new ServiceUnavailableException("busy"));
+
+        assertThrows(AmqpRejectAndDontRequeueException.class, () -> listener.onAnalysis(message));
+
+        verify(documentService).markStageFailed(eq(documentId), eq("ANALYSIS"), any());
+        verify(publisher, never()).publishRetry(any(), any());
+    }
+
+    @Test
+    void riskStageOverloadIsRetried() throws Exception {
+        KycPipelineMessage message = message(0);
+        doThrow(new ServiceUnavailableException("RiskAgent is temporarily unavailable"))
+                .when(orchestrationService).runRiskStage(message);
+
+        listener.onRisk(message);
+
+        verify(publisher).publishRetry(RabbitMqConfig.RISK_QUEUE, message);
+        verify(documentService, never()).markStageFailed(any(), any(), any());
+    }
+
+    @Test
+    void otherFailuresAreNotRetried() {
+        KycPipelineMessage message = message(0);
+        when(orchestrationService.runAnalysisStage(message)).thenThrow(new IllegalStateException("bad output"));
+
+        assertThrows(AmqpRejectAndDontRequeueException.class, () -> listener.onAnalysis(message));
+
+        verify(documentService).markStageFailed(eq(documentId), eq("ANALYSIS"), any());
+        verify(documentService, never()).returnToQueue(any());
+    }
+
+    private KycPipelineMessage message(int attempt) {
+        return new KycPipelineMessage(documentId, "customer-1", KycDocument.DocumentType.PASSPORT,
+                KycDocument.LegalBasis.LEGAL_OBLIGATION, attempt);
+    }
+}
@@ -0,0 +1,109 @@
+package com.kyc.ai.ocr;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Check digit and layout tests against the ICAO 9303 specimen zones
+ * (Part 4 TD3 passport, Part 5 TD1 ID card).
+ */
+class MrzParserTest {
+
+    private static final String TD3_LINE1 = "P<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<";
+    private static final String TD3_LINE2 = "L898902C36UTO7408122F1204159ZE184226B<<<<<10";
+
+    private static final String TD1_LINE1 = "I<UTOD231458907<<<<<<<<<<<<<<<";
+    private static final String TD1_LINE2 = "7408122F1204159UTO<<<<<<<<<<<6";
+    private static final String TD1_LINE3 = "ERIKSSON<<ANNA<MARIA<<<<<<<<<<";
+
+    @Test
+    void checkDigitMatchesSpecimen() {
+        assertEquals(6, MrzParser.checkDigit("L898902C3"));
+        assertEquals(2, MrzParser.checkDigit("740812"));
+        assertEquals(9, MrzParser.checkDigit("120415"));
+        assertEquals(7, MrzParser.checkDigit("D23145890"));
+    }
+
+    @Test
+    void parsesTd3Specimen() {
+        MrzParser.MrzRecord mrz = MrzParser.parse(TD3_LINE1 + "\n" + TD3_LINE2).orElseThrow();
+
+        assertEquals(MrzParser.Format.TD3, mrz.format());
+        assertEquals("P", mrz.documentCode());
+        assertEquals("UTO", mrz.issuingState());
+        assertEquals("L898902C3", mrz.documentNumber());
+        assertEquals("UTO", mrz.nationality());
+        assertEquals(LocalDate.of(1974, 8, 12), mrz.dateOfBirth());
+        assertEquals("F", mrz.sex());
+        assertEquals(LocalDate.of(2012, 4, 15), mrz.expiryDate());
+        assertEquals("ANNA MARIA ERIKSSON", mrz.fullName());
+    }
+
+    @Test
+    void parsesTd1Specimen() {
+        MrzParser.MrzRecord mrz = MrzParser.parse(TD1_LINE1 + "\n" + TD1_LINE2 + "\n" + TD1_LINE3)
+                .orElseThrow();
+
+        assertEquals(MrzParser.Format.TD1, mrz.format());
+        assertEquals("I", mrz.documentCode());
+        assertEquals("D23145890", mrz.documentNumber());
+        assertEquals(LocalDate.of(1974, 8, 12), mrz.dateOfBirth());
+        assertEquals(LocalDate.of(2012, 4, 15), mrz.expiryDate());
+        assertEquals("ERIKSSON", mrz.surname());
+        assertEquals("ANNA MARIA", mrz.givenNames());
+    }
+
+    @Test
+    void findsZoneInSurroundingOcrNoise() {
+        String ocr = "REPUBLIC OF UTOPIA\nPASSPORT\n" + TD3_LINE1.replace("<", " < ") + "\n" + TD3_LINE2 + "\n";
+
+        assertTrue(MrzParser.parse(ocr).isPresent());
+    }
+
+    @Test
+    void correctsOcrLetterDigitConfusionInDates() {
+        Optional<MrzParser.MrzRecord> mrz = MrzParser.parse(
+                TD3_LINE1 + "\n" + TD3_LINE2.replace("7408122F", "74O8122F"));
+
+        assertEquals(LocalDate.of(1974, 8, 12), mrz.orElseThrow().dateOfBirth());
+    }
+
+    @Test
+    void rejectsUnknownBirthDateFiller() {
+        // Unknown dates are filled with '<' and check digit 0, which validates
+        String line2 = "L898902C36UTO<<<<<<0F1204159ZE184226B<<<<<10";
+
+        assertTrue(MrzParser.parse(TD3_LINE1 + "\n" + line2).isEmpty());
+    }
+
+    @Test
+    void rejectsWrongDocumentNumberCheckDigit() {
+        assertTrue(MrzParser.parse(TD3_LINE1 + "\n" + TD3_LINE2.replace("L898902C36", "L898902C35")).isEmpty());
+        assertTrue(MrzParser.parse(TD1_LINE1.replace("D231458907", "D231458908") + "\n" + TD1_LINE2 + "\n"
+                + TD1_LINE3).isEmpty());
+    }
+
+    @Test
+    void rejectsWrongDateCheckDigits() {
+        assertTrue(MrzParser.parse(TD3_LINE1 + "\n" + TD3_LINE2.replace("7408122F", "7408123F")).isEmpty());
+        assertTrue(MrzParser.parse(TD3_LINE1 + "\n" + TD3_LINE2.replace("1204159", "1204158")).isEmpty());
+    }
+
+    @Test
+    void rejectsWrongCompositeCheckDigit() {
+        assertTrue(MrzParser.parse(TD3_LINE1 + "\n" + TD3_LINE2.substring(0, 43) + "1").isEmpty());
+        assertTrue(MrzParser.parse(TD1_LINE1 + "\n" + TD1_LINE2.substring(0, 29) + "7" + "\n" + TD1_LINE3)
+                .isEmpty());
+    }
+
+    @Test
+    void ignoresTextWithoutZone() {
+        assertTrue(MrzParser.parse(null).isEmpty());
+        assertTrue(MrzParser.parse("Utility bill\nAmount due: 42.00 EUR").isEmpty());
+    }
+}
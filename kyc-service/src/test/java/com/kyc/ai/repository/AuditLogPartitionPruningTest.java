@@ -0,0 +1,132 @@
+package com.kyc.ai.repository;
+
+import com.kyc.ai.entity.AuditLog;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL Hibernate generates for the AuditLogRepository
+ * queries and checks which kyc_audit_log partitions the plans visit. The
+ * queries are run unpaged so the captured statement only binds the query's
+ * own parameters. Skipped when no Docker daemon is available.
+ */
+@SpringBootTest(properties = {
+        "kyc.llm.warmup.enabled=false",
+        "kyc.pipeline.async-enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.kyc.ai.repository.AuditLogPartitionPruningTest$LastStatement"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class AuditLogPartitionPruningTest {
+
+    private static final Pattern PARTITION = Pattern.compile("kyc_audit_log_(\\d{4}_\\d{2}|default)\\b");
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(
+            DockerImageName.parse("ankane/pgvector:latest").asCompatibleSubstituteFor("postgres"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private AuditLogRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Inside the current month, which V8 created a partition for along with the next three
+    private final LocalDateTime start = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+    private final LocalDateTime end = start.plusDays(10);
+    private final Set<String> currentMonth = Set.of(start.format(MONTH));
+
+    @BeforeEach
+    void setUp() {
+        LastStatement.SQL.remove();
+    }
+
+    @Test
+    void dateRangeQueriesOnlyVisitTheirMonth() {
+        repository.findByDateRange(start, end, Pageable.unpaged());
+        assertThat(partitionsVisited(start, end)).isEqualTo(currentMonth);
+
+        repository.countByActionAndDateRange(AuditLog.AuditAction.PROCESS, start, end);
+        assertThat(partitionsVisited("PROCESS", start, end)).isEqualTo(currentMonth);
+
+        repository.countAccessByDataCategory(start, end);
+        assertThat(partitionsVisited(start, end)).isEqualTo(currentMonth);
+
+        repository.findByActionAndDateRange(AuditLog.AuditAction.PROCESS, start, end, Pageable.unpaged());
+        assertThat(partitionsVisited("PROCESS", start, end)).isEqualTo(currentMonth);
+
+        repository.findFailedActions(start, end, Pageable.unpaged());
+        assertThat(partitionsVisited(start, end)).isEqualTo(currentMonth);
+
+        repository.findByPerformedByAndPerformedAtBetweenOrderByPerformedAtDesc("AI_AGENT", start, end,
+                Pageable.unpaged());
+        assertThat(partitionsVisited("AI_AGENT", start, end)).isEqualTo(currentMonth);
+    }
+
+    @Test
+    void customerQueriesVisitEveryPartition() {
+        repository.findByCustomerIdOrderByPerformedAtDesc("CUST-1", Pageable.unpaged());
+
+        assertThat(partitionsVisited("CUST-1"))
+                .contains("default", start.format(MONTH), start.plusMonths(3).format(MONTH));
+    }
+
+    /**
+     * Partitions in the plan of the last statement Hibernate ran, with these bind values
+     */
+    private Set<String> partitionsVisited(Object... parameters) {
+        String sql = LastStatement.SQL.get();
+        assertThat(sql).isNotNull();
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters);
+        Set<String> partitions = new TreeSet<>();
+        for (String line : plan) {
+            Matcher matcher = PARTITION.matcher(line);
+            while (matcher.find()) {
+                partitions.add(matcher.group(1));
+            }
+        }
+        return partitions;
+    }
+
+    /** Keeps the SQL of the last statement Hibernate prepared on each thread. */
+    public static class LastStatement implements StatementInspector {
+
+        static final ThreadLocal<String> SQL = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String statement) {
+            SQL.set(statement);
+            return statement;
+        }
+    }
+}
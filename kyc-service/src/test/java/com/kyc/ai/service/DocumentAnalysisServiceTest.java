@@ -0,0 +1,116 @@
+package com.kyc.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyc.ai.agent.DocumentAgent;
+import com.kyc.ai.entity.KycDocument;
+import com.kyc.ai.ocr.ImagePreprocessor;
+import com.kyc.ai.ocr.TesseractPool;
+import com.kyc.ai.repository.KycDocumentRepository;
+import io.minio.MinioClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentAnalysisServiceTest {
+
+    private final GdprService gdprService = mock(GdprService.class);
+    private final KycDocumentRepository documentRepository = mock(KycDocumentRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final DocumentAnalysisCache analysisCache = mock(DocumentAnalysisCache.class);
+    private final MrzAnalysisService mrzAnalysisService = mock(MrzAnalysisService.class);
+    private final DocumentAnalysisService service = new DocumentAnalysisService(mock(DocumentAgent.class),
+            gdprService, documentRepository, mock(MinioClient.class), mock(TesseractPool.class),
+            mock(ImagePreprocessor.class), new ObjectMapper(), transactionTemplate, analysisCache,
+            mrzAnalysisService, mock(StageExecutor.class));
+
+    private final KycDocument document = new KycDocument();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        document.setId(UUID.randomUUID());
+        document.setCustomerId("customer-1");
+        document.setDocumentType(KycDocument.DocumentType.PASSPORT);
+        document.setProcessingLegalBasis(KycDocument.LegalBasis.LEGAL_OBLIGATION);
+        document.setContentHash("hash");
+        document.setText("encrypted-ocr");
+        document.setVerificationStatus(KycDocument.VerificationStatus.IN_PROGRESS);
+        when(documentRepository.findById(document.getId())).thenReturn(Optional.of(document));
+        when(analysisCache.get(any(), any(), any())).thenReturn(Optional.empty());
+        when(gdprService.decrypt("encrypted-ocr")).thenReturn("P<UTOERIKSSON<<ANNA<MARIA");
+        when(gdprService.encrypt(anyString())).thenReturn("encrypted-analysis");
+        when(mrzAnalysisService.analyze(any(), any(), any())).thenReturn(Optional.of(verifiedAnalysis()));
+    }
+
+    @Test
+    void recordsAnalysisOfADocumentStillInProgress() {
+        when(documentRepository.updateAnalysisIfInProgress(eq(document.getId()), any(), any(), any(), any(),
+                eq(KycDocument.VerificationStatus.VERIFIED), eq("MRZ_PARSER"), any())).thenReturn(1);
+
+        KycDocument result = service.runAnalysisStage(document.getId());
+
+        assertEquals(KycDocument.VerificationStatus.VERIFIED, result.getVerificationStatus());
+        verify(analysisCache).put(eq("hash"), eq(KycDocument.DocumentType.PASSPORT), eq("customer-1"), any());
+        verify(documentRepository, never()).save(any());
+    }
+
+    @Test
+    void discardsAnalysisOfADocumentThatLeftTheStage() {
+        // Flagged by the reconciler (or erased) while the analysis ran: the guarded update matches no row
+        KycDocument flagged = new KycDocument();
+        flagged.setId(document.getId());
+        flagged.setVerificationStatus(KycDocument.VerificationStatus.NEEDS_REVIEW);
+        when(documentRepository.findById(document.getId()))
+                .thenReturn(Optional.of(document), Optional.of(flagged));
+        when(documentRepository.updateAnalysisIfInProgress(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(0);
+
+        KycDocument result = service.runAnalysisStage(document.getId());
+
+        assertEquals(KycDocument.VerificationStatus.NEEDS_REVIEW, result.getVerificationStatus());
+        verify(analysisCache, never()).put(any(), any(), any(), any());
+        verify(documentRepository, never()).save(any());
+    }
+
+    @Test
+    void discardsOcrTextOfADocumentThatLeftTheStage() throws Exception {
+        when(documentRepository.updateStatusIfCurrent(eq(document.getId()),
+                eq(KycDocument.VerificationStatus.PENDING), eq(KycDocument.VerificationStatus.IN_PROGRESS), any()))
+                .thenReturn(1);
+        when(analysisCache.get(any(), any(), any()))
+                .thenReturn(Optional.of(new DocumentAnalysisCache.Entry("cached-ocr", "cached-analysis")));
+        when(gdprService.decrypt("cached-analysis"))
+                .thenReturn(new ObjectMapper().writeValueAsString(verifiedAnalysis()));
+        when(documentRepository.updateOcrTextIfInProgress(eq(document.getId()), eq("cached-ocr"), any()))
+                .thenReturn(0);
+
+        assertFalse(service.runOcrStage(document.getId()));
+        verify(documentRepository, never()).save(any());
+    }
+
+    private static DocumentAgent.DocumentAnalysisResult verifiedAnalysis() {
+        return new DocumentAgent.DocumentAnalysisResult(
+                new DocumentAgent.ExtractedData("Anna Maria Eriksson", "1974-08-12", "UTO", "F", "hashed",
+                        "PASSPORT", null, "2034-04-15", null, null, null),
+                new DocumentAgent.ConfidenceScores(0.95, 0.95, 0.95, 0.95, 0.95),
+                new DocumentAgent.ValidationResults(true, true, true, List.of()),
+                List.of(),
+                new DocumentAgent.GdprMetadata(true, List.of(), 90, "KYC_VERIFICATION", "LEGAL_OBLIGATION"));
+    }
+}
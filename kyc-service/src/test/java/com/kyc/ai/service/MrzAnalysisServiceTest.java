@@ -0,0 +1,72 @@
+package com.kyc.ai.service;
+
+import com.kyc.ai.agent.DocumentAgent;
+import com.kyc.ai.entity.KycDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MrzAnalysisServiceTest {
+
+    private static final String TD3 = """
+            P<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<
+            L898902C36UTO7408122F1204159ZE184226B<<<<<10
+            """;
+    private static final String TD1 = """
+            I<UTOD231458907<<<<<<<<<<<<<<<
+            7408122F1204159UTO<<<<<<<<<<<6
+            ERIKSSON<<ANNA<MARIA<<<<<<<<<<
+            """;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MrzAnalysisService service;
+
+    @BeforeEach
+    void setUp() {
+        GdprService gdprService = mock(GdprService.class);
+        when(gdprService.hashIdentifier(anyString())).thenReturn("hashed");
+        service = new MrzAnalysisService(gdprService, meterRegistry);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "retentionDays", 90);
+    }
+
+    @Test
+    void acceptsMatchingFormats() {
+        assertTrue(analyze(KycDocument.DocumentType.PASSPORT, TD3).validationResults().documentValid());
+        assertTrue(analyze(KycDocument.DocumentType.ID_CARD, TD1).validationResults().documentValid());
+    }
+
+    @Test
+    void rejectsIdCardZoneOnPassport() {
+        DocumentAgent.DocumentAnalysisResult result = analyze(KycDocument.DocumentType.PASSPORT, TD1);
+
+        assertFalse(result.validationResults().documentValid());
+        assertFalse(result.validationResults().formatValid());
+        assertEquals(1, result.validationResults().suspiciousPatterns().size());
+        assertEquals(1.0, meterRegistry.counter("kyc.mrz.fast_path", "docType", "PASSPORT",
+                "outcome", "format_mismatch").count());
+    }
+
+    @Test
+    void rejectsPassportZoneOnIdCard() {
+        assertFalse(analyze(KycDocument.DocumentType.ID_CARD, TD3).validationResults().documentValid());
+    }
+
+    @Test
+    void leavesOtherDocumentTypesToTheAgent() {
+        assertTrue(service.analyze(KycDocument.DocumentType.UTILITY_BILL, KycDocument.LegalBasis.LEGAL_OBLIGATION,
+                TD3).isEmpty());
+    }
+
+    private DocumentAgent.DocumentAnalysisResult analyze(KycDocument.DocumentType docType, String ocrText) {
+        return service.analyze(docType, KycDocument.LegalBasis.LEGAL_OBLIGATION, ocrText).orElseThrow();
+    }
+}
@@ -0,0 +1,88 @@
+package com.kyc.ai.service;
+
+import com.kyc.ai.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StageExecutorTest {
+
+    // Virtual-thread mode with a single permit
+    private final StageExecutor executor = new StageExecutor(1, 0, Duration.ofMillis(100), true,
+            new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    void releasesPermitWhenStageCompletes() throws Exception {
+        assertEquals("done", executor.await(executor.submit(() -> "done")));
+        assertEquals("again", awaitPermit(() -> executor.submit(() -> "again")));
+    }
+
+    @Test
+    void cancelledStageKeepsPermitUntilItExits() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch exited = new CountDownLatch(1);
+        Future<String> stuck = executor.submit(() -> {
+            entered.countDown();
+            try {
+                // Like a native OCR call, the stage does not react to the interrupt
+                while (true) {
+                    try {
+                        if (release.await(10, TimeUnit.MILLISECONDS)) {
+                            return "late";
+                        }
+                    } catch (InterruptedException ignored) {
+                        // keep running
+                    }
+                }
+            } finally {
+                exited.countDown();
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        assertThrows(TimeoutException.class, () -> executor.await(stuck));
+        assertTrue(stuck.isCancelled());
+        assertThrows(ServiceUnavailableException.class, () -> executor.submit(() -> "rejected"));
+
+        release.countDown();
+        assertTrue(exited.await(5, TimeUnit.SECONDS));
+        assertEquals("next", awaitPermit(() -> executor.submit(() -> "next")));
+    }
+
+    /**
+     * The permit is returned in the stage's finally, just after it completes
+     */
+    private String awaitPermit(StageSubmission submission) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                return executor.await(submission.submit());
+            } catch (ServiceUnavailableException e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(5);
+            }
+        }
+    }
+
+    private interface StageSubmission {
+        Future<String> submit();
+    }
+}